@@ -0,0 +1,58 @@
+package org.cardanofoundation.rewards.benchmarks;
+
+import org.cardanofoundation.rewards.calculation.util.BigNumberUtils;
+import org.cardanofoundation.rewards.calculation.util.LongNumberUtils;
+import org.cardanofoundation.rewards.calculation.util.Rational;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * The number operations the reward formulas are built of, on lovelace sized operands.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigNumberUtilsBenchmark {
+
+    private final BigInteger poolReward = new BigInteger("48211952611");
+    private final BigInteger memberStake = new BigInteger("1735201238815");
+    private final BigInteger adaInCirculation = new BigInteger("36541337239108021");
+    private final BigDecimal margin = new BigDecimal("0.035");
+    private final BigDecimal relativeStake = BigNumberUtils.divide(memberStake, adaInCirculation);
+
+    @Benchmark
+    public BigDecimal divide() {
+        return BigNumberUtils.divide(memberStake, adaInCirculation);
+    }
+
+    @Benchmark
+    public BigDecimal multiply() {
+        return BigNumberUtils.multiply(poolReward, margin, relativeStake);
+    }
+
+    @Benchmark
+    public BigInteger floor() {
+        return BigNumberUtils.floor(BigNumberUtils.multiply(poolReward, relativeStake));
+    }
+
+    @Benchmark
+    public BigInteger multiplyAndFloor() {
+        return BigNumberUtils.multiplyAndFloor(poolReward, margin, relativeStake);
+    }
+
+    @Benchmark
+    public BigInteger rationalMultiplyAndFloor() {
+        return Rational.of(memberStake, adaInCirculation).multiply(Rational.of(margin)).multiply(poolReward).floor();
+    }
+
+    @Benchmark
+    public long longMultiplyAndFloorDivide() {
+        return LongNumberUtils.multiplyAndFloorDivide(poolReward.longValue(), memberStake.longValue(), adaInCirculation.longValue());
+    }
+}
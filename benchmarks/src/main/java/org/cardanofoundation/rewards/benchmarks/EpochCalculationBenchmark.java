@@ -0,0 +1,61 @@
+package org.cardanofoundation.rewards.benchmarks;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.EpochCalculationResult;
+import org.cardanofoundation.rewards.validation.EpochValidation;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Calculates the reward pots of a complete synthetic epoch, sequentially and on a fork join pool
+ * with one thread per available processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class EpochCalculationBenchmark {
+
+    private static final int EPOCH = 450;
+
+    @Param({"1000", "3000", "10000"})
+    private int poolCount;
+
+    @Param({"100000", "1000000", "5000000"})
+    private int delegatorCount;
+
+    private final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+    private EpochValidationInput epoch;
+    private ForkJoinPool forkJoinPool;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        epoch = new SyntheticEpochGenerator(42, networkConfig).generate(EPOCH, poolCount, delegatorCount);
+        forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    private EpochCalculationResult calculateEpochRewardPots(ForkJoinPool forkJoinPool) {
+        return EpochValidation.calculateEpochRewardPots(EPOCH, epoch, networkConfig, forkJoinPool);
+    }
+
+    @Benchmark
+    public EpochCalculationResult calculateEpochRewardPots() {
+        return calculateEpochRewardPots(null);
+    }
+
+    @Benchmark
+    public EpochCalculationResult calculateEpochRewardPotsInParallel() {
+        return calculateEpochRewardPots(forkJoinPool);
+    }
+}
@@ -0,0 +1,95 @@
+package org.cardanofoundation.rewards.benchmarks;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationDelegatorReward;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputBinaryReader;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputBinaryWriter;
+import org.cardanofoundation.rewards.validation.util.JsonConverter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/*
+ * Loads a synthetic epoch from its gzip json file and from its binary file. The files are written
+ * to a temporary folder once per trial and their sizes are printed. With rewards, every delegator
+ * has a reward in the pool rewards of the epoch, like in the epochs fetched from db-sync.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EpochValidationInputFormatBenchmark {
+
+    private static final int EPOCH = 450;
+
+    @Param({"3000"})
+    private int poolCount;
+
+    @Param({"400000"})
+    private int delegatorCount;
+
+    @Param({"true", "false"})
+    private boolean withRewards;
+
+    private Path folder;
+    private Path jsonFile;
+    private Path binaryFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        EpochValidationInput epoch = new SyntheticEpochGenerator(5, NetworkConfig.getMainnetConfig())
+                .generate(EPOCH, poolCount, delegatorCount);
+        if (withRewards) {
+            Random random = new Random(5);
+            epoch.setPoolRewards(epoch.getPoolStates().stream()
+                    .map(poolState -> EpochValidationPoolReward.builder()
+                            .poolId(poolState.getPoolId())
+                            .totalPoolReward(BigInteger.valueOf(random.nextInt(1_000_000_000)))
+                            .delegatorRewards(poolState.getDelegators().stream()
+                                    .map(delegator -> EpochValidationDelegatorReward.builder()
+                                            .stakeAddress(delegator.getStakeAddress())
+                                            .reward(BigInteger.valueOf(random.nextInt(100_000_000)))
+                                            .build())
+                                    .collect(Collectors.toCollection(HashSet::new)))
+                            .build())
+                    .collect(Collectors.toCollection(HashSet::new)));
+        }
+
+        folder = Files.createTempDirectory("epoch-validation-input-format");
+        jsonFile = folder.resolve("epoch-validation-input-" + EPOCH + ".json.gz");
+        binaryFile = folder.resolve("epoch-validation-input-" + EPOCH + ".bin");
+        JsonConverter.writeObjectToCompressedJsonFile(epoch, jsonFile.toString());
+        EpochValidationInputBinaryWriter.write(epoch, binaryFile.toString());
+        System.out.printf("%n%s: %d bytes, %s: %d bytes%n", jsonFile.getFileName(), Files.size(jsonFile),
+                binaryFile.getFileName(), Files.size(binaryFile));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(binaryFile);
+        Files.deleteIfExists(folder);
+    }
+
+    @Benchmark
+    public EpochValidationInput readJsonFile() throws IOException {
+        return JsonConverter.readJsonFile(jsonFile.toString(), EpochValidationInput.class);
+    }
+
+    @Benchmark
+    public EpochValidationInput readBinaryFile() throws IOException {
+        return EpochValidationInputBinaryReader.read(binaryFile.toString());
+    }
+}
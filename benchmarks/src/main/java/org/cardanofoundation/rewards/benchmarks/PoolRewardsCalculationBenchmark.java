@@ -0,0 +1,130 @@
+package org.cardanofoundation.rewards.benchmarks;
+
+import org.cardanofoundation.rewards.calculation.PoolRewardsCalculation;
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.*;
+import org.cardanofoundation.rewards.calculation.util.Rational;
+import org.cardanofoundation.rewards.validation.EpochValidation;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.cardanofoundation.rewards.calculation.util.BigNumberUtils.mathContext;
+
+/*
+ * Calculates the rewards of all pools of a synthetic epoch one by one with
+ * calculatePoolRewardInEpoch, and the single formulas that are evaluated per pool and per delegator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class PoolRewardsCalculationBenchmark {
+
+    private static final int EPOCH = 450;
+
+    @Param({"1000", "3000", "10000"})
+    private int poolCount;
+
+    @Param({"100000", "1000000", "5000000"})
+    private int delegatorCount;
+
+    private final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+    private final BigInteger stakePoolRewardsPot = new BigInteger("15000000000000");
+    private EpochValidationInput epoch;
+    private ProtocolParameters protocolParameters;
+    private Epoch epochInfo;
+    private BigInteger adaInCirculation;
+    private List<PoolState> poolStates;
+
+    // The delegators of the pools of the epoch as parallel arrays
+    private List<DelegatorStakes> delegatorStakesOfPools;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        epoch = new SyntheticEpochGenerator(42, networkConfig).generate(EPOCH, poolCount, delegatorCount);
+        protocolParameters = EpochValidation.getProtocolParameters(epoch);
+        epochInfo = EpochValidation.getEpochInfo(EPOCH, epoch);
+        adaInCirculation = networkConfig.getTotalLovelace().subtract(epoch.getReservesOfPreviousEpoch());
+        poolStates = new ArrayList<>(epoch.getPoolStates());
+        final StakeAddressDictionary stakeAddressDictionary = new StakeAddressDictionary(delegatorCount);
+        delegatorStakesOfPools = poolStates.stream()
+                .map(poolState -> DelegatorStakes.of(poolState.getDelegators(), stakeAddressDictionary))
+                .toList();
+    }
+
+    @Benchmark
+    public void calculatePoolRewardInEpoch(Blackhole blackhole) {
+        final int totalBlocks = epochInfo.getBlockCount();
+        for (PoolState poolState : poolStates) {
+            PoolRewardCalculationResult result = PoolRewardsCalculation.calculatePoolRewardInEpoch(poolState.getPoolId(),
+                    poolState, totalBlocks, protocolParameters, adaInCirculation,
+                    epochInfo.getActiveStake(), stakePoolRewardsPot, poolState.getOwnerActiveStake(),
+                    poolState.getOwners(), epoch.getDeregisteredAccounts(), false, epoch.getLateDeregisteredAccounts(),
+                    epoch.getRegisteredAccountsSinceLastEpoch(), networkConfig);
+            blackhole.consume(result);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void calculateOptimalPoolReward(Blackhole blackhole) {
+        final Rational influence = Rational.of(protocolParameters.getPoolOwnerInfluence());
+        final int optimalPoolCount = protocolParameters.getOptimalPoolCount();
+        for (PoolState poolState : poolStates) {
+            blackhole.consume(PoolRewardsCalculation.calculateOptimalPoolReward(stakePoolRewardsPot,
+                    optimalPoolCount, influence,
+                    Rational.of(poolState.getActiveStake(), adaInCirculation),
+                    Rational.of(poolState.getPledge(), adaInCirculation)));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void calculateOptimalPoolRewardWithDecimals(Blackhole blackhole) {
+        final BigDecimal influence = protocolParameters.getPoolOwnerInfluence();
+        final int optimalPoolCount = protocolParameters.getOptimalPoolCount();
+        final BigDecimal decimalAdaInCirculation = new BigDecimal(adaInCirculation);
+        for (PoolState poolState : poolStates) {
+            blackhole.consume(PoolRewardsCalculation.calculateOptimalPoolReward(stakePoolRewardsPot,
+                    optimalPoolCount, influence,
+                    new BigDecimal(poolState.getActiveStake()).divide(decimalAdaInCirculation, mathContext),
+                    new BigDecimal(poolState.getPledge()).divide(decimalAdaInCirculation, mathContext)));
+        }
+    }
+
+    @Benchmark
+    public void calculateMemberRewards(Blackhole blackhole) {
+        final BigInteger poolReward = BigInteger.valueOf(50_000_000_000L);
+        for (PoolState poolState : poolStates) {
+            final MemberRewardCoefficient memberRewardCoefficient = PoolRewardsCalculation.calculateMemberRewardCoefficient(
+                    poolReward, Rational.of(poolState.getMargin()), poolState.getFixedCost(), poolState.getActiveStake());
+            for (Delegator delegator : poolState.getDelegators()) {
+                blackhole.consume(memberRewardCoefficient.calculateMemberReward(delegator.getActiveStake().longValue()));
+            }
+        }
+    }
+
+    @Benchmark
+    public void calculateMemberRewardsOfDelegatorStakes(Blackhole blackhole) {
+        final BigInteger poolReward = BigInteger.valueOf(50_000_000_000L);
+        for (int i = 0; i < poolStates.size(); i++) {
+            final PoolState poolState = poolStates.get(i);
+            final DelegatorStakes delegatorStakes = delegatorStakesOfPools.get(i);
+            final MemberRewardCoefficient memberRewardCoefficient = PoolRewardsCalculation.calculateMemberRewardCoefficient(
+                    poolReward, Rational.of(poolState.getMargin()), poolState.getFixedCost(), poolState.getActiveStake());
+            for (int j = 0; j < delegatorStakes.size(); j++) {
+                blackhole.consume(memberRewardCoefficient.calculateMemberReward(delegatorStakes.getActiveStake(j)));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.cardanofoundation.rewards.benchmarks;
+
+import org.cardanofoundation.rewards.calculation.TreasuryCalculation;
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.*;
+import org.cardanofoundation.rewards.validation.EpochValidation;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Calculates the treasury of a synthetic epoch. The size of the deregistration and registration
+ * sets that are scanned for the reward addresses of retired pools grows with the delegator count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx12g")
+public class TreasuryCalculationBenchmark {
+
+    private static final int EPOCH = 450;
+
+    @Param({"1000", "3000", "10000"})
+    private int poolCount;
+
+    @Param({"100000", "1000000", "5000000"})
+    private int delegatorCount;
+
+    private final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+    private EpochValidationInput epoch;
+    private ProtocolParameters protocolParameters;
+    private AdaPots adaPotsOfPreviousEpoch;
+    private Epoch epochInfo;
+    private List<MirCertificate> mirCertificates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        epoch = new SyntheticEpochGenerator(42, networkConfig).generate(EPOCH, poolCount, delegatorCount);
+        protocolParameters = EpochValidation.getProtocolParameters(epoch);
+        adaPotsOfPreviousEpoch = AdaPots.builder()
+                .epoch(EPOCH - 1)
+                .reserves(epoch.getReservesOfPreviousEpoch())
+                .treasury(epoch.getTreasuryOfPreviousEpoch())
+                .build();
+        epochInfo = EpochValidation.getEpochInfo(EPOCH, epoch);
+        mirCertificates = new ArrayList<>(epoch.getMirCertificates());
+    }
+
+    @Benchmark
+    public TreasuryCalculationResult calculateTreasuryInEpoch() {
+        return TreasuryCalculation.calculateTreasuryInEpoch(EPOCH, protocolParameters, adaPotsOfPreviousEpoch,
+                epochInfo, epoch.getRetiredPools(), mirCertificates, epoch.getDeregisteredAccounts(),
+                epoch.getRegisteredAccountsUntilNow(), BigInteger.ZERO, networkConfig);
+    }
+}
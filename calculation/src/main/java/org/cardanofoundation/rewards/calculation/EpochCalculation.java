@@ -3,13 +3,20 @@ package org.cardanofoundation.rewards.calculation;
 import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
 import org.cardanofoundation.rewards.calculation.domain.*;
 import org.cardanofoundation.rewards.calculation.enums.MirPot;
+import org.cardanofoundation.rewards.calculation.util.BigNumberUtils;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.cardanofoundation.rewards.calculation.PoolRewardsCalculation.calculatePoolRewardInEpoch;
@@ -34,6 +41,204 @@ public class EpochCalculation {
                                                                   final HashSet<String> sharedPoolRewardAddressesWithoutReward,
                                                                   final HashSet<String> deregisteredAccountsOnEpochBoundary,
                                                                   final NetworkConfig networkConfig) {
+        return calculateEpochRewardPots(epoch, reserveInPreviousEpoch, treasuryInPreviousEpoch, protocolParameters, epochInfo,
+                retiredPools, deregisteredAccounts, mirCertificates, poolsThatProducedBlocksInEpoch, poolHistories,
+                lateDeregisteredAccounts, registeredAccountsSinceLastEpoch, registeredAccountsUntilNow,
+                sharedPoolRewardAddressesWithoutReward, deregisteredAccountsOnEpochBoundary, networkConfig, null);
+    }
+
+    /*
+     * Calculates the reward pots of the epoch. If a fork join pool is given, the rewards of the pools are
+     * calculated concurrently on that pool. The pool results keep the order of poolsThatProducedBlocksInEpoch
+     * and are summed up in that order, so the result is identical to the sequential calculation.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(final int epoch,
+                                                                  final BigInteger reserveInPreviousEpoch,
+                                                                  final BigInteger treasuryInPreviousEpoch,
+                                                                  final ProtocolParameters protocolParameters, final Epoch epochInfo,
+                                                                  final Set<RetiredPool> retiredPools,
+                                                                  final HashSet<String> deregisteredAccounts,
+                                                                  final List<MirCertificate> mirCertificates,
+                                                                  final List<String> poolsThatProducedBlocksInEpoch,
+                                                                  final List<PoolState> poolHistories,
+                                                                  final HashSet<String> lateDeregisteredAccounts,
+                                                                  final HashSet<String> registeredAccountsSinceLastEpoch,
+                                                                  final HashSet<String> registeredAccountsUntilNow,
+                                                                  final HashSet<String> sharedPoolRewardAddressesWithoutReward,
+                                                                  final HashSet<String> deregisteredAccountsOnEpochBoundary,
+                                                                  final NetworkConfig networkConfig,
+                                                                  final ForkJoinPool forkJoinPool) {
+        return calculateEpochRewardPots(epoch, reserveInPreviousEpoch, treasuryInPreviousEpoch, protocolParameters, epochInfo,
+                retiredPools, deregisteredAccounts, mirCertificates, poolsThatProducedBlocksInEpoch, poolHistories,
+                lateDeregisteredAccounts, registeredAccountsSinceLastEpoch, registeredAccountsUntilNow,
+                sharedPoolRewardAddressesWithoutReward, deregisteredAccountsOnEpochBoundary, networkConfig, forkJoinPool, null);
+    }
+
+    /*
+     * Calculates the reward pots of the epoch with the stake accounts identified by their id in the given
+     * stake address dictionary of the epoch, e.g. the dictionary the addresses of the epoch have been
+     * interned with while loading it. Delegators whose address is in the dictionary are looked up by
+     * their id. A null dictionary is replaced by a new one that only holds the account sets.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(final int epoch,
+                                                                  final BigInteger reserveInPreviousEpoch,
+                                                                  final BigInteger treasuryInPreviousEpoch,
+                                                                  final ProtocolParameters protocolParameters, final Epoch epochInfo,
+                                                                  final Set<RetiredPool> retiredPools,
+                                                                  final HashSet<String> deregisteredAccounts,
+                                                                  final List<MirCertificate> mirCertificates,
+                                                                  final List<String> poolsThatProducedBlocksInEpoch,
+                                                                  final List<PoolState> poolHistories,
+                                                                  final HashSet<String> lateDeregisteredAccounts,
+                                                                  final HashSet<String> registeredAccountsSinceLastEpoch,
+                                                                  final HashSet<String> registeredAccountsUntilNow,
+                                                                  final HashSet<String> sharedPoolRewardAddressesWithoutReward,
+                                                                  final HashSet<String> deregisteredAccountsOnEpochBoundary,
+                                                                  final NetworkConfig networkConfig,
+                                                                  final ForkJoinPool forkJoinPool,
+                                                                  final StakeAddressDictionary stakeAddressDictionary) {
+        final Map<String, PoolState> poolStatesById = indexPoolStatesById(poolHistories);
+        final PoolRewardsOfEpoch poolRewardsOfEpoch;
+        if (forkJoinPool == null) {
+            poolRewardsOfEpoch = (poolRewardCalculator, poolRewardConsumer) -> {
+                int i = 1;
+                for (String poolId : poolsThatProducedBlocksInEpoch) {
+                    log.debug("[" + i + " / " + poolsThatProducedBlocksInEpoch.size() + "] Processing pool: " + poolId);
+                    poolRewardConsumer.accept(poolRewardCalculator.calculate(poolId, poolStatesById.get(poolId)));
+                    i++;
+                }
+            };
+        } else {
+            // Each pool reward only depends on read-only inputs of the epoch. The parallel stream runs on the
+            // given fork join pool and collects the results in the encounter order of the pool ids.
+            poolRewardsOfEpoch = (poolRewardCalculator, poolRewardConsumer) -> forkJoinPool.submit(() -> poolsThatProducedBlocksInEpoch.parallelStream()
+                    .map(poolId -> poolRewardCalculator.calculate(poolId, poolStatesById.get(poolId)))
+                    .collect(Collectors.toCollection(ArrayList::new))).join()
+                    .forEach(poolRewardConsumer);
+        }
+
+        return calculateEpochRewardPots(epoch, reserveInPreviousEpoch, treasuryInPreviousEpoch, protocolParameters, epochInfo,
+                retiredPools, deregisteredAccounts, mirCertificates, lateDeregisteredAccounts, registeredAccountsSinceLastEpoch,
+                registeredAccountsUntilNow, sharedPoolRewardAddressesWithoutReward, deregisteredAccountsOnEpochBoundary,
+                networkConfig, stakeAddressDictionary, null, poolRewardsOfEpoch, null);
+    }
+
+    /*
+     * Calculates the reward pots of the epoch while the pool states are read one by one, e.g. from a
+     * streaming reader of an epoch file. Every pool state of the iterator is calculated; a pool id that
+     * occurs more than once is only calculated for its first pool state. The pool results are handed to
+     * the poolRewardConsumer (which must not be null) and are not kept in the returned result, so only one
+     * pool and its member rewards have to be held in memory at a time. The totals are identical to
+     * the calculation on the list of all pool states.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(final int epoch,
+                                                                  final BigInteger reserveInPreviousEpoch,
+                                                                  final BigInteger treasuryInPreviousEpoch,
+                                                                  final ProtocolParameters protocolParameters, final Epoch epochInfo,
+                                                                  final Set<RetiredPool> retiredPools,
+                                                                  final HashSet<String> deregisteredAccounts,
+                                                                  final List<MirCertificate> mirCertificates,
+                                                                  final Iterator<PoolState> poolStates,
+                                                                  final HashSet<String> lateDeregisteredAccounts,
+                                                                  final HashSet<String> registeredAccountsSinceLastEpoch,
+                                                                  final HashSet<String> registeredAccountsUntilNow,
+                                                                  final HashSet<String> sharedPoolRewardAddressesWithoutReward,
+                                                                  final HashSet<String> deregisteredAccountsOnEpochBoundary,
+                                                                  final NetworkConfig networkConfig,
+                                                                  final Consumer<PoolRewardCalculationResult> poolRewardConsumer) {
+        return calculateEpochRewardPots(epoch, reserveInPreviousEpoch, treasuryInPreviousEpoch, protocolParameters, epochInfo,
+                retiredPools, deregisteredAccounts, mirCertificates, poolStates, lateDeregisteredAccounts,
+                registeredAccountsSinceLastEpoch, registeredAccountsUntilNow, sharedPoolRewardAddressesWithoutReward,
+                deregisteredAccountsOnEpochBoundary, networkConfig, poolRewardConsumer, null);
+    }
+
+    public static EpochCalculationResult calculateEpochRewardPots(final int epoch,
+                                                                  final BigInteger reserveInPreviousEpoch,
+                                                                  final BigInteger treasuryInPreviousEpoch,
+                                                                  final ProtocolParameters protocolParameters, final Epoch epochInfo,
+                                                                  final Set<RetiredPool> retiredPools,
+                                                                  final HashSet<String> deregisteredAccounts,
+                                                                  final List<MirCertificate> mirCertificates,
+                                                                  final Iterator<PoolState> poolStates,
+                                                                  final HashSet<String> lateDeregisteredAccounts,
+                                                                  final HashSet<String> registeredAccountsSinceLastEpoch,
+                                                                  final HashSet<String> registeredAccountsUntilNow,
+                                                                  final HashSet<String> sharedPoolRewardAddressesWithoutReward,
+                                                                  final HashSet<String> deregisteredAccountsOnEpochBoundary,
+                                                                  final NetworkConfig networkConfig,
+                                                                  final Consumer<PoolRewardCalculationResult> poolRewardConsumer,
+                                                                  final StakeAddressDictionary stakeAddressDictionary) {
+        return calculateEpochRewardPots(epoch, reserveInPreviousEpoch, treasuryInPreviousEpoch, protocolParameters, epochInfo,
+                retiredPools, deregisteredAccounts, mirCertificates, poolStates, lateDeregisteredAccounts,
+                registeredAccountsSinceLastEpoch, registeredAccountsUntilNow, sharedPoolRewardAddressesWithoutReward,
+                deregisteredAccountsOnEpochBoundary, networkConfig, poolRewardConsumer, stakeAddressDictionary, null);
+    }
+
+    /*
+     * Passes the member rewards of all pools to the memberRewardSink instead of collecting them in the pool
+     * results (see PoolRewardsCalculation), so that no object is created per member reward. The pools are
+     * calculated one after the other, so the sink is not called concurrently. A null sink collects the
+     * member rewards in the pool results.
+     *
+     * The ids passed to a sink are those of the given stake address dictionary, usually the one the
+     * delegators have been interned with. Delegators that are not in it are passed to the sink by their
+     * address. Without a dictionary all member rewards are passed by their address.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(final int epoch,
+                                                                  final BigInteger reserveInPreviousEpoch,
+                                                                  final BigInteger treasuryInPreviousEpoch,
+                                                                  final ProtocolParameters protocolParameters, final Epoch epochInfo,
+                                                                  final Set<RetiredPool> retiredPools,
+                                                                  final HashSet<String> deregisteredAccounts,
+                                                                  final List<MirCertificate> mirCertificates,
+                                                                  final Iterator<PoolState> poolStates,
+                                                                  final HashSet<String> lateDeregisteredAccounts,
+                                                                  final HashSet<String> registeredAccountsSinceLastEpoch,
+                                                                  final HashSet<String> registeredAccountsUntilNow,
+                                                                  final HashSet<String> sharedPoolRewardAddressesWithoutReward,
+                                                                  final HashSet<String> deregisteredAccountsOnEpochBoundary,
+                                                                  final NetworkConfig networkConfig,
+                                                                  final Consumer<PoolRewardCalculationResult> poolRewardConsumer,
+                                                                  final StakeAddressDictionary stakeAddressDictionary,
+                                                                  final RewardSink memberRewardSink) {
+        Objects.requireNonNull(poolRewardConsumer, "poolRewardConsumer must not be null");
+
+        final PoolRewardsOfEpoch poolRewardsOfEpoch = (poolRewardCalculator, poolRewardResultConsumer) -> {
+            final Set<String> calculatedPoolIds = new HashSet<>();
+            while (poolStates.hasNext()) {
+                final PoolState poolState = poolStates.next();
+                if (calculatedPoolIds.add(poolState.getPoolId())) {
+                    poolRewardResultConsumer.accept(poolRewardCalculator.calculate(poolState.getPoolId(), poolState));
+                }
+            }
+        };
+
+        return calculateEpochRewardPots(epoch, reserveInPreviousEpoch, treasuryInPreviousEpoch, protocolParameters, epochInfo,
+                retiredPools, deregisteredAccounts, mirCertificates, lateDeregisteredAccounts, registeredAccountsSinceLastEpoch,
+                registeredAccountsUntilNow, sharedPoolRewardAddressesWithoutReward, deregisteredAccountsOnEpochBoundary,
+                networkConfig, stakeAddressDictionary, memberRewardSink, poolRewardsOfEpoch, poolRewardConsumer);
+    }
+
+    /*
+     * If poolRewardConsumer is null, the pool results are collected in the returned result.
+     */
+    private static EpochCalculationResult calculateEpochRewardPots(final int epoch,
+                                                                   final BigInteger reserveInPreviousEpoch,
+                                                                   final BigInteger treasuryInPreviousEpoch,
+                                                                   final ProtocolParameters protocolParameters, final Epoch epochInfo,
+                                                                   final Set<RetiredPool> retiredPools,
+                                                                   final HashSet<String> deregisteredAccounts,
+                                                                   final List<MirCertificate> mirCertificates,
+                                                                   final HashSet<String> lateDeregisteredAccounts,
+                                                                   final HashSet<String> registeredAccountsSinceLastEpoch,
+                                                                   final HashSet<String> registeredAccountsUntilNow,
+                                                                   final HashSet<String> sharedPoolRewardAddressesWithoutReward,
+                                                                   final HashSet<String> deregisteredAccountsOnEpochBoundary,
+                                                                   final NetworkConfig networkConfig,
+                                                                   final StakeAddressDictionary stakeAddressDictionary,
+                                                                   final RewardSink memberRewardSink,
+                                                                   final PoolRewardsOfEpoch poolRewardsOfEpoch,
+                                                                   final Consumer<PoolRewardCalculationResult> poolRewardConsumer) {
         final EpochCalculationResult epochCalculationResult = EpochCalculationResult.builder().epoch(epoch).build();
 
         if (epoch < networkConfig.getShelleyStartEpoch()) {
@@ -61,10 +266,10 @@ public class EpochCalculation {
         BigDecimal treasuryGrowthRate = protocolParameters.getTreasuryGrowRate();
         BigDecimal monetaryExpandRate = protocolParameters.getMonetaryExpandRate();
         BigDecimal decentralizationParameter = protocolParameters.getDecentralisation();
-        BigInteger activeStakeInEpoch = BigInteger.ZERO;
+        BigInteger totalActiveStakeInEpoch = BigInteger.ZERO;
 
         if (epochInfo != null) {
-            activeStakeInEpoch = epochInfo.getActiveStake();
+            totalActiveStakeInEpoch = epochInfo.getActiveStake();
             totalFeesForCurrentEpoch = epochInfo.getFees() != null? epochInfo.getFees(): BigInteger.ZERO;
             totalBlocksInEpoch = epochInfo.getBlockCount();
             if (isLower(decentralizationParameter, BigDecimal.valueOf(0.8)) && isHigher(decentralizationParameter, BigDecimal.ZERO)) {
@@ -73,6 +278,7 @@ public class EpochCalculation {
         }
 
         final int blocksInEpoch = totalBlocksInEpoch;
+        final BigInteger activeStakeInEpoch = totalActiveStakeInEpoch;
         final BigInteger rewardPot = TreasuryCalculation.calculateTotalRewardPotWithEta(
                 monetaryExpandRate, totalBlocksInEpoch, decentralizationParameter, reserveInPreviousEpoch, totalFeesForCurrentEpoch, networkConfig);
 
@@ -124,55 +330,35 @@ public class EpochCalculation {
         }
 
         treasuryForCurrentEpoch = treasuryForCurrentEpoch.subtract(treasuryWithdrawals);
-        BigInteger totalDistributedRewards = BigInteger.ZERO;
         final BigInteger adaInCirculation = networkConfig.getTotalLovelace().subtract(reserveInPreviousEpoch);
-        final List<PoolRewardCalculationResult> poolRewardCalculationResults = new ArrayList<>();
-        BigInteger unspendableEarnedRewards = BigInteger.ZERO;
-
-        int i = 1;
-        for (String poolId : poolsThatProducedBlocksInEpoch) {
-            log.debug("[" + i + " / " + poolsThatProducedBlocksInEpoch.size() + "] Processing pool: " + poolId);
-            PoolState poolState = poolHistories.stream().filter(history -> history.getPoolId().equals(poolId)).findFirst().orElse(null);
-            PoolRewardCalculationResult poolRewardCalculationResult = PoolRewardCalculationResult
-                    .builder().poolId(poolId).epoch(epoch).poolReward(BigInteger.ZERO).build();
-
-            if(poolState != null) {
-                // Get the reward addresses of the pool and the reward addresses of its delegators
-                final HashSet<String> stakeAddresses = new HashSet<>();
-                stakeAddresses.add(poolState.getRewardAddress());
-                stakeAddresses.addAll(poolState.getDelegators().stream().map(Delegator::getStakeAddress).toList());
-                // We need the get the registration state of those accounts. If they were unregistered before
-                // the randomness stabilization window, they will not receive any rewards. The remaining of the
-                // reward pot will go back to the reserves
-                final HashSet<String> delegatorAccountDeregistrations = deregisteredAccounts.stream()
-                        .filter(stakeAddresses::contains).collect(Collectors.toCollection(HashSet::new));
-                // If they were unregistered after the randomness stabilization window, rewards will be calculated
-                // but they will not be spendable and will be added to the treasury instead
-                final HashSet<String> lateDeregisteredDelegators = lateDeregisteredAccounts.stream()
-                        .filter(stakeAddresses::contains).collect(Collectors.toCollection(HashSet::new));
-
-                // There was a different behavior in the previous version of the node
-                // If a pool reward address had been used for multiple pools,
-                // the stake account only received the reward for one of those pools
-                // This is not the case anymore and the stake account receives the reward for all pools
-                // Until the Allegra hard fork, this method will be used to emulate the old behavior
-                boolean ignoreLeaderReward = false;
-                if (epoch - 2 < networkConfig.getAllegraHardforkEpoch()) {
-                    ignoreLeaderReward = sharedPoolRewardAddressesWithoutReward.contains(poolId);
-                }
+        // The registration state of the accounts is classified once per epoch. Accounts that have been
+        // unregistered before the randomness stabilization window will not receive any rewards and the
+        // remaining of the reward pot will go back to the reserves. Accounts that have been unregistered
+        // after the randomness stabilization window earn rewards, but they will not be spendable and
+        // will be added to the treasury instead.
+        final AccountStatusIndex accountStatusIndex = stakeAddressDictionary != null
+                ? AccountStatusIndex.of(stakeAddressDictionary, deregisteredAccounts, lateDeregisteredAccounts, registeredAccountsSinceLastEpoch)
+                : AccountStatusIndex.of(deregisteredAccounts, lateDeregisteredAccounts, registeredAccountsSinceLastEpoch);
+        // The ids of a dictionary that has been created for the index are unknown to the sink
+        final RewardSink rewardSink = memberRewardSink != null && stakeAddressDictionary == null
+                ? byStakeAddress(memberRewardSink, accountStatusIndex.getStakeAddressDictionary())
+                : memberRewardSink;
 
-                poolRewardCalculationResult = calculatePoolRewardInEpoch(poolId, poolState,
-                        blocksInEpoch, protocolParameters,
-                        adaInCirculation, activeStakeInEpoch, stakePoolRewardsPot,
-                        poolState.getOwnerActiveStake(), poolState.getOwners(),
-                        delegatorAccountDeregistrations, ignoreLeaderReward, lateDeregisteredDelegators, registeredAccountsSinceLastEpoch, networkConfig);
-            }
-
-            totalDistributedRewards = add(totalDistributedRewards, poolRewardCalculationResult.getDistributedPoolReward());
-            unspendableEarnedRewards = unspendableEarnedRewards.add(poolRewardCalculationResult.getUnspendableEarnedRewards());
-            poolRewardCalculationResults.add(poolRewardCalculationResult);
-            i++;
-        }
+        final List<PoolRewardCalculationResult> poolRewardCalculationResults = new ArrayList<>();
+        final PoolRewardTotals poolRewardTotals = new PoolRewardTotals();
+        poolRewardsOfEpoch.calculate((poolId, poolState) -> calculatePoolReward(epoch, poolId, poolState,
+                        blocksInEpoch, protocolParameters, adaInCirculation, activeStakeInEpoch, stakePoolRewardsPot,
+                        accountStatusIndex, sharedPoolRewardAddressesWithoutReward, networkConfig, rewardSink),
+                poolRewardCalculationResult -> {
+                    poolRewardTotals.add(poolRewardCalculationResult);
+                    if (poolRewardConsumer == null) {
+                        poolRewardCalculationResults.add(poolRewardCalculationResult);
+                    } else {
+                        poolRewardConsumer.accept(poolRewardCalculationResult);
+                    }
+                });
+        final BigInteger totalDistributedRewards = poolRewardTotals.distributedRewards;
+        final BigInteger unspendableEarnedRewards = poolRewardTotals.unspendableEarnedRewards;
 
         BigInteger undistributedRewards = subtract(stakePoolRewardsPot, totalDistributedRewards);
         calculatedReserve = add(calculatedReserve, undistributedRewards);
@@ -213,4 +399,88 @@ public class EpochCalculation {
 
         return epochCalculationResult;
     }
+
+    @FunctionalInterface
+    private interface PoolRewardCalculator {
+        PoolRewardCalculationResult calculate(String poolId, PoolState poolState);
+    }
+
+    /*
+     * Calculates the rewards of the pools of an epoch with the given calculator and passes the
+     * results in a deterministic order to the consumer.
+     */
+    @FunctionalInterface
+    private interface PoolRewardsOfEpoch {
+        void calculate(PoolRewardCalculator poolRewardCalculator, Consumer<PoolRewardCalculationResult> poolRewardConsumer);
+    }
+
+    private static class PoolRewardTotals {
+        private BigInteger distributedRewards = BigInteger.ZERO;
+        private BigInteger unspendableEarnedRewards = BigInteger.ZERO;
+
+        private void add(final PoolRewardCalculationResult poolRewardCalculationResult) {
+            distributedRewards = BigNumberUtils.add(distributedRewards, poolRewardCalculationResult.getDistributedPoolReward());
+            unspendableEarnedRewards = unspendableEarnedRewards.add(poolRewardCalculationResult.getUnspendableEarnedRewards());
+        }
+    }
+
+    private static PoolRewardCalculationResult calculatePoolReward(final int epoch, final String poolId, final PoolState poolState,
+                                                                   final int blocksInEpoch, final ProtocolParameters protocolParameters,
+                                                                   final BigInteger adaInCirculation, final BigInteger activeStakeInEpoch,
+                                                                   final BigInteger stakePoolRewardsPot,
+                                                                   final AccountStatusIndex accountStatusIndex,
+                                                                   final HashSet<String> sharedPoolRewardAddressesWithoutReward,
+                                                                   final NetworkConfig networkConfig,
+                                                                   final RewardSink memberRewardSink) {
+        if (poolState == null) {
+            return PoolRewardCalculationResult.builder().poolId(poolId).epoch(epoch).poolReward(BigInteger.ZERO).build();
+        }
+
+        // There was a different behavior in the previous version of the node
+        // If a pool reward address had been used for multiple pools,
+        // the stake account only received the reward for one of those pools
+        // This is not the case anymore and the stake account receives the reward for all pools
+        // Until the Allegra hard fork, this method will be used to emulate the old behavior
+        boolean ignoreLeaderReward = false;
+        if (epoch - 2 < networkConfig.getAllegraHardforkEpoch()) {
+            ignoreLeaderReward = sharedPoolRewardAddressesWithoutReward.contains(poolId);
+        }
+
+        return calculatePoolRewardInEpoch(poolId, poolState,
+                blocksInEpoch, protocolParameters,
+                adaInCirculation, activeStakeInEpoch, stakePoolRewardsPot,
+                poolState.getOwnerActiveStake(), poolState.getOwners(),
+                accountStatusIndex, ignoreLeaderReward, networkConfig, memberRewardSink);
+    }
+
+    /*
+     * Passes the rewards of the ids of the dictionary to the sink by their stake address.
+     */
+    private static RewardSink byStakeAddress(final RewardSink rewardSink, final StakeAddressDictionary stakeAddressDictionary) {
+        return new RewardSink() {
+            @Override
+            public void accept(int stakeAddressId, long amount) {
+                rewardSink.accept(stakeAddressDictionary.getStakeAddress(stakeAddressId), amount);
+            }
+
+            @Override
+            public void accept(String stakeAddress, long amount) {
+                rewardSink.accept(stakeAddress, amount);
+            }
+        };
+    }
+
+    /*
+     * Index the pool states of the epoch by their pool id. The index is built once per epoch,
+     * so that the pool loop does a single lookup per block producing pool instead of scanning
+     * all pool histories for each of them. If a pool id occurs more than once, the first
+     * pool state wins, as it did with the previous linear scan.
+     */
+    public static Map<String, PoolState> indexPoolStatesById(final List<PoolState> poolHistories) {
+        final Map<String, PoolState> poolStatesById = new HashMap<>(Math.max(16, poolHistories.size() * 4 / 3 + 1));
+        for (PoolState poolState : poolHistories) {
+            poolStatesById.putIfAbsent(poolState.getPoolId(), poolState);
+        }
+        return poolStatesById;
+    }
 }
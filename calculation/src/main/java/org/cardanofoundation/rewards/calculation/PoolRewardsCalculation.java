@@ -3,6 +3,8 @@ package org.cardanofoundation.rewards.calculation;
 import lombok.extern.slf4j.Slf4j;
 import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
 import org.cardanofoundation.rewards.calculation.domain.*;
+import org.cardanofoundation.rewards.calculation.enums.AccountStatus;
+import org.cardanofoundation.rewards.calculation.util.Rational;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -27,17 +29,19 @@ public class PoolRewardsCalculation {
      * See Haskell implementation: https://github.com/input-output-hk/cardano-ledger/blob/64459cc87094331c79d11880e0a4c81b9a721ab0/eras/shelley/impl/src/Cardano/Ledger/Shelley/Rewards.hs#L87C32-L87C44
      */
     public static BigDecimal calculateApparentPoolPerformance(final BigInteger activePoolStake, final BigInteger totalActiveEpochStake, final int blocksMintedByPool, final int blocksMintedByStakePools, final BigDecimal decentralizationParam) {
-        BigDecimal poolStake = new BigDecimal(activePoolStake);
-        BigDecimal totalEpochStake = new BigDecimal(totalActiveEpochStake);
+        return calculateExactApparentPoolPerformance(activePoolStake, totalActiveEpochStake, blocksMintedByPool,
+                blocksMintedByStakePools, decentralizationParam).toBigDecimal(mathContext);
+    }
 
+    public static Rational calculateExactApparentPoolPerformance(final BigInteger activePoolStake, final BigInteger totalActiveEpochStake, final int blocksMintedByPool, final int blocksMintedByStakePools, final BigDecimal decentralizationParam) {
         if (decentralizationParam.compareTo(BigDecimal.valueOf(0.8)) >= 0) {
-            return BigDecimal.ONE;
-        } else if (isZero(poolStake) || isZero(totalEpochStake)) {
-            return BigDecimal.ZERO;
+            return Rational.ONE;
+        } else if (activePoolStake.signum() == 0 || totalActiveEpochStake.signum() == 0) {
+            return Rational.ZERO;
         } else {
-            final BigDecimal relativeBlocksCreatedInEpoch = divide(blocksMintedByPool, blocksMintedByStakePools);
-            final BigDecimal relativeActiveStake = divide(poolStake, totalEpochStake);
-            return divide(relativeBlocksCreatedInEpoch, relativeActiveStake);
+            // (blocksMintedByPool / blocksMintedByStakePools) / (activePoolStake / totalActiveEpochStake)
+            return Rational.of(BigInteger.valueOf(blocksMintedByPool).multiply(totalActiveEpochStake),
+                    BigInteger.valueOf(blocksMintedByStakePools).multiply(activePoolStake));
         }
     }
 
@@ -64,24 +68,29 @@ public class PoolRewardsCalculation {
      * See the Haskell implementation: https://github.com/input-output-hk/cardano-ledger/blob/e722881568155fc39550a8dfabda3efeb263a1e5/shelley/chain-and-ledger/executable-spec/src/Shelley/Spec/Ledger/EpochBoundary.hs#L111
      */
     public static BigInteger calculateOptimalPoolReward(BigInteger totalAvailableRewards, int optimalPoolCount, BigDecimal influence, BigDecimal relativeStakeOfPool, BigDecimal relativeStakeOfPoolOwner) {
+        return calculateOptimalPoolReward(totalAvailableRewards, optimalPoolCount, Rational.of(influence),
+                Rational.of(relativeStakeOfPool), Rational.of(relativeStakeOfPoolOwner));
+    }
 
-        BigDecimal sizeOfASaturatedPool = divide(BigDecimal.ONE, optimalPoolCount);
-        BigDecimal cappedRelativeStake = min(relativeStakeOfPool, sizeOfASaturatedPool);
-        BigDecimal cappedRelativeStakeOfPoolOwner = min(relativeStakeOfPoolOwner, sizeOfASaturatedPool);
+    public static BigInteger calculateOptimalPoolReward(BigInteger totalAvailableRewards, int optimalPoolCount, Rational influence, Rational relativeStakeOfPool, Rational relativeStakeOfPoolOwner) {
+        Rational sizeOfASaturatedPool = Rational.of(1, optimalPoolCount);
+        Rational cappedRelativeStake = relativeStakeOfPool.min(sizeOfASaturatedPool);
+        Rational cappedRelativeStakeOfPoolOwner = relativeStakeOfPoolOwner.min(sizeOfASaturatedPool);
 
         // R / (1 + a0)
         // "R are the total available rewards for the epoch (in ada)." (shelley-delegation.pdf 5.5.3)
-        BigDecimal rewardsDividedByOnePlusInfluence = divide(totalAvailableRewards, add(BigDecimal.ONE, influence));
+        Rational rewardsDividedByOnePlusInfluence = Rational.of(totalAvailableRewards).divide(Rational.ONE.add(influence));
 
         // (z0 - sigma') / z0
-        BigDecimal relativeStakeOfSaturatedPool = divide(subtract(sizeOfASaturatedPool, cappedRelativeStake), sizeOfASaturatedPool);
+        Rational relativeStakeOfSaturatedPool = sizeOfASaturatedPool.subtract(cappedRelativeStake).divide(sizeOfASaturatedPool);
 
         // (sigma' - s' * relativeStakeOfSaturatedPool) / z0
-        BigDecimal saturatedPoolWeight = divide(subtract(cappedRelativeStake, multiply(cappedRelativeStakeOfPoolOwner, relativeStakeOfSaturatedPool)), sizeOfASaturatedPool);
+        Rational saturatedPoolWeight = cappedRelativeStake.subtract(cappedRelativeStakeOfPoolOwner.multiply(relativeStakeOfSaturatedPool))
+                .divide(sizeOfASaturatedPool);
 
         // R / (1+a0) * (sigma' + s' * a0 * saturatedPoolWeight)
-        return floor(multiply(rewardsDividedByOnePlusInfluence,
-                add(cappedRelativeStake, multiply(cappedRelativeStakeOfPoolOwner, influence, saturatedPoolWeight))));
+        return rewardsDividedByOnePlusInfluence.multiply(
+                cappedRelativeStake.add(cappedRelativeStakeOfPoolOwner.multiply(influence).multiply(saturatedPoolWeight))).floor();
     }
 
     /*
@@ -89,7 +98,11 @@ public class PoolRewardsCalculation {
      *  actualRewards = poolPerformance * optimalPoolReward
      */
     public static BigInteger calculatePoolReward(BigInteger optimalPoolReward, BigDecimal poolPerformance) {
-        return floor(multiply(optimalPoolReward, poolPerformance));
+        return calculatePoolReward(optimalPoolReward, Rational.of(poolPerformance));
+    }
+
+    public static BigInteger calculatePoolReward(BigInteger optimalPoolReward, Rational poolPerformance) {
+        return poolPerformance.multiply(optimalPoolReward).floor();
     }
 
     /*
@@ -98,12 +111,19 @@ public class PoolRewardsCalculation {
      */
     public static BigInteger calculateLeaderReward(BigInteger poolReward, BigDecimal margin, BigInteger poolCost,
                                                    BigDecimal relativeOwnerStake, BigDecimal relativeStakeOfPool) {
+        return calculateLeaderReward(poolReward, Rational.of(margin), poolCost,
+                Rational.of(relativeOwnerStake), Rational.of(relativeStakeOfPool));
+    }
+
+    public static BigInteger calculateLeaderReward(BigInteger poolReward, Rational margin, BigInteger poolCost,
+                                                   Rational relativeOwnerStake, Rational relativeStakeOfPool) {
         if (isLowerOrEquals(poolReward, poolCost)) {
             return poolReward;
         }
 
-        return add(poolCost, floor(multiply(subtract(poolReward, poolCost),
-                add(margin, multiply(BigDecimal.ONE.subtract(margin), divide(relativeOwnerStake, relativeStakeOfPool))))));
+        // c + floor((f - c) * (m + (1 - m) * s / sigma))
+        return add(poolCost, margin.add(Rational.ONE.subtract(margin).multiply(relativeOwnerStake.divide(relativeStakeOfPool)))
+                .multiply(poolReward.subtract(poolCost)).floor());
     }
 
     /*
@@ -114,16 +134,44 @@ public class PoolRewardsCalculation {
      */
     public static BigInteger calculateMemberReward(BigInteger poolReward, BigDecimal margin, BigInteger poolCost,
                                                    BigDecimal relativeMemberStake, BigDecimal relativeStakeOfPool) {
+        return calculateMemberReward(poolReward, Rational.of(margin), poolCost,
+                Rational.of(relativeMemberStake), Rational.of(relativeStakeOfPool));
+    }
+
+    public static BigInteger calculateMemberReward(BigInteger poolReward, Rational margin, BigInteger poolCost,
+                                                   Rational relativeMemberStake, Rational relativeStakeOfPool) {
         if (isLowerOrEquals(poolReward, poolCost)) {
             return BigInteger.ZERO;
         }
 
-        return floor(divide(multiply(
-                poolReward.subtract(poolCost),
-                subtract(BigDecimal.ONE, margin),
-                relativeMemberStake), relativeStakeOfPool));
+        // floor((f - c) * (1 - m) * t / sigma)
+        return Rational.ONE.subtract(margin).multiply(relativeMemberStake.divide(relativeStakeOfPool))
+                .multiply(poolReward.subtract(poolCost)).floor();
     }
 
+    /*
+     * Calculates the same member reward on primitive longs. As t / sigma equals memberStake / poolStake,
+     * the reward only depends on the member stake and a coefficient that is shared by all members of
+     * the pool (see MemberRewardCoefficient). The reward is then calculated with a 128 bit intermediate
+     * product, or with BigIntegers if the coefficient does not fit into longs.
+     */
+    public static long calculateMemberReward(long poolReward, Rational margin, long poolCost,
+                                             long memberStake, long poolStake) {
+        return calculateMemberRewardCoefficient(BigInteger.valueOf(poolReward), margin, BigInteger.valueOf(poolCost),
+                BigInteger.valueOf(poolStake)).calculateMemberReward(memberStake);
+    }
+
+    public static MemberRewardCoefficient calculateMemberRewardCoefficient(BigInteger poolReward, Rational margin,
+                                                                           BigInteger poolCost, BigInteger poolStake) {
+        return MemberRewardCoefficient.of(poolReward, margin, poolCost, poolStake);
+    }
+
+    /*
+     * The given pool state and account sets are only read, never modified. Since the Vasil hard fork
+     * deregistered accounts are treated as late deregistrations when their status is looked up
+     * (see withRewardPrefilter), so the same sets can be shared by concurrent calculations of
+     * different pools.
+     */
     public static PoolRewardCalculationResult calculatePoolRewardInEpoch(final String poolId, final PoolState poolStateCurrentEpoch,
                                                                          final int totalBlocksInEpoch, final ProtocolParameters protocolParameters,
                                                                          final BigInteger adaInCirculation, final BigInteger activeStakeInEpoch, BigInteger stakePoolRewardsPot,
@@ -132,6 +180,34 @@ public class PoolRewardsCalculation {
                                                                          final Set<String> lateDeregisteredAccounts,
                                                                          final Set<String> accountsRegisteredInThePast,
                                                                          final NetworkConfig networkConfig) {
+        return calculatePoolRewardInEpoch(poolId, poolStateCurrentEpoch, totalBlocksInEpoch, protocolParameters,
+                adaInCirculation, activeStakeInEpoch, stakePoolRewardsPot, totalActiveStakeOfOwners, poolOwnerStakeAddresses,
+                AccountStatusIndex.of(deregisteredAccounts, lateDeregisteredAccounts, accountsRegisteredInThePast),
+                ignoreLeaderReward, networkConfig);
+    }
+
+    public static PoolRewardCalculationResult calculatePoolRewardInEpoch(final String poolId, final PoolState poolStateCurrentEpoch,
+                                                                         final int totalBlocksInEpoch, final ProtocolParameters protocolParameters,
+                                                                         final BigInteger adaInCirculation, final BigInteger activeStakeInEpoch, BigInteger stakePoolRewardsPot,
+                                                                         final BigInteger totalActiveStakeOfOwners, final Set<String> poolOwnerStakeAddresses,
+                                                                         final AccountStatusIndex accountStatusIndex, final boolean ignoreLeaderReward,
+                                                                         final NetworkConfig networkConfig) {
+        return calculatePoolRewardInEpoch(poolId, poolStateCurrentEpoch, totalBlocksInEpoch, protocolParameters,
+                adaInCirculation, activeStakeInEpoch, stakePoolRewardsPot, totalActiveStakeOfOwners, poolOwnerStakeAddresses,
+                accountStatusIndex, ignoreLeaderReward, networkConfig, null);
+    }
+
+    /*
+     * Passes the member rewards to the memberRewardSink instead of collecting them as Reward objects,
+     * the memberRewards of the result are then null. The ids of the rewards are those of the stake
+     * address dictionary of the account status index. A null sink collects the member rewards.
+     */
+    public static PoolRewardCalculationResult calculatePoolRewardInEpoch(final String poolId, final PoolState poolStateCurrentEpoch,
+                                                                         final int totalBlocksInEpoch, final ProtocolParameters protocolParameters,
+                                                                         final BigInteger adaInCirculation, final BigInteger activeStakeInEpoch, BigInteger stakePoolRewardsPot,
+                                                                         final BigInteger totalActiveStakeOfOwners, final Set<String> poolOwnerStakeAddresses,
+                                                                         final AccountStatusIndex accountStatusIndex, final boolean ignoreLeaderReward,
+                                                                         final NetworkConfig networkConfig, final RewardSink memberRewardSink) {
         final int earnedEpoch = poolStateCurrentEpoch.getEpoch();
         final PoolRewardCalculationResult poolRewardCalculationResult = PoolRewardCalculationResult.builder()
                 .epoch(earnedEpoch)
@@ -148,10 +224,7 @@ public class PoolRewardsCalculation {
             a reward update. As in the Shelley era, though, they are still filtered on the epoch boundary
             when the reward update is applied
         */
-        if (earnedEpoch >= networkConfig.getVasilHardforkEpoch()) {
-            lateDeregisteredAccounts.addAll(deregisteredAccounts);
-            deregisteredAccounts.clear();
-        }
+        final boolean forgoRewardPrefilter = earnedEpoch >= networkConfig.getVasilHardforkEpoch();
 
         final BigInteger poolStake = poolStateCurrentEpoch.getActiveStake();
         final BigInteger poolPledge = poolStateCurrentEpoch.getPledge();
@@ -172,10 +245,10 @@ public class PoolRewardsCalculation {
         BigDecimal influenceParam = protocolParameters.getPoolOwnerInfluence();
 
         // Calculate apparent pool performance
-        final BigDecimal apparentPoolPerformance =
-                PoolRewardsCalculation.calculateApparentPoolPerformance(poolStake, activeStakeInEpoch,
+        final Rational apparentPoolPerformance =
+                PoolRewardsCalculation.calculateExactApparentPoolPerformance(poolStake, activeStakeInEpoch,
                         blocksPoolHasMinted, totalBlocksInEpoch, decentralizationParameter);
-        poolRewardCalculationResult.setApparentPoolPerformance(apparentPoolPerformance);
+        poolRewardCalculationResult.setApparentPoolPerformance(apparentPoolPerformance.toBigDecimal(mathContext));
         // shelley-delegation.pdf 5.5.3
         //      "[...]the relative stake of the pool owner(s) (the amount of ada
         //      pledged during pool registration)"
@@ -185,15 +258,16 @@ public class PoolRewardsCalculation {
             return poolRewardCalculationResult;
         }
 
-        final BigDecimal relativeStakeOfPoolOwner = divide(poolPledge, adaInCirculation);
-        final BigDecimal relativePoolStake = divide(poolStake, adaInCirculation);
+        final Rational relativeStakeOfPoolOwner = Rational.of(poolPledge, adaInCirculation);
+        final Rational relativePoolStake = Rational.of(poolStake, adaInCirculation);
+        final Rational poolMarginRational = Rational.of(poolMargin);
 
         // Step 8: Calculate optimal pool reward
         final BigInteger optimalPoolReward =
                 PoolRewardsCalculation.calculateOptimalPoolReward(
                         stakePoolRewardsPot,
                         optimalPoolCount,
-                        influenceParam,
+                        Rational.of(influenceParam),
                         relativePoolStake,
                         relativeStakeOfPoolOwner);
         poolRewardCalculationResult.setOptimalPoolReward(optimalPoolReward);
@@ -203,22 +277,25 @@ public class PoolRewardsCalculation {
         poolRewardCalculationResult.setPoolReward(poolReward);
 
         // Step 10: Calculate pool operator reward
-        BigInteger poolOperatorReward = PoolRewardsCalculation.calculateLeaderReward(poolReward, poolMargin, poolFixedCost,
-                divide(totalActiveStakeOfOwners, adaInCirculation), relativePoolStake);
+        BigInteger poolOperatorReward = PoolRewardsCalculation.calculateLeaderReward(poolReward, poolMarginRational, poolFixedCost,
+                Rational.of(totalActiveStakeOfOwners, adaInCirculation), relativePoolStake);
 
         BigInteger unspendableEarnedRewards = BigInteger.ZERO;
         String rewardAddress = poolRewardCalculationResult.getRewardAddress();
 
-        if (!accountsRegisteredInThePast.contains(rewardAddress)) {
+        final AccountStatus rewardAddressStatus = withRewardPrefilter(
+                accountStatusIndex.getRewardAddressStatus(rewardAddress), forgoRewardPrefilter);
+
+        if (rewardAddressStatus == AccountStatus.UNREGISTERED) {
             log.info(poolRewardCalculationResult.getRewardAddress() + " has never been registered. Operator would have received " + poolOperatorReward + " but will not receive any rewards.");
-            if (earnedEpoch >= networkConfig.getVasilHardforkEpoch()) {
+            if (forgoRewardPrefilter) {
                 unspendableEarnedRewards = poolOperatorReward;
             }
             poolOperatorReward = BigInteger.ZERO;
-        } else if (deregisteredAccounts.contains(rewardAddress)) {
+        } else if (rewardAddressStatus == AccountStatus.DEREGISTERED) {
             log.info(poolRewardCalculationResult.getRewardAddress() + " has been deregistered. Operator would have received " + poolOperatorReward + " but will not receive any rewards.");
             poolOperatorReward = BigInteger.ZERO;
-        } else if (lateDeregisteredAccounts.contains(rewardAddress)) {
+        } else if (rewardAddressStatus == AccountStatus.LATE_DEREGISTERED) {
             log.info("[unregRU]: " + poolRewardCalculationResult.getRewardAddress() + " has been deregistered lately. Operator would have received " + poolOperatorReward + " but will not receive any rewards.");
             unspendableEarnedRewards = poolOperatorReward;
             poolOperatorReward = BigInteger.ZERO;
@@ -230,10 +307,86 @@ public class PoolRewardsCalculation {
         }
 
         // Step 11: Calculate pool member reward
-        BigInteger poolMemberRewards = BigInteger.ZERO;
-        final HashSet<Reward> memberRewards = new HashSet<>();
-        for (Delegator delegator : poolStateCurrentEpoch.getDelegators()) {
-            final String stakeAddress = delegator.getStakeAddress();
+        final MemberRewardCoefficient memberRewardCoefficient =
+                calculateMemberRewardCoefficient(poolReward, poolMarginRational, poolFixedCost, poolStake);
+        final MemberRewards memberRewards = new MemberRewards(earnedEpoch, networkConfig, forgoRewardPrefilter,
+                accountStatusIndex, rewardAddress, poolOwnerStakeAddresses, memberRewardCoefficient, memberRewardSink);
+        final DelegatorStakes delegatorStakes = poolStateCurrentEpoch.delegatorStakes();
+        if (delegatorStakes != null && delegatorStakes.getStakeAddressDictionary() == accountStatusIndex.getStakeAddressDictionary()) {
+            // The ids of the delegators are already those of the epoch, nothing is looked up or allocated per delegator
+            for (int i = 0; i < delegatorStakes.size(); i++) {
+                memberRewards.add(delegatorStakes.getStakeAddressId(i), null, delegatorStakes.getActiveStake(i));
+            }
+        } else if (delegatorStakes != null) {
+            for (int i = 0; i < delegatorStakes.size(); i++) {
+                final String stakeAddress = delegatorStakes.getStakeAddress(i);
+                memberRewards.add(memberRewards.stakeAddressDictionary.getId(stakeAddress), stakeAddress, delegatorStakes.getActiveStake(i));
+            }
+        } else {
+            for (Delegator delegator : poolStateCurrentEpoch.getDelegators()) {
+                final String stakeAddress = delegator.getStakeAddress();
+                // Lovelace amounts are bounded by the total supply and fit into a long
+                memberRewards.add(memberRewards.stakeAddressDictionary.getId(stakeAddress), stakeAddress,
+                        delegator.getActiveStake().longValueExact());
+            }
+        }
+        unspendableEarnedRewards = unspendableEarnedRewards.add(BigInteger.valueOf(memberRewards.unspendableMemberRewards));
+        poolRewardCalculationResult.setDistributedPoolReward(poolOperatorReward.add(BigInteger.valueOf(memberRewards.poolMemberRewards)));
+        poolRewardCalculationResult.setOperatorReward(poolOperatorReward);
+        poolRewardCalculationResult.setMemberRewards(memberRewards.rewards);
+        poolRewardCalculationResult.setUnspendableEarnedRewards(unspendableEarnedRewards);
+        return poolRewardCalculationResult;
+    }
+
+    /*
+     * Calculates the member rewards of a pool delegator by delegator, independent of how the delegators
+     * are stored. The delegators are compared by their id in the stake address dictionary of the epoch.
+     * An address without an id is not in the dictionary and can only equal another address without an id.
+     */
+    private static class MemberRewards {
+        private final int earnedEpoch;
+        private final NetworkConfig networkConfig;
+        private final boolean forgoRewardPrefilter;
+        private final AccountStatusIndex accountStatusIndex;
+        private final StakeAddressDictionary stakeAddressDictionary;
+        private final String rewardAddress;
+        private final int rewardAddressId;
+        private final Set<String> poolOwnerStakeAddresses;
+        private final int[] poolOwnerIds;
+        private final MemberRewardCoefficient memberRewardCoefficient;
+        private final RewardSink rewardSink;
+
+        // Only collected if there is no reward sink
+        private final HashSet<Reward> rewards;
+        private long poolMemberRewards;
+        private long unspendableMemberRewards;
+
+        private MemberRewards(final int earnedEpoch, final NetworkConfig networkConfig, final boolean forgoRewardPrefilter,
+                              final AccountStatusIndex accountStatusIndex, final String rewardAddress,
+                              final Set<String> poolOwnerStakeAddresses, final MemberRewardCoefficient memberRewardCoefficient,
+                              final RewardSink rewardSink) {
+            this.earnedEpoch = earnedEpoch;
+            this.networkConfig = networkConfig;
+            this.forgoRewardPrefilter = forgoRewardPrefilter;
+            this.accountStatusIndex = accountStatusIndex;
+            this.stakeAddressDictionary = accountStatusIndex.getStakeAddressDictionary();
+            this.rewardAddress = rewardAddress;
+            this.rewardAddressId = stakeAddressDictionary.getId(rewardAddress);
+            this.poolOwnerStakeAddresses = poolOwnerStakeAddresses;
+            this.poolOwnerIds = poolOwnerStakeAddresses.stream()
+                    .mapToInt(stakeAddressDictionary::getId)
+                    .filter(id -> id != StakeAddressDictionary.NOT_FOUND)
+                    .toArray();
+            this.memberRewardCoefficient = memberRewardCoefficient;
+            this.rewardSink = rewardSink;
+            this.rewards = rewardSink == null ? new HashSet<>() : null;
+        }
+
+        /*
+         * The stake address may be null if the delegator has an id, it is then only resolved for the reward.
+         */
+        private void add(final int stakeAddressId, final String stakeAddress, final long activeStake) {
+            final boolean hasId = stakeAddressId != StakeAddressDictionary.NOT_FOUND;
 
             /*
                 "[...] the value of rewards in the reward function should be computed using an aggregating
@@ -242,38 +395,67 @@ public class PoolRewardsCalculation {
 
                 shelley-ledger.pdf | 17.4 Reward aggregation | p. 114
              */
-            if (stakeAddress.equals(poolStateCurrentEpoch.getRewardAddress())
-                    && earnedEpoch < networkConfig.getAllegraHardforkEpoch()) {
-                continue;
+            if (earnedEpoch < networkConfig.getAllegraHardforkEpoch()
+                    && (hasId ? stakeAddressId == rewardAddressId : stakeAddress.equals(rewardAddress))) {
+                return;
             }
 
-            if (poolOwnerStakeAddresses.contains(stakeAddress)) {
-                continue;
+            if (hasId ? contains(poolOwnerIds, stakeAddressId) : poolOwnerStakeAddresses.contains(stakeAddress)) {
+                return;
             }
 
-            BigInteger memberReward = PoolRewardsCalculation.calculateMemberReward(poolReward, poolMargin,
-                    poolFixedCost, divide(delegator.getActiveStake(), adaInCirculation), relativePoolStake);
+            long memberReward = memberRewardCoefficient.calculateMemberReward(activeStake);
 
-            if (deregisteredAccounts.contains(stakeAddress)) {
-                log.debug("Delegator " + stakeAddress + " has been deregistered. Delegator would have received " + memberReward + " but will not receive any rewards.");
-                memberReward = BigInteger.ZERO;
-            } else if (lateDeregisteredAccounts.contains(stakeAddress)) {
-                log.debug("[unregRU]: " + stakeAddress + " has been deregistered lately. Delegator would have received " + memberReward + " but will not receive any rewards.");
-                unspendableEarnedRewards = unspendableEarnedRewards.add(memberReward);
-                memberReward = BigInteger.ZERO;
+            final AccountStatus delegatorStatus = withRewardPrefilter(
+                    hasId ? accountStatusIndex.getStatus(stakeAddressId) : accountStatusIndex.getStatus(stakeAddress), forgoRewardPrefilter);
+
+            if (delegatorStatus == AccountStatus.DEREGISTERED) {
+                log.debug("Delegator " + getStakeAddress(stakeAddressId, stakeAddress) + " has been deregistered. Delegator would have received " + memberReward + " but will not receive any rewards.");
+                memberReward = 0;
+            } else if (delegatorStatus == AccountStatus.LATE_DEREGISTERED) {
+                log.debug("[unregRU]: " + getStakeAddress(stakeAddressId, stakeAddress) + " has been deregistered lately. Delegator would have received " + memberReward + " but will not receive any rewards.");
+                unspendableMemberRewards += memberReward;
+                memberReward = 0;
             }
 
-            memberRewards.add(Reward.builder()
-                    .amount(memberReward)
-                    .stakeAddress(stakeAddress)
-                    .build());
+            if (rewardSink == null) {
+                rewards.add(Reward.builder()
+                        .amount(BigInteger.valueOf(memberReward))
+                        .stakeAddress(getStakeAddress(stakeAddressId, stakeAddress))
+                        .build());
+            } else if (hasId) {
+                rewardSink.accept(stakeAddressId, memberReward);
+            } else {
+                rewardSink.accept(stakeAddress, memberReward);
+            }
 
-            poolMemberRewards = poolMemberRewards.add(memberReward);
+            poolMemberRewards += memberReward;
         }
-        poolRewardCalculationResult.setDistributedPoolReward(poolOperatorReward.add(poolMemberRewards));
-        poolRewardCalculationResult.setOperatorReward(poolOperatorReward);
-        poolRewardCalculationResult.setMemberRewards(memberRewards);
-        poolRewardCalculationResult.setUnspendableEarnedRewards(unspendableEarnedRewards);
-        return poolRewardCalculationResult;
+
+        private String getStakeAddress(final int stakeAddressId, final String stakeAddress) {
+            return stakeAddress != null ? stakeAddress : stakeAddressDictionary.getStakeAddress(stakeAddressId);
+        }
+    }
+
+    private static boolean contains(final int[] ids, final int id) {
+        // Pools have only a few owners, a linear search is faster than any set
+        for (int element : ids) {
+            if (element == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Since the Vasil hard fork, accounts that have been deregistered before the randomness
+     * stabilisation window are no longer filtered out before the reward calculation. They are
+     * treated like late deregistrations and their rewards become unspendable.
+     */
+    private static AccountStatus withRewardPrefilter(final AccountStatus accountStatus, final boolean forgoRewardPrefilter) {
+        if (forgoRewardPrefilter && accountStatus == AccountStatus.DEREGISTERED) {
+            return AccountStatus.LATE_DEREGISTERED;
+        }
+        return accountStatus;
     }
 }
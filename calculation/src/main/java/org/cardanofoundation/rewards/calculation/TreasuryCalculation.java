@@ -3,10 +3,10 @@ package org.cardanofoundation.rewards.calculation;
 import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
 import org.cardanofoundation.rewards.calculation.domain.*;
 import org.cardanofoundation.rewards.calculation.enums.MirPot;
+import org.cardanofoundation.rewards.calculation.util.Rational;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.math.MathContext;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -101,8 +101,8 @@ public class TreasuryCalculation {
    */
   public static BigInteger calculateTotalRewardPotWithEta(BigDecimal monetaryExpandRate, int totalBlocksInEpochByPools,
                                                           BigDecimal decentralizationParameter, BigInteger reserve, BigInteger fee, NetworkConfig networkConfig) {
-    BigDecimal eta = calculateEta(totalBlocksInEpochByPools, decentralizationParameter, networkConfig);
-    return multiplyAndFloor(reserve, monetaryExpandRate, eta).add(fee);
+    Rational eta = calculateEta(totalBlocksInEpochByPools, decentralizationParameter, networkConfig);
+    return Rational.of(monetaryExpandRate).multiply(eta).multiply(reserve).floor().add(fee);
   }
 
   /*
@@ -114,12 +114,12 @@ public class TreasuryCalculation {
   *
   * See: https://github.com/input-output-hk/cardano-ledger/commit/c4f10d286faadcec9e4437411bce9c6c3b6e51c2
   */
-  private static BigDecimal calculateEta(int totalBlocksInEpochByPools, BigDecimal decentralizationParameter, NetworkConfig networkConfig) {
+  private static Rational calculateEta(int totalBlocksInEpochByPools, BigDecimal decentralizationParameter, NetworkConfig networkConfig) {
     // shelley-delegation.pdf 5.4.3
 
     BigDecimal decentralisationThreshold = new BigDecimal("0.8");
     if (decentralizationParameter.compareTo(decentralisationThreshold) >= 0) {
-      return BigDecimal.ONE;
+      return Rational.ONE;
     }
 
     // The number of expected blocks will be the number of slots per epoch times the active slots coefficient
@@ -133,9 +133,8 @@ public class TreasuryCalculation {
 
     // eta is the ratio between the number of blocks that have been produced during the epoch, and
     // the expectation value of blocks that should have been produced during the epoch under
-    // ideal conditions.
-    MathContext mathContext = new MathContext(32);
-    return new BigDecimal(totalBlocksInEpochByPools).divide(expectedBlocksInNonOBFTSlots, mathContext).min(BigDecimal.ONE);
+    // ideal conditions. It is kept as an exact fraction and only floored with the reward pot.
+    return Rational.of(totalBlocksInEpochByPools).divide(Rational.of(expectedBlocksInNonOBFTSlots)).min(Rational.ONE);
   }
 
   /*
@@ -0,0 +1,147 @@
+package org.cardanofoundation.rewards.calculation.domain;
+
+import org.cardanofoundation.rewards.calculation.enums.AccountStatus;
+
+import java.util.BitSet;
+import java.util.Set;
+
+/*
+ * Epoch scoped index of the registration state of stake accounts. Every deregistered account
+ * is classified once when the index is built, so that the reward calculation of a pool needs a
+ * single lookup per delegator instead of intersecting the deregistration sets with the
+ * delegators of each pool.
+ *
+ * The accounts are identified by their id in the stake address dictionary of the epoch and the
+ * states of the accounts in the dictionary are kept in primitive sets of ids. The dictionary is
+ * only read, accounts that are not in it are looked up in the given account sets by their address,
+ * as are accounts that have been added to the dictionary after the index has been built.
+ *
+ * The registered accounts are only known for the reward addresses of the pools, so the
+ * UNREGISTERED state is only reported by getRewardAddressStatus.
+ *
+ * The index is immutable and can be read from multiple threads, as long as the account sets are not
+ * modified while the index is in use.
+ */
+public class AccountStatusIndex {
+
+    private final StakeAddressDictionary stakeAddressDictionary;
+    // The ids below are the ones of the dictionary when the index has been built
+    private final int indexedIds;
+    private final BitSet deregisteredAccountIds;
+    private final BitSet lateDeregisteredAccountIds;
+    private final BitSet registeredAccountIds;
+    private final Set<String> deregisteredAccounts;
+    private final Set<String> lateDeregisteredAccounts;
+    private final Set<String> registeredAccounts;
+
+    private AccountStatusIndex(StakeAddressDictionary stakeAddressDictionary, Set<String> deregisteredAccounts,
+                               Set<String> lateDeregisteredAccounts, Set<String> registeredAccounts) {
+        this.stakeAddressDictionary = stakeAddressDictionary;
+        this.indexedIds = stakeAddressDictionary.size();
+        this.deregisteredAccounts = deregisteredAccounts;
+        this.lateDeregisteredAccounts = lateDeregisteredAccounts;
+        this.registeredAccounts = registeredAccounts;
+        this.deregisteredAccountIds = getIds(stakeAddressDictionary, deregisteredAccounts);
+        this.lateDeregisteredAccountIds = getIds(stakeAddressDictionary, lateDeregisteredAccounts);
+        this.registeredAccountIds = getIds(stakeAddressDictionary, registeredAccounts);
+        // An early deregistration takes precedence over a late one
+        this.lateDeregisteredAccountIds.andNot(deregisteredAccountIds);
+    }
+
+    /*
+     * Builds the index on a new stake address dictionary that holds the accounts of the sets.
+     */
+    public static AccountStatusIndex of(final Set<String> deregisteredAccounts,
+                                        final Set<String> lateDeregisteredAccounts,
+                                        final Set<String> registeredAccounts) {
+        final StakeAddressDictionary stakeAddressDictionary = new StakeAddressDictionary(
+                deregisteredAccounts.size() + lateDeregisteredAccounts.size() + registeredAccounts.size());
+        stakeAddressDictionary.addAll(deregisteredAccounts);
+        stakeAddressDictionary.addAll(lateDeregisteredAccounts);
+        stakeAddressDictionary.addAll(registeredAccounts);
+        return new AccountStatusIndex(stakeAddressDictionary, deregisteredAccounts, lateDeregisteredAccounts, registeredAccounts);
+    }
+
+    /*
+     * Builds the index on the stake address dictionary of the epoch, which might be shared with other
+     * epochs and is therefore not modified.
+     */
+    public static AccountStatusIndex of(final StakeAddressDictionary stakeAddressDictionary,
+                                        final Set<String> deregisteredAccounts,
+                                        final Set<String> lateDeregisteredAccounts,
+                                        final Set<String> registeredAccounts) {
+        return new AccountStatusIndex(stakeAddressDictionary, deregisteredAccounts, lateDeregisteredAccounts, registeredAccounts);
+    }
+
+    private static BitSet getIds(final StakeAddressDictionary stakeAddressDictionary, final Set<String> stakeAddresses) {
+        final BitSet ids = new BitSet();
+        for (String stakeAddress : stakeAddresses) {
+            final int id = stakeAddressDictionary.getId(stakeAddress);
+            if (id != StakeAddressDictionary.NOT_FOUND) {
+                ids.set(id);
+            }
+        }
+        return ids;
+    }
+
+    public StakeAddressDictionary getStakeAddressDictionary() {
+        return stakeAddressDictionary;
+    }
+
+    /*
+     * Returns the deregistration state of a delegator account. Accounts that have not been
+     * deregistered are reported as REGISTERED.
+     */
+    public AccountStatus getStatus(final String stakeAddress) {
+        final int stakeAddressId = stakeAddressDictionary.getId(stakeAddress);
+        if (stakeAddressId != StakeAddressDictionary.NOT_FOUND && stakeAddressId < indexedIds) {
+            return getStatus(stakeAddressId);
+        } else if (deregisteredAccounts.contains(stakeAddress)) {
+            return AccountStatus.DEREGISTERED;
+        } else if (lateDeregisteredAccounts.contains(stakeAddress)) {
+            return AccountStatus.LATE_DEREGISTERED;
+        }
+        return AccountStatus.REGISTERED;
+    }
+
+    /*
+     * Returns the deregistration state of the account with the id. NOT_FOUND is reported as REGISTERED,
+     * accounts that are not in the dictionary have to be looked up by their address.
+     */
+    public AccountStatus getStatus(final int stakeAddressId) {
+        if (stakeAddressId < 0) {
+            return AccountStatus.REGISTERED;
+        } else if (stakeAddressId >= indexedIds) {
+            return getStatus(stakeAddressDictionary.getStakeAddress(stakeAddressId));
+        } else if (deregisteredAccountIds.get(stakeAddressId)) {
+            return AccountStatus.DEREGISTERED;
+        } else if (lateDeregisteredAccountIds.get(stakeAddressId)) {
+            return AccountStatus.LATE_DEREGISTERED;
+        }
+        return AccountStatus.REGISTERED;
+    }
+
+    /*
+     * Returns the state of a pool reward address. A reward address that has never been
+     * registered is reported as UNREGISTERED, even if it has been deregistered as well.
+     */
+    public AccountStatus getRewardAddressStatus(final String rewardAddress) {
+        final int rewardAddressId = stakeAddressDictionary.getId(rewardAddress);
+        if (rewardAddressId != StakeAddressDictionary.NOT_FOUND && rewardAddressId < indexedIds) {
+            return getRewardAddressStatus(rewardAddressId);
+        } else if (!registeredAccounts.contains(rewardAddress)) {
+            return AccountStatus.UNREGISTERED;
+        }
+        return getStatus(rewardAddress);
+    }
+
+    public AccountStatus getRewardAddressStatus(final int rewardAddressId) {
+        if (rewardAddressId >= indexedIds) {
+            return getRewardAddressStatus(stakeAddressDictionary.getStakeAddress(rewardAddressId));
+        } else if (rewardAddressId < 0 || !registeredAccountIds.get(rewardAddressId)) {
+            return AccountStatus.UNREGISTERED;
+        }
+
+        return getStatus(rewardAddressId);
+    }
+}
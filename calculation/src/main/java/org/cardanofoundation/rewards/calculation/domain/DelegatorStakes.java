@@ -0,0 +1,156 @@
+package org.cardanofoundation.rewards.calculation.domain;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+/*
+ * The delegators of a pool as parallel arrays of their stake address ids and their active stakes in
+ * lovelace. Compared to a HashSet of Delegator objects, each with a String and a BigInteger, a
+ * delegator takes 12 bytes and the delegators of a pool are stored next to each other, which is what
+ * the member reward loop reads for every pool of an epoch.
+ *
+ * The ids refer to the stake address dictionary of the epoch the delegators have been added to.
+ * Instances are immutable.
+ */
+public class DelegatorStakes {
+
+    private final StakeAddressDictionary stakeAddressDictionary;
+    private final int[] stakeAddressIds;
+    private final long[] activeStakes;
+
+    private DelegatorStakes(StakeAddressDictionary stakeAddressDictionary, int[] stakeAddressIds, long[] activeStakes) {
+        this.stakeAddressDictionary = stakeAddressDictionary;
+        this.stakeAddressIds = stakeAddressIds;
+        this.activeStakes = activeStakes;
+    }
+
+    /*
+     * Adds the stake addresses of the delegators to the dictionary. Active stakes have to fit into a
+     * long, which all lovelace amounts do.
+     */
+    public static DelegatorStakes of(final Collection<Delegator> delegators, final StakeAddressDictionary stakeAddressDictionary) {
+        final int[] stakeAddressIds = new int[delegators.size()];
+        final long[] activeStakes = new long[delegators.size()];
+        int i = 0;
+        for (Delegator delegator : delegators) {
+            stakeAddressIds[i] = stakeAddressDictionary.add(delegator.getStakeAddress());
+            activeStakes[i] = delegator.getActiveStake().longValueExact();
+            i++;
+        }
+        return new DelegatorStakes(stakeAddressDictionary, stakeAddressIds, activeStakes);
+    }
+
+    /*
+     * Returns a builder that adds the delegators one by one, e.g. while they are read from a database,
+     * without creating a Delegator object for each of them.
+     */
+    public static Builder builder(final StakeAddressDictionary stakeAddressDictionary) {
+        return new Builder(stakeAddressDictionary);
+    }
+
+    public StakeAddressDictionary getStakeAddressDictionary() {
+        return stakeAddressDictionary;
+    }
+
+    public int size() {
+        return stakeAddressIds.length;
+    }
+
+    public int getStakeAddressId(final int index) {
+        return stakeAddressIds[index];
+    }
+
+    public String getStakeAddress(final int index) {
+        return stakeAddressDictionary.getStakeAddress(stakeAddressIds[index]);
+    }
+
+    public long getActiveStake(final int index) {
+        return activeStakes[index];
+    }
+
+    /*
+     * Returns a cursor over the delegators. The cursor is the only object that is allocated to
+     * iterate the delegators.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /*
+     * Creates the delegators as objects, e.g. for code that works on a HashSet of Delegator objects.
+     */
+    public HashSet<Delegator> toDelegators() {
+        final HashSet<Delegator> delegators = new HashSet<>(Math.max(16, size() * 4 / 3 + 1));
+        final Cursor cursor = cursor();
+        while (cursor.next()) {
+            delegators.add(Delegator.builder()
+                    .stakeAddress(cursor.getStakeAddress())
+                    .activeStake(BigInteger.valueOf(cursor.getActiveStake()))
+                    .build());
+        }
+        return delegators;
+    }
+
+    public class Cursor {
+        private int index = -1;
+
+        private Cursor() {
+        }
+
+        /*
+         * Moves to the next delegator and returns false if there is none.
+         */
+        public boolean next() {
+            if (index + 1 >= stakeAddressIds.length) {
+                index = stakeAddressIds.length;
+                return false;
+            }
+            index++;
+            return true;
+        }
+
+        public int getStakeAddressId() {
+            return stakeAddressIds[index];
+        }
+
+        public String getStakeAddress() {
+            return stakeAddressDictionary.getStakeAddress(stakeAddressIds[index]);
+        }
+
+        public long getActiveStake() {
+            return activeStakes[index];
+        }
+    }
+
+    public static class Builder {
+        private final StakeAddressDictionary stakeAddressDictionary;
+        private int[] stakeAddressIds = new int[16];
+        private long[] activeStakes = new long[16];
+        private int size;
+
+        private Builder(StakeAddressDictionary stakeAddressDictionary) {
+            this.stakeAddressDictionary = stakeAddressDictionary;
+        }
+
+        public Builder add(final String stakeAddress, final long activeStake) {
+            if (size == stakeAddressIds.length) {
+                stakeAddressIds = Arrays.copyOf(stakeAddressIds, size * 2);
+                activeStakes = Arrays.copyOf(activeStakes, size * 2);
+            }
+            stakeAddressIds[size] = stakeAddressDictionary.add(stakeAddress);
+            activeStakes[size] = activeStake;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public DelegatorStakes build() {
+            return new DelegatorStakes(stakeAddressDictionary, Arrays.copyOf(stakeAddressIds, size), Arrays.copyOf(activeStakes, size));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.cardanofoundation.rewards.calculation.domain;
+
+import org.cardanofoundation.rewards.calculation.util.LongNumberUtils;
+import org.cardanofoundation.rewards.calculation.util.Rational;
+
+import java.math.BigInteger;
+
+/*
+ * The part of the member reward formula that is the same for all delegators of a pool:
+ *
+ * memberReward = floor((f - c) * (1 - m) * t / sigma)
+ *              = floor(memberStake * numerator / denominator)
+ *
+ * with numerator = (f - c) * (1 - m) * denominator(m) and denominator = denominator(m) * poolStake,
+ * where t / sigma is expressed in absolute lovelace as memberStake / poolStake. The coefficient is
+ * calculated once per pool, so the reward of each delegator takes one multiplication and one floor
+ * division. Both factors are held as longs if they fit, otherwise as BigIntegers.
+ */
+public class MemberRewardCoefficient {
+
+    private static final MemberRewardCoefficient ZERO = new MemberRewardCoefficient(BigInteger.ZERO, BigInteger.ONE);
+
+    private final BigInteger numerator;
+    private final BigInteger denominator;
+    private final boolean fitsInLong;
+    private final long longNumerator;
+    private final long longDenominator;
+
+    private MemberRewardCoefficient(final BigInteger numerator, final BigInteger denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+        this.fitsInLong = numerator.bitLength() < Long.SIZE && denominator.bitLength() < Long.SIZE;
+        this.longNumerator = numerator.longValue();
+        this.longDenominator = denominator.longValue();
+    }
+
+    public static MemberRewardCoefficient of(final BigInteger poolReward, final Rational margin,
+                                             final BigInteger poolCost, final BigInteger poolStake) {
+        if (poolReward.compareTo(poolCost) <= 0 || poolStake.signum() == 0) {
+            return ZERO;
+        }
+
+        final Rational reducedMargin = margin.reduce();
+        final BigInteger marginNumerator = reducedMargin.getNumerator();
+        final BigInteger marginDenominator = reducedMargin.getDenominator();
+
+        return new MemberRewardCoefficient(
+                poolReward.subtract(poolCost).multiply(marginDenominator.subtract(marginNumerator)),
+                marginDenominator.multiply(poolStake));
+    }
+
+    public long calculateMemberReward(final long memberStake) {
+        if (numerator.signum() == 0) {
+            return 0;
+        }
+
+        if (fitsInLong) {
+            return LongNumberUtils.multiplyAndFloorDivide(longNumerator, memberStake, longDenominator);
+        }
+
+        return numerator.multiply(BigInteger.valueOf(memberStake)).divide(denominator).longValueExact();
+    }
+
+    public BigInteger getNumerator() {
+        return numerator;
+    }
+
+    public BigInteger getDenominator() {
+        return denominator;
+    }
+}
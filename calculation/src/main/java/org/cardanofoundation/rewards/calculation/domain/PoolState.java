@@ -8,9 +8,7 @@ import java.util.HashSet;
 
 @Getter
 @Setter
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
 public class PoolState {
     private String poolId;
     private BigInteger activeStake;
@@ -21,7 +19,58 @@ public class PoolState {
     private BigDecimal margin;
     private BigInteger fixedCost;
     private BigInteger pledge;
+    // Null if the delegators are held as DelegatorStakes, see toDelegators
     private HashSet<Delegator> delegators;
     private int blockCount;
     private int epoch;
+
+    // The delegators as parallel arrays instead of the delegators set. The field is not part of the
+    // constructor and the builder, so that only one of them can be set, by setDelegators or by
+    // replaceDelegators.
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private DelegatorStakes delegatorStakes;
+
+    @Builder(toBuilder = true)
+    public PoolState(String poolId, BigInteger activeStake, String rewardAddress, HashSet<String> owners,
+                     BigInteger ownerActiveStake, BigInteger poolFees, BigDecimal margin, BigInteger fixedCost,
+                     BigInteger pledge, HashSet<Delegator> delegators, int blockCount, int epoch) {
+        this.poolId = poolId;
+        this.activeStake = activeStake;
+        this.rewardAddress = rewardAddress;
+        this.owners = owners;
+        this.ownerActiveStake = ownerActiveStake;
+        this.poolFees = poolFees;
+        this.margin = margin;
+        this.fixedCost = fixedCost;
+        this.pledge = pledge;
+        this.delegators = delegators;
+        this.blockCount = blockCount;
+        this.epoch = epoch;
+    }
+
+    public void setDelegators(HashSet<Delegator> delegators) {
+        this.delegators = delegators;
+        this.delegatorStakes = null;
+    }
+
+    public DelegatorStakes delegatorStakes() {
+        return delegatorStakes;
+    }
+
+    /*
+     * Replaces the delegators set by the given arrays, which take a fraction of its heap.
+     */
+    public void replaceDelegators(DelegatorStakes delegatorStakes) {
+        this.delegatorStakes = delegatorStakes;
+        this.delegators = null;
+    }
+
+    /*
+     * Returns the delegators as a set, whichever way they are held. If they are held as DelegatorStakes,
+     * a new set is created on each call, so changes of the returned set are not reflected in the pool state.
+     */
+    public HashSet<Delegator> toDelegators() {
+        return delegatorStakes != null ? delegatorStakes.toDelegators() : delegators;
+    }
 }
@@ -0,0 +1,27 @@
+package org.cardanofoundation.rewards.calculation.domain;
+
+/*
+ * Receives the member rewards of a pool as primitives instead of a HashSet of Reward objects, e.g.
+ * to sum them up or to write them to a file while they are calculated.
+ *
+ * The rewards are identified by the id of the stake address in the stake address dictionary that is
+ * passed to the calculation along with the sink. Delegators whose address is not in the dictionary
+ * are passed by their address, so a sink has to accept both.
+ */
+public interface RewardSink {
+
+    // Drops the member rewards, e.g. if only the totals of the pools are needed
+    RewardSink DISCARD = new RewardSink() {
+        @Override
+        public void accept(int stakeAddressId, long amount) {
+        }
+
+        @Override
+        public void accept(String stakeAddress, long amount) {
+        }
+    };
+
+    void accept(int stakeAddressId, long amount);
+
+    void accept(String stakeAddress, long amount);
+}
@@ -0,0 +1,147 @@
+package org.cardanofoundation.rewards.calculation.domain;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+
+/*
+ * Epoch scoped dictionary that maps each stake address to a dense int id, starting at 0 in the
+ * order in which the addresses have been added. The same address always maps to the same id and
+ * to the same String instance (see intern), so that an epoch holds each address once and sets of
+ * addresses can be represented by primitive sets of ids, e.g. a BitSet.
+ *
+ * The addresses are kept in an open addressing hash table of ids instead of a HashMap, which
+ * needs neither an entry object nor a boxed Integer per address.
+ *
+ * Adding addresses is not thread safe. A dictionary that is no longer modified can be read from
+ * multiple threads.
+ */
+public class StakeAddressDictionary {
+
+    public static final int NOT_FOUND = -1;
+
+    private String[] stakeAddresses;
+    private int[] hashes;
+    // Ids incremented by one, zero marks an empty slot
+    private int[] table;
+    private int size;
+
+    public StakeAddressDictionary() {
+        this(1024);
+    }
+
+    public StakeAddressDictionary(final int expectedSize) {
+        final int capacity = Math.max(16, expectedSize);
+        this.stakeAddresses = new String[capacity];
+        this.hashes = new int[capacity];
+        this.table = new int[tableSizeFor(capacity)];
+    }
+
+    /*
+     * Returns the id of the stake address and adds the address if it is not yet in the dictionary.
+     */
+    public int add(final String stakeAddress) {
+        final int hash = hash(stakeAddress);
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            final int id = table[slot] - 1;
+            if (hashes[id] == hash && stakeAddresses[id].equals(stakeAddress)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        final int id = size++;
+        if (id == stakeAddresses.length) {
+            stakeAddresses = Arrays.copyOf(stakeAddresses, id * 2);
+            hashes = Arrays.copyOf(hashes, id * 2);
+        }
+        stakeAddresses[id] = stakeAddress;
+        hashes[id] = hash;
+        table[slot] = id + 1;
+
+        // Keep the load factor of the table below one half
+        if (size * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    /*
+     * Adds all stake addresses and returns their ids as a set.
+     */
+    public BitSet addAll(final Collection<String> stakeAddresses) {
+        final BitSet ids = new BitSet();
+        for (String stakeAddress : stakeAddresses) {
+            ids.set(add(stakeAddress));
+        }
+        return ids;
+    }
+
+    /*
+     * Returns the id of the stake address or NOT_FOUND if the address is not in the dictionary.
+     */
+    public int getId(final String stakeAddress) {
+        if (stakeAddress == null) {
+            return NOT_FOUND;
+        }
+
+        final int hash = hash(stakeAddress);
+        final int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            final int id = table[slot] - 1;
+            if (hashes[id] == hash && stakeAddresses[id].equals(stakeAddress)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    public String getStakeAddress(final int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Unknown stake address id " + id);
+        }
+        return stakeAddresses[id];
+    }
+
+    /*
+     * Returns the instance of the stake address that is held by the dictionary, adding it if needed.
+     */
+    public String intern(final String stakeAddress) {
+        if (stakeAddress == null) {
+            return null;
+        }
+        // The array might be replaced while the address is added
+        final int id = add(stakeAddress);
+        return stakeAddresses[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(final int tableSize) {
+        table = new int[tableSize];
+        final int mask = tableSize - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = id + 1;
+        }
+    }
+
+    private static int hash(final String stakeAddress) {
+        // Spread the bits of the hash code, the table only uses the lower bits
+        final int hashCode = stakeAddress.hashCode();
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    private static int tableSizeFor(final int capacity) {
+        return Integer.highestOneBit(capacity * 2 - 1) * 2;
+    }
+}
@@ -0,0 +1,12 @@
+package org.cardanofoundation.rewards.calculation.enums;
+
+public enum AccountStatus {
+    // The account is registered and receives its rewards
+    REGISTERED,
+    // The account has been deregistered before the randomness stabilisation window
+    DEREGISTERED,
+    // The account has been deregistered after the randomness stabilisation window
+    LATE_DEREGISTERED,
+    // The account has never been registered
+    UNREGISTERED;
+}
@@ -14,12 +14,11 @@ public class BigNumberUtils {
     }
 
     public static BigInteger multiplyAndFloor(BigInteger a, BigDecimal b, BigDecimal c) {
-        return new BigDecimal(a).multiply(b).multiply(c).round(new MathContext(0, RoundingMode.FLOOR)).toBigInteger();
+        return floor(new BigDecimal(a).multiply(b).multiply(c));
     }
 
     public static BigInteger multiplyAndFloor(BigInteger a, BigDecimal b) {
-        return new BigDecimal(a).multiply(b)
-                .round(new MathContext(0, RoundingMode.FLOOR)).toBigInteger();
+        return floor(new BigDecimal(a).multiply(b));
     }
 
     public static BigInteger multiply(BigInteger a, BigInteger b, BigInteger c) {
@@ -166,8 +165,13 @@ public class BigNumberUtils {
         return a.min(b);
     }
 
+    /*
+     * Products of decimals are exact, so flooring only has to drop the fractional digits.
+     * Reward formulas that divide should use Rational instead of the divide methods above,
+     * which round to the precision of the mathContext.
+     */
     public static BigInteger floor(BigDecimal a) {
-        return a.round(new MathContext(0, RoundingMode.FLOOR)).toBigInteger();
+        return a.setScale(0, RoundingMode.FLOOR).toBigInteger();
     }
 
     public static boolean isLowerOrEquals(BigInteger a, BigInteger b) {
@@ -0,0 +1,88 @@
+package org.cardanofoundation.rewards.calculation.util;
+
+import java.math.BigInteger;
+
+/*
+ * Arithmetic on lovelace amounts held in primitive longs. The total supply of 45 billion ada
+ * (45e15 lovelace) fits into a signed long, but the product of two amounts does not. Products
+ * are therefore kept as 128 bit intermediates and divided without allocating a BigInteger.
+ */
+public class LongNumberUtils {
+
+    private static final long HALF_WORD = 1L << 32;
+    private static final long LOW_HALF_MASK = 0xFFFFFFFFL;
+
+    /*
+     * Returns floor(a * b / c) for a >= 0, b >= 0 and c > 0. The product is calculated with 128 bits
+     * using Math.multiplyHigh. Only if the quotient does not fit into a long the calculation falls
+     * back to BigInteger, which throws an ArithmeticException in that case.
+     */
+    public static long multiplyAndFloorDivide(final long a, final long b, final long c) {
+        if (a < 0 || b < 0 || c <= 0) {
+            throw new IllegalArgumentException("Expected non-negative factors and a positive divisor, got " + a + ", " + b + " and " + c);
+        }
+
+        final long high = Math.multiplyHigh(a, b);
+        final long low = a * b;
+
+        if (high == 0 && low >= 0) {
+            return low / c;
+        }
+
+        // The quotient fits into 64 bits if the high word is lower than the divisor
+        if (high < c) {
+            final long quotient = divideUnsigned128(high, low, c);
+            if (quotient >= 0) {
+                return quotient;
+            }
+        }
+
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divide(BigInteger.valueOf(c)).longValueExact();
+    }
+
+    /*
+     * Divides the unsigned 128 bit number (high, low) by the unsigned divisor and returns the unsigned
+     * 64 bit quotient. Requires high < divisor (unsigned), so that the quotient does not overflow.
+     *
+     * Long division with 32 bit digits, see Hacker's Delight (2nd edition), 9-4 Unsigned Long Division, divlu.
+     */
+    static long divideUnsigned128(final long high, final long low, long divisor) {
+        // Normalize the divisor so that its most significant bit is set
+        final int shift = Long.numberOfLeadingZeros(divisor);
+        divisor <<= shift;
+        final long divisorHigh = divisor >>> 32;
+        final long divisorLow = divisor & LOW_HALF_MASK;
+
+        final long dividendHigh = shift == 0 ? high : (high << shift) | (low >>> (64 - shift));
+        final long dividendLow = low << shift;
+        final long dividendLowHigh = dividendLow >>> 32;
+        final long dividendLowLow = dividendLow & LOW_HALF_MASK;
+
+        // First quotient digit
+        long quotientHigh = Long.divideUnsigned(dividendHigh, divisorHigh);
+        long remainder = dividendHigh - quotientHigh * divisorHigh;
+        while (Long.compareUnsigned(quotientHigh, HALF_WORD) >= 0
+                || Long.compareUnsigned(quotientHigh * divisorLow, (remainder << 32) | dividendLowHigh) > 0) {
+            quotientHigh--;
+            remainder += divisorHigh;
+            if (Long.compareUnsigned(remainder, HALF_WORD) >= 0) {
+                break;
+            }
+        }
+
+        // Second quotient digit
+        final long partialDividend = (dividendHigh << 32) + dividendLowHigh - quotientHigh * divisor;
+        long quotientLow = Long.divideUnsigned(partialDividend, divisorHigh);
+        remainder = partialDividend - quotientLow * divisorHigh;
+        while (Long.compareUnsigned(quotientLow, HALF_WORD) >= 0
+                || Long.compareUnsigned(quotientLow * divisorLow, (remainder << 32) | dividendLowLow) > 0) {
+            quotientLow--;
+            remainder += divisorHigh;
+            if (Long.compareUnsigned(remainder, HALF_WORD) >= 0) {
+                break;
+            }
+        }
+
+        return (quotientHigh << 32) | quotientLow;
+    }
+}
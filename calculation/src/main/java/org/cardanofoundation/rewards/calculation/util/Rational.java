@@ -0,0 +1,182 @@
+package org.cardanofoundation.rewards.calculation.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/*
+ * An exact rational number with a BigInteger numerator and a positive BigInteger denominator.
+ *
+ * The reward formulas of the ledger are specified on exact rationals and floored once when a
+ * lovelace amount is derived (rationalToCoinViaFloor in the Haskell implementation). Using this
+ * type instead of BigDecimal with a limited precision avoids rounding errors in intermediate
+ * results, so no precision has to be chosen for the divisions.
+ *
+ * Fractions are not reduced after every operation. Computing the greatest common divisor is
+ * more expensive than the multiplications of the short formulas of the reward calculation, so
+ * a fraction is only reduced when its denominator grows beyond REDUCTION_THRESHOLD_BITS.
+ *
+ * See: https://github.com/input-output-hk/cardano-ledger/blob/master/libs/cardano-ledger-core/src/Cardano/Ledger/Coin.hs
+ */
+public final class Rational implements Comparable<Rational> {
+
+    private static final int REDUCTION_THRESHOLD_BITS = 256;
+
+    public static final Rational ZERO = new Rational(BigInteger.ZERO, BigInteger.ONE);
+    public static final Rational ONE = new Rational(BigInteger.ONE, BigInteger.ONE);
+
+    private final BigInteger numerator;
+    private final BigInteger denominator;
+
+    private Rational(final BigInteger numerator, final BigInteger denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    public static Rational of(final BigInteger numerator, final BigInteger denominator) {
+        if (denominator.signum() == 0) {
+            throw new ArithmeticException("Denominator of a rational number must not be zero");
+        }
+
+        if (denominator.signum() < 0) {
+            return reduceIfLarge(numerator.negate(), denominator.negate());
+        }
+        return reduceIfLarge(numerator, denominator);
+    }
+
+    public static Rational of(final long numerator, final long denominator) {
+        return of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+    }
+
+    public static Rational of(final BigInteger value) {
+        return new Rational(value, BigInteger.ONE);
+    }
+
+    public static Rational of(final long value) {
+        return new Rational(BigInteger.valueOf(value), BigInteger.ONE);
+    }
+
+    /*
+     * Converts a decimal without loss, e.g. a margin of 0.035 becomes 35/1000.
+     */
+    public static Rational of(final BigDecimal value) {
+        if (value.scale() <= 0) {
+            return new Rational(value.toBigIntegerExact(), BigInteger.ONE);
+        }
+        return of(value.unscaledValue(), BigInteger.TEN.pow(value.scale()));
+    }
+
+    public BigInteger getNumerator() {
+        return numerator;
+    }
+
+    public BigInteger getDenominator() {
+        return denominator;
+    }
+
+    public Rational add(final Rational other) {
+        if (denominator.equals(other.denominator)) {
+            return reduceIfLarge(numerator.add(other.numerator), denominator);
+        }
+        return reduceIfLarge(numerator.multiply(other.denominator).add(other.numerator.multiply(denominator)),
+                denominator.multiply(other.denominator));
+    }
+
+    public Rational subtract(final Rational other) {
+        if (denominator.equals(other.denominator)) {
+            return reduceIfLarge(numerator.subtract(other.numerator), denominator);
+        }
+        return reduceIfLarge(numerator.multiply(other.denominator).subtract(other.numerator.multiply(denominator)),
+                denominator.multiply(other.denominator));
+    }
+
+    public Rational multiply(final Rational other) {
+        return reduceIfLarge(numerator.multiply(other.numerator), denominator.multiply(other.denominator));
+    }
+
+    public Rational multiply(final BigInteger other) {
+        return reduceIfLarge(numerator.multiply(other), denominator);
+    }
+
+    public Rational divide(final Rational other) {
+        return of(numerator.multiply(other.denominator), denominator.multiply(other.numerator));
+    }
+
+    public Rational divide(final BigInteger other) {
+        return of(numerator, denominator.multiply(other));
+    }
+
+    public Rational min(final Rational other) {
+        return compareTo(other) <= 0 ? this : other;
+    }
+
+    public int signum() {
+        return numerator.signum();
+    }
+
+    public boolean isZero() {
+        return numerator.signum() == 0;
+    }
+
+    /*
+     * Rounds towards negative infinity, like rationalToCoinViaFloor of the ledger.
+     */
+    public BigInteger floor() {
+        final BigInteger[] quotientAndRemainder = numerator.divideAndRemainder(denominator);
+        if (quotientAndRemainder[1].signum() < 0) {
+            return quotientAndRemainder[0].subtract(BigInteger.ONE);
+        }
+        return quotientAndRemainder[0];
+    }
+
+    public BigDecimal toBigDecimal(final MathContext mathContext) {
+        return new BigDecimal(numerator).divide(new BigDecimal(denominator), mathContext);
+    }
+
+    public Rational reduce() {
+        final BigInteger gcd = numerator.gcd(denominator);
+        if (gcd.signum() == 0 || gcd.equals(BigInteger.ONE)) {
+            return this;
+        }
+        return new Rational(numerator.divide(gcd), denominator.divide(gcd));
+    }
+
+    private static Rational reduceIfLarge(final BigInteger numerator, final BigInteger denominator) {
+        final Rational rational = new Rational(numerator, denominator);
+        if (denominator.bitLength() > REDUCTION_THRESHOLD_BITS) {
+            return rational.reduce();
+        }
+        return rational;
+    }
+
+    @Override
+    public int compareTo(final Rational other) {
+        if (denominator.equals(other.denominator)) {
+            return numerator.compareTo(other.numerator);
+        }
+        return numerator.multiply(other.denominator).compareTo(other.numerator.multiply(denominator));
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Rational)) {
+            return false;
+        }
+        return compareTo((Rational) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        final Rational reduced = reduce();
+        return 31 * reduced.numerator.hashCode() + reduced.denominator.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return numerator + "/" + denominator;
+    }
+}
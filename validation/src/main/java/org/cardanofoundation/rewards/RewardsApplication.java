@@ -1,10 +1,15 @@
 package org.cardanofoundation.rewards;
 
 import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.validation.EpochReplay;
+import org.cardanofoundation.rewards.validation.data.converter.EpochValidationInputConverter;
 import org.cardanofoundation.rewards.validation.data.fetcher.DbSyncDataFetcher;
 import org.cardanofoundation.rewards.validation.data.fetcher.KoiosDataFetcher;
 import org.cardanofoundation.rewards.validation.data.plotter.CsvDataPlotter;
 import org.cardanofoundation.rewards.validation.data.plotter.JsonDataPlotter;
+import org.cardanofoundation.rewards.validation.data.provider.JsonDataProvider;
+import org.cardanofoundation.rewards.validation.domain.EpochReplayResult;
+import org.cardanofoundation.rewards.validation.util.JsonConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +23,8 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationContext;
 
+import java.util.List;
+
 @EnableConfigurationProperties
 @EntityScan({"org.cardanofoundation.rewards.*", "org.cardanofoundation.*"})
 @SpringBootApplication
@@ -42,6 +49,9 @@ public class RewardsApplication implements ApplicationRunner {
   @Value("${json.data-fetcher.skip-validation-data}")
   private boolean skipValidationData;
 
+  @Value("${json.data-fetcher.parallelism:1}")
+  private int dataFetcherParallelism;
+
   @Value("${cardano.protocol.magic}")
   private int cardanoProtocolMagic;
 
@@ -60,6 +70,12 @@ public class RewardsApplication implements ApplicationRunner {
   @Autowired(required = false)
   private DbSyncDataFetcher dbSyncDataFetcher;
 
+  @Autowired
+  private EpochValidationInputConverter epochValidationInputConverter;
+
+  @Autowired
+  private JsonDataProvider jsonDataProvider;
+
   public static void main(String[] args) {
     SpringApplication.run(RewardsApplication.class, args);
   }
@@ -68,7 +84,7 @@ public class RewardsApplication implements ApplicationRunner {
   public void run(ApplicationArguments args) throws Exception {
 
       if (runMode == null) {
-        logger.warn("No run mode specified. Set the environment variable RUN_MODE in your .env file to 'fetch' or 'plot' or 'test'");
+        logger.warn("No run mode specified. Set the environment variable RUN_MODE in your .env file to 'fetch', 'convert', 'plot', 'replay' or 'test'");
         int exitCode = SpringApplication.exit(context, (ExitCodeGenerator) () -> 0);
         System.exit(exitCode);
       }
@@ -90,9 +106,19 @@ public class RewardsApplication implements ApplicationRunner {
           if (activeProfiles.contains("db-sync")) {
             logger.info("DB Sync data provider is active. Fetching data from DB Sync...");
 
-            for (int epoch = startEpoch; epoch < endEpoch; epoch++) {
-              logger.info("Fetching data for epoch with the DB sync data provider " + epoch);
-              dbSyncDataFetcher.fetch(epoch, override, skipValidationData, networkConfig);
+            if (dataFetcherParallelism > 1) {
+              List<Integer> failedEpochs = dbSyncDataFetcher.fetch(startEpoch, endEpoch, override, skipValidationData,
+                      networkConfig, dataFetcherParallelism);
+              if (!failedEpochs.isEmpty()) {
+                logger.error("Exiting, " + failedEpochs.size() + " epochs could not be fetched");
+                int exitCode = SpringApplication.exit(context, () -> 1);
+                System.exit(exitCode);
+              }
+            } else {
+              for (int epoch = startEpoch; epoch < endEpoch; epoch++) {
+                logger.info("Fetching data for epoch with the DB sync data provider " + epoch);
+                dbSyncDataFetcher.fetch(epoch, override, skipValidationData, networkConfig);
+              }
             }
           }
 
@@ -103,12 +129,24 @@ public class RewardsApplication implements ApplicationRunner {
                 koiosDataFetcher.fetch(epoch, override, skipValidationData, networkConfig);
             }
           }
+      } else if (runMode.equals("convert")) {
+          for (int epoch = startEpoch; epoch < endEpoch; epoch++) {
+              logger.info("Converting the epoch validation input for epoch " + epoch + " into the binary format");
+              epochValidationInputConverter.convert(epoch, overrideFetchedData);
+          }
       } else if (runMode.equals("plot")) {
           if (activeProfiles.contains("csv")) {
               csvDataPlotter.plot(startEpoch, endEpoch, networkConfig);
           }
 
           jsonDataPlotter.plot(startEpoch, endEpoch, networkConfig);
+      } else if (runMode.equals("replay")) {
+          logger.info("Replaying the epochs from the Shelley start epoch up to epoch " + (endEpoch - 1));
+          EpochReplayResult epochReplayResult = EpochReplay.replay(endEpoch - 1, jsonDataProvider, networkConfig);
+          if (epochReplayResult.hasDiverged()) {
+            logger.warn("First divergence from the reference pots in epoch " + epochReplayResult.getFirstDivergentEpoch());
+          }
+          JsonConverter.writeObjectToJsonFile(epochReplayResult, "./report/epoch_replay_result.json");
       } else if (!runMode.equals("test")) {
           logger.warn("Unknown run mode: " + runMode);
       }
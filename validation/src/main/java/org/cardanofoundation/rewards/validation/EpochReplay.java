@@ -0,0 +1,162 @@
+package org.cardanofoundation.rewards.validation;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.AdaPots;
+import org.cardanofoundation.rewards.calculation.domain.EpochCalculationResult;
+import org.cardanofoundation.rewards.validation.data.provider.EpochValidationInputLoader;
+import org.cardanofoundation.rewards.validation.data.provider.JsonDataProvider;
+import org.cardanofoundation.rewards.validation.domain.EpochReplayResult;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import lombok.extern.slf4j.Slf4j;
+
+/*
+ * Replays the reward calculation of a range of epochs starting at the Shelley start epoch. Instead of
+ * taking the reserves and the treasury of the previous epoch from the ada pots of db-sync, every epoch
+ * is calculated on the reserves and the treasury that have been calculated for its previous epoch,
+ * beginning with the initial reserves and treasury of the network config. A single wrong epoch
+ * therefore shows up as a divergence from the reference pots in every later epoch, and the first
+ * divergent epoch is reported.
+ *
+ * The input of the next epoch is loaded on another thread while an epoch is calculated, so that at
+ * most two epochs are held in memory. The input of an epoch contains the pots at the end of its
+ * previous epoch, which are the reference pots the calculated pots of the previous epoch are
+ * compared to.
+ */
+@Slf4j
+public class EpochReplay {
+
+    public static EpochReplayResult replay(int endEpoch, JsonDataProvider jsonDataProvider, NetworkConfig networkConfig) throws IOException {
+        return replay(endEpoch, jsonDataProvider::readEpochValidationInput, networkConfig);
+    }
+
+    /*
+     * Replays the epochs from the Shelley start epoch up to and including the end epoch. The input of
+     * the epoch after the end epoch is only used for the reference pots of the end epoch and may be
+     * missing.
+     */
+    public static EpochReplayResult replay(int endEpoch, EpochValidationInputLoader epochValidationInputLoader,
+                                           NetworkConfig networkConfig) throws IOException {
+        final int startEpoch = networkConfig.getShelleyStartEpoch();
+        if (endEpoch < startEpoch) {
+            throw new IllegalArgumentException("The end epoch " + endEpoch + " is before the Shelley start epoch " + startEpoch);
+        }
+
+        final EpochReplayResult epochReplayResult = EpochReplayResult.builder()
+                .startEpoch(startEpoch)
+                .endEpoch(endEpoch)
+                .build();
+        final List<AdaPots> calculatedAdaPots = new ArrayList<>();
+        AdaPots adaPotsOfPreviousEpoch = AdaPots.builder()
+                .epoch(startEpoch)
+                .reserves(networkConfig.getShelleyInitialReserves())
+                .treasury(networkConfig.getShelleyInitialTreasury())
+                .build();
+        calculatedAdaPots.add(adaPotsOfPreviousEpoch);
+
+        final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "epoch-replay-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Future<EpochValidationInput> nextEpochValidationInput = load(loader, epochValidationInputLoader, startEpoch + 1);
+            for (int epoch = startEpoch + 1; epoch <= endEpoch + 1; epoch++) {
+                final boolean referenceOnly = epoch > endEpoch;
+                EpochValidationInput epochValidationInput;
+                try {
+                    epochValidationInput = await(nextEpochValidationInput);
+                } catch (IOException e) {
+                    if (!referenceOnly) {
+                        throw e;
+                    }
+                    log.info("No epoch validation input for epoch " + epoch + ". The pots of epoch " + endEpoch + " are not compared.");
+                    break;
+                }
+
+                nextEpochValidationInput = epoch <= endEpoch ? load(loader, epochValidationInputLoader, epoch + 1) : null;
+                compare(adaPotsOfPreviousEpoch, epochValidationInput, epochReplayResult);
+                if (referenceOnly) {
+                    break;
+                }
+
+                log.info("Replaying epoch " + epoch);
+                EpochCalculationResult epochCalculationResult = EpochValidation.calculateEpochRewardPots(epoch, epochValidationInput,
+                        adaPotsOfPreviousEpoch.getReserves(), adaPotsOfPreviousEpoch.getTreasury(), networkConfig);
+                adaPotsOfPreviousEpoch = AdaPots.builder()
+                        .epoch(epoch)
+                        .reserves(epochCalculationResult.getReserves())
+                        .treasury(epochCalculationResult.getTreasury())
+                        .build();
+                calculatedAdaPots.add(adaPotsOfPreviousEpoch);
+            }
+        } finally {
+            loader.shutdownNow();
+        }
+
+        epochReplayResult.setCalculatedAdaPots(calculatedAdaPots);
+        if (!epochReplayResult.hasDiverged()) {
+            log.info("The replay of the epochs " + startEpoch + " to " + endEpoch + " matches the reference pots of "
+                    + epochReplayResult.getComparedEpochs() + " epochs");
+        }
+        return epochReplayResult;
+    }
+
+    private static void compare(AdaPots calculatedAdaPots, EpochValidationInput epochValidationInput, EpochReplayResult epochReplayResult) {
+        if (epochValidationInput.getReservesOfPreviousEpoch() == null || epochValidationInput.getTreasuryOfPreviousEpoch() == null) {
+            return;
+        }
+
+        epochReplayResult.setComparedEpochs(epochReplayResult.getComparedEpochs() + 1);
+        if (epochReplayResult.hasDiverged()
+                || (calculatedAdaPots.getReserves().equals(epochValidationInput.getReservesOfPreviousEpoch())
+                && calculatedAdaPots.getTreasury().equals(epochValidationInput.getTreasuryOfPreviousEpoch()))) {
+            return;
+        }
+
+        AdaPots referenceAdaPots = AdaPots.builder()
+                .epoch(calculatedAdaPots.getEpoch())
+                .reserves(epochValidationInput.getReservesOfPreviousEpoch())
+                .treasury(epochValidationInput.getTreasuryOfPreviousEpoch())
+                .build();
+        epochReplayResult.setFirstDivergentEpoch(calculatedAdaPots.getEpoch());
+        epochReplayResult.setCalculatedAdaPotsOfFirstDivergentEpoch(calculatedAdaPots);
+        epochReplayResult.setReferenceAdaPotsOfFirstDivergentEpoch(referenceAdaPots);
+        log.warn("The replay diverges from the reference pots in epoch " + calculatedAdaPots.getEpoch()
+                + ". Reserves differ by " + calculatedAdaPots.getReserves().subtract(referenceAdaPots.getReserves())
+                + " lovelace, treasury differs by " + calculatedAdaPots.getTreasury().subtract(referenceAdaPots.getTreasury()) + " lovelace");
+    }
+
+    private static Future<EpochValidationInput> load(ExecutorService loader, EpochValidationInputLoader epochValidationInputLoader, int epoch) {
+        return loader.submit(() -> epochValidationInputLoader.load(epoch));
+    }
+
+    private static EpochValidationInput await(Future<EpochValidationInput> epochValidationInput) throws IOException {
+        try {
+            return epochValidationInput.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while loading the next epoch");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
@@ -6,9 +6,18 @@ import org.cardanofoundation.rewards.calculation.domain.*;
 import org.cardanofoundation.rewards.validation.data.provider.DataProvider;
 import org.cardanofoundation.rewards.validation.data.provider.JsonDataProvider;
 import org.cardanofoundation.rewards.validation.domain.*;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputBinaryReader;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputStreamReader;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -16,11 +25,34 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class EpochValidation {
 
+    private static final Consumer<PoolRewardCalculationResult> DISCARDED_POOL_REWARDS = poolRewardCalculationResult -> {
+    };
+
     public static EpochCalculationResult calculateEpochRewardPots(int epoch, DataProvider dataProvider, NetworkConfig networkConfig) {
         return calculateEpochRewardPots(epoch, dataProvider, true, networkConfig);
     }
 
     public static EpochCalculationResult calculateEpochRewardPots(int epoch, DataProvider dataProvider, boolean detailedValidation, NetworkConfig networkConfig) {
+        return calculateEpochRewardPots(epoch, dataProvider, detailedValidation, networkConfig, null);
+    }
+
+    /*
+     * Calculates the reward pots of the epoch with the pools calculated concurrently on the given
+     * fork join pool. A null pool calculates the pools sequentially. The data provider calls run one
+     * after the other on the calling thread.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(int epoch, DataProvider dataProvider, boolean detailedValidation,
+                                                                  NetworkConfig networkConfig, ForkJoinPool forkJoinPool) {
+        return calculateEpochRewardPots(epoch, dataProvider, detailedValidation, networkConfig, forkJoinPool, Runnable::run);
+    }
+
+    /*
+     * Runs the data provider calls of the epoch on the given executor. With the DataProviderExecutor
+     * bean, which is bounded by the connection pool of db-sync, the independent calls run concurrently.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(int epoch, DataProvider dataProvider, boolean detailedValidation,
+                                                                  NetworkConfig networkConfig, ForkJoinPool forkJoinPool,
+                                                                  Executor dataProviderExecutor) {
         if (epoch < networkConfig.getShelleyStartEpoch()) {
             log.warn("Epoch " + epoch + " is before the start of the Shelley era. No rewards were calculated in this epoch.");
             return EpochCalculationResult.builder()
@@ -57,33 +89,25 @@ public class EpochValidation {
         EpochCalculationResult epochCalculationResult;
         HashSet<Reward> memberRewardsInEpoch = new HashSet<>();
         HashSet<PoolReward> totalPoolRewards = new HashSet<>();
-        if (dataProvider instanceof JsonDataProvider) {
+        // Epochs that are read ahead are decoded in the background already and are not streamed again.
+        // The streamed pools are calculated one after the other, the fork join pool is not used for them.
+        if (dataProvider instanceof JsonDataProvider && !detailedValidation && !((JsonDataProvider) dataProvider).isReadAheadEnabled()) {
+            long start = System.currentTimeMillis();
+            log.debug("Start streaming the epoch data");
+            JsonDataProvider jsonDataProvider = (JsonDataProvider) dataProvider;
+            try {
+                epochCalculationResult = calculateEpochRewardPots(epoch, jsonDataProvider.readEpochValidationInputWithoutPools(epoch),
+                        jsonDataProvider.getPreferredEpochValidationInputFilePath(epoch), networkConfig, null);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to stream the epoch validation input of epoch " + epoch, e);
+            }
+            long end = System.currentTimeMillis();
+            log.debug("Epoch calculation took " + Math.round((end - start) / 1000.0) + "s");
+        } else if (dataProvider instanceof JsonDataProvider) {
             long start = System.currentTimeMillis();
             log.debug("Start obtaining the epoch data");
             EpochValidationInput epochValidationInput = ((JsonDataProvider) dataProvider).getEpochValidationInput(epoch);
 
-            ProtocolParameters protocolParameters = ProtocolParameters.builder()
-                    .decentralisation(epochValidationInput.getDecentralisation())
-                    .monetaryExpandRate(epochValidationInput.getMonetaryExpandRate())
-                    .treasuryGrowRate(epochValidationInput.getTreasuryGrowRate())
-                    .optimalPoolCount(epochValidationInput.getOptimalPoolCount())
-                    .poolOwnerInfluence(epochValidationInput.getPoolOwnerInfluence())
-                    .build();
-
-            Epoch epochInfo = null;
-
-            if (epochValidationInput.getBlockCount() > 0) {
-                epochInfo = Epoch.builder()
-                    .number(epoch)
-                    .blockCount(epochValidationInput.getBlockCount())
-                    .fees(epochValidationInput.getFees())
-                    .activeStake(epochValidationInput.getActiveStake())
-                    .nonOBFTBlockCount(epochValidationInput.getNonOBFTBlockCount())
-                    .build();
-            }
-
-            HashSet<String> poolIds = epochValidationInput.getPoolStates().stream().map(PoolState::getPoolId).collect(Collectors.toCollection(HashSet::new));
-
             if (detailedValidation) {
                 memberRewardsInEpoch = epochValidationInput.getPoolRewards().stream()
                         .flatMap(poolReward -> poolReward.getDelegatorRewards().stream()
@@ -102,67 +126,16 @@ public class EpochValidation {
                         .collect(Collectors.toCollection(HashSet::new));
             }
 
-            epochCalculationResult = EpochCalculation.calculateEpochRewardPots(
-                    epoch, epochValidationInput.getReservesOfPreviousEpoch(),
-                    epochValidationInput.getTreasuryOfPreviousEpoch(), protocolParameters, epochInfo, epochValidationInput.getRetiredPools(),
-                    epochValidationInput.getDeregisteredAccounts(),
-                    new ArrayList<>(epochValidationInput.getMirCertificates()),
-                    new ArrayList<>(poolIds),
-                    new ArrayList<>(epochValidationInput.getPoolStates()),
-                    epochValidationInput.getLateDeregisteredAccounts(),
-                    epochValidationInput.getRegisteredAccountsSinceLastEpoch(),
-                    epochValidationInput.getRegisteredAccountsUntilNow(), epochValidationInput.getSharedPoolRewardAddressesWithoutReward(),
-                    epochValidationInput.getDeregisteredAccountsOnEpochBoundary(), networkConfig);
+            epochCalculationResult = calculateEpochRewardPots(epoch, epochValidationInput, networkConfig, forkJoinPool);
             long end = System.currentTimeMillis();
             log.debug("Epoch calculation took " + Math.round((end - start) / 1000.0) + "s");
         } else {
             long start = System.currentTimeMillis();
             log.debug("Start obtaining the epoch data");
-            AdaPots adaPotsForPreviousEpoch = dataProvider.getAdaPotsForEpoch(epoch - 1);
-            ProtocolParameters protocolParameters = dataProvider.getProtocolParametersForEpoch(epoch - 2);
-            Epoch epochInfo = dataProvider.getEpochInfo(epoch - 2, networkConfig);
-
-            Set<RetiredPool> retiredPoolsInEpoch = dataProvider.getRetiredPoolsInEpoch(epoch);
-            Set<String> rewardAddressesOfRetiredPoolsInEpoch = retiredPoolsInEpoch.stream().map(RetiredPool::getRewardAddress).collect(Collectors.toSet());
-
-            List<MirCertificate> mirCertificates = dataProvider.getMirCertificatesInEpoch(epoch - 1);
-            List<PoolBlock> blocksMadeByPoolsInEpoch = dataProvider.getBlocksMadeByPoolsInEpoch(epoch - 2);
-            List<String> poolIds = blocksMadeByPoolsInEpoch.stream().map(PoolBlock::getPoolId).distinct().toList();
-            List<PoolState> poolStates = dataProvider.getHistoryOfAllPoolsInEpoch(epoch - 2, blocksMadeByPoolsInEpoch);
-
-            HashSet<String> deregisteredAccounts;
-            HashSet<String> deregisteredAccountsOnEpochBoundary;
-            HashSet<String> lateDeregisteredAccounts = new HashSet<>();
-            if (epoch - 2 < networkConfig.getVasilHardforkEpoch()) {
-                deregisteredAccounts = dataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getRandomnessStabilisationWindow());
-                deregisteredAccountsOnEpochBoundary = dataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getExpectedSlotsPerEpoch());
-                lateDeregisteredAccounts = deregisteredAccountsOnEpochBoundary.stream().filter(account -> !deregisteredAccounts.contains(account)).collect(Collectors.toCollection(HashSet::new));
-            } else {
-                deregisteredAccounts = dataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getExpectedSlotsPerEpoch());
-                deregisteredAccountsOnEpochBoundary = deregisteredAccounts;
-            }
-
-            HashSet<String> sharedPoolRewardAddressesWithoutReward = new HashSet<>();
-            if (epoch - 2 < networkConfig.getAllegraHardforkEpoch()) {
-                sharedPoolRewardAddressesWithoutReward = dataProvider.findSharedPoolRewardAddressWithoutReward(epoch - 2);
-            }
-            HashSet<String> poolRewardAddresses = poolStates.stream().map(PoolState::getRewardAddress).collect(Collectors.toCollection(HashSet::new));
-            poolRewardAddresses.addAll(rewardAddressesOfRetiredPoolsInEpoch);
-
-            long stabilityWindow = networkConfig.getRandomnessStabilisationWindow();
-            // Since the Vasil hard fork, the unregistered accounts will not filter out before the
-            // rewards calculation starts (at the stability window). They will be filtered out on the
-            // epoch boundary when the reward update will be applied.
-            if (epoch - 2 >= networkConfig.getVasilHardforkEpoch()) {
-                stabilityWindow = networkConfig.getExpectedSlotsPerEpoch();
-            }
-
-            HashSet<String> registeredAccountsSinceLastEpoch = dataProvider.getRegisteredAccountsUntilLastEpoch(epoch, poolRewardAddresses, stabilityWindow);
-            HashSet<String> registeredAccountsUntilNow = dataProvider.getRegisteredAccountsUntilNow(epoch, poolRewardAddresses, stabilityWindow);
-
+            ProvidedEpochData providedEpochData = fetchEpochData(epoch, dataProvider, detailedValidation, networkConfig, dataProviderExecutor);
             if (detailedValidation) {
-                memberRewardsInEpoch = dataProvider.getMemberRewardsInEpoch(epoch - 2);
-                totalPoolRewards = dataProvider.getTotalPoolRewardsInEpoch(epoch - 2);
+                memberRewardsInEpoch = providedEpochData.memberRewards;
+                totalPoolRewards = providedEpochData.totalPoolRewards;
             }
             long end = System.currentTimeMillis();
             log.debug("Obtaining the epoch data took " + Math.round((end - start) / 1000.0) + "s");
@@ -170,10 +143,13 @@ public class EpochValidation {
 
             start = System.currentTimeMillis();
             epochCalculationResult = EpochCalculation.calculateEpochRewardPots(
-                    epoch, adaPotsForPreviousEpoch.getReserves(), adaPotsForPreviousEpoch.getTreasury(), protocolParameters, epochInfo, retiredPoolsInEpoch, deregisteredAccounts,
-                    mirCertificates, poolIds, poolStates, lateDeregisteredAccounts,
-                    registeredAccountsSinceLastEpoch, registeredAccountsUntilNow, sharedPoolRewardAddressesWithoutReward,
-                    deregisteredAccountsOnEpochBoundary, networkConfig);
+                    epoch, providedEpochData.adaPotsOfPreviousEpoch.getReserves(), providedEpochData.adaPotsOfPreviousEpoch.getTreasury(),
+                    providedEpochData.protocolParameters, providedEpochData.epochInfo, providedEpochData.retiredPools,
+                    providedEpochData.deregisteredAccounts, providedEpochData.mirCertificates, providedEpochData.poolIds,
+                    providedEpochData.poolStates, providedEpochData.lateDeregisteredAccounts,
+                    providedEpochData.registeredAccountsSinceLastEpoch, providedEpochData.registeredAccountsUntilNow,
+                    providedEpochData.sharedPoolRewardAddressesWithoutReward, providedEpochData.deregisteredAccountsOnEpochBoundary,
+                    networkConfig, forkJoinPool);
             end = System.currentTimeMillis();
             log.debug("Epoch calculation took " + Math.round((end - start) / 1000.0) + "s");
         }
@@ -208,4 +184,251 @@ public class EpochValidation {
 
         return epochCalculationResult;
     }
+
+    /*
+     * Calculates the reward pots from an epoch validation input that has been read from a json file
+     * or created by the SyntheticEpochGenerator. If the stake addresses of the input have been interned
+     * (see StakeAddressInterner), the delegators are looked up by their id in its dictionary.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(int epoch, EpochValidationInput epochValidationInput,
+                                                                  NetworkConfig networkConfig, ForkJoinPool forkJoinPool) {
+        HashSet<String> poolIds = epochValidationInput.getPoolStates().stream().map(PoolState::getPoolId).collect(Collectors.toCollection(HashSet::new));
+
+        return EpochCalculation.calculateEpochRewardPots(
+                epoch, epochValidationInput.getReservesOfPreviousEpoch(),
+                epochValidationInput.getTreasuryOfPreviousEpoch(), getProtocolParameters(epochValidationInput),
+                getEpochInfo(epoch, epochValidationInput), epochValidationInput.getRetiredPools(),
+                epochValidationInput.getDeregisteredAccounts(),
+                new ArrayList<>(epochValidationInput.getMirCertificates()),
+                new ArrayList<>(poolIds),
+                new ArrayList<>(epochValidationInput.getPoolStates()),
+                epochValidationInput.getLateDeregisteredAccounts(),
+                epochValidationInput.getRegisteredAccountsSinceLastEpoch(),
+                epochValidationInput.getRegisteredAccountsUntilNow(), epochValidationInput.getSharedPoolRewardAddressesWithoutReward(),
+                epochValidationInput.getDeregisteredAccountsOnEpochBoundary(), networkConfig, forkJoinPool,
+                epochValidationInput.getStakeAddressDictionary());
+    }
+
+    /*
+     * Calculates the reward pots from an epoch validation input file without loading the whole epoch into
+     * memory. The pool states are streamed from the file and each pool result is passed to the
+     * poolRewardConsumer (which may be null) instead of being kept in the returned result. Without a
+     * consumer the member rewards are not even created. The peak heap usage is bounded by the largest
+     * pool instead of the epoch. The pools are calculated one after the other in the order of the file.
+     * Both the compressed json files and the memory mapped binary files (.bin) are supported.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(int epoch, String epochValidationInputFilePath, NetworkConfig networkConfig,
+                                                                  Consumer<PoolRewardCalculationResult> poolRewardConsumer) throws IOException {
+        if (epochValidationInputFilePath.endsWith(".bin")) {
+            try (EpochValidationInputBinaryReader reader = EpochValidationInputBinaryReader.open(epochValidationInputFilePath)) {
+                return calculateEpochRewardPots(epoch, reader.readWithoutPools(), reader.poolStates(), networkConfig, poolRewardConsumer);
+            }
+        }
+
+        return calculateEpochRewardPots(epoch, EpochValidationInputStreamReader.readWithoutPools(epochValidationInputFilePath),
+                epochValidationInputFilePath, networkConfig, poolRewardConsumer);
+    }
+
+    /*
+     * Like the calculation on the epoch validation input file, with the epoch fields that have been read
+     * from the file already, so that only the pool states are read from it again.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(int epoch, EpochValidationInput epochValidationInputWithoutPools,
+                                                                  String epochValidationInputFilePath, NetworkConfig networkConfig,
+                                                                  Consumer<PoolRewardCalculationResult> poolRewardConsumer) throws IOException {
+        if (epochValidationInputFilePath.endsWith(".bin")) {
+            try (EpochValidationInputBinaryReader reader = EpochValidationInputBinaryReader.open(epochValidationInputFilePath)) {
+                return calculateEpochRewardPots(epoch, epochValidationInputWithoutPools, reader.poolStates(), networkConfig, poolRewardConsumer);
+            }
+        }
+
+        try (EpochValidationInputStreamReader.JsonArrayIterator<PoolState> poolStates =
+                     EpochValidationInputStreamReader.streamPoolStates(epochValidationInputFilePath)) {
+            return calculateEpochRewardPots(epoch, epochValidationInputWithoutPools, poolStates, networkConfig, poolRewardConsumer);
+        }
+    }
+
+    /*
+     * Calculates the reward pots of a loaded epoch on the given reserves and treasury of the previous
+     * epoch instead of the ones of the input, e.g. to chain the calculated pots of the previous epoch
+     * into the epoch. Only the totals of the pools are kept in the result.
+     */
+    public static EpochCalculationResult calculateEpochRewardPots(int epoch, EpochValidationInput epochValidationInput,
+                                                                  BigInteger reservesOfPreviousEpoch, BigInteger treasuryOfPreviousEpoch,
+                                                                  NetworkConfig networkConfig) {
+        return calculateEpochRewardPots(epoch, epochValidationInput, reservesOfPreviousEpoch, treasuryOfPreviousEpoch,
+                epochValidationInput.getPoolStates().iterator(), networkConfig, null, epochValidationInput.getStakeAddressDictionary());
+    }
+
+    private static EpochCalculationResult calculateEpochRewardPots(int epoch, EpochValidationInput epochValidationInput,
+                                                                   Iterator<PoolState> poolStates, NetworkConfig networkConfig,
+                                                                   Consumer<PoolRewardCalculationResult> poolRewardConsumer) throws IOException {
+        try {
+            return calculateEpochRewardPots(epoch, epochValidationInput, epochValidationInput.getReservesOfPreviousEpoch(),
+                    epochValidationInput.getTreasuryOfPreviousEpoch(), poolStates, networkConfig, poolRewardConsumer, null);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static EpochCalculationResult calculateEpochRewardPots(int epoch, EpochValidationInput epochValidationInput,
+                                                                   BigInteger reservesOfPreviousEpoch, BigInteger treasuryOfPreviousEpoch,
+                                                                   Iterator<PoolState> poolStates, NetworkConfig networkConfig,
+                                                                   Consumer<PoolRewardCalculationResult> poolRewardConsumer,
+                                                                   StakeAddressDictionary stakeAddressDictionary) {
+        // Without a consumer the member rewards are discarded while they are calculated, the totals of
+        // the pools are part of their results and do not need the single member rewards.
+        boolean discardPoolRewards = poolRewardConsumer == null;
+        return EpochCalculation.calculateEpochRewardPots(
+                epoch, reservesOfPreviousEpoch, treasuryOfPreviousEpoch, getProtocolParameters(epochValidationInput),
+                getEpochInfo(epoch, epochValidationInput), epochValidationInput.getRetiredPools(),
+                epochValidationInput.getDeregisteredAccounts(),
+                new ArrayList<>(epochValidationInput.getMirCertificates()),
+                poolStates,
+                epochValidationInput.getLateDeregisteredAccounts(),
+                epochValidationInput.getRegisteredAccountsSinceLastEpoch(),
+                epochValidationInput.getRegisteredAccountsUntilNow(), epochValidationInput.getSharedPoolRewardAddressesWithoutReward(),
+                epochValidationInput.getDeregisteredAccountsOnEpochBoundary(), networkConfig,
+                discardPoolRewards ? DISCARDED_POOL_REWARDS : poolRewardConsumer,
+                stakeAddressDictionary, discardPoolRewards ? RewardSink.DISCARD : null);
+    }
+
+    /*
+     * The inputs of an epoch calculation obtained from a data provider.
+     */
+    private static class ProvidedEpochData {
+        private AdaPots adaPotsOfPreviousEpoch;
+        private ProtocolParameters protocolParameters;
+        private Epoch epochInfo;
+        private Set<RetiredPool> retiredPools;
+        private List<MirCertificate> mirCertificates;
+        private List<String> poolIds;
+        private List<PoolState> poolStates;
+        private HashSet<String> deregisteredAccounts;
+        private HashSet<String> deregisteredAccountsOnEpochBoundary;
+        private HashSet<String> lateDeregisteredAccounts;
+        private HashSet<String> sharedPoolRewardAddressesWithoutReward;
+        private HashSet<String> registeredAccountsSinceLastEpoch;
+        private HashSet<String> registeredAccountsUntilNow;
+        private HashSet<Reward> memberRewards;
+        private HashSet<PoolReward> totalPoolRewards;
+    }
+
+    /*
+     * Obtains the inputs of the epoch from the data provider. The calls that do not depend on each other
+     * run concurrently, so that obtaining an epoch from db-sync takes about as long as the slowest chain
+     * of queries: the blocks, the pool states and then the registrations of their reward addresses.
+     */
+    private static ProvidedEpochData fetchEpochData(int epoch, DataProvider dataProvider, boolean detailedValidation, NetworkConfig networkConfig,
+                                                    Executor executor) {
+        CompletableFuture<AdaPots> adaPotsOfPreviousEpoch = CompletableFuture.supplyAsync(() -> dataProvider.getAdaPotsForEpoch(epoch - 1), executor);
+        CompletableFuture<ProtocolParameters> protocolParameters = CompletableFuture.supplyAsync(() -> dataProvider.getProtocolParametersForEpoch(epoch - 2), executor);
+        CompletableFuture<Epoch> epochInfo = CompletableFuture.supplyAsync(() -> dataProvider.getEpochInfo(epoch - 2, networkConfig), executor);
+        CompletableFuture<Set<RetiredPool>> retiredPools = CompletableFuture.supplyAsync(() -> dataProvider.getRetiredPoolsInEpoch(epoch), executor);
+        CompletableFuture<List<MirCertificate>> mirCertificates = CompletableFuture.supplyAsync(() -> dataProvider.getMirCertificatesInEpoch(epoch - 1), executor);
+        CompletableFuture<List<PoolBlock>> blocksMadeByPoolsInEpoch = CompletableFuture.supplyAsync(() -> dataProvider.getBlocksMadeByPoolsInEpoch(epoch - 2), executor);
+        CompletableFuture<List<PoolState>> poolStates = blocksMadeByPoolsInEpoch.thenApplyAsync(blocks -> dataProvider.getHistoryOfAllPoolsInEpoch(epoch - 2, blocks), executor);
+
+        CompletableFuture<HashSet<String>> deregisteredAccounts;
+        CompletableFuture<HashSet<String>> deregisteredAccountsOnEpochBoundary;
+        if (epoch - 2 < networkConfig.getVasilHardforkEpoch()) {
+            deregisteredAccounts = CompletableFuture.supplyAsync(() -> dataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getRandomnessStabilisationWindow()), executor);
+            deregisteredAccountsOnEpochBoundary = CompletableFuture.supplyAsync(() -> dataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getExpectedSlotsPerEpoch()), executor);
+        } else {
+            deregisteredAccounts = CompletableFuture.supplyAsync(() -> dataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getExpectedSlotsPerEpoch()), executor);
+            deregisteredAccountsOnEpochBoundary = deregisteredAccounts;
+        }
+
+        CompletableFuture<HashSet<String>> sharedPoolRewardAddressesWithoutReward = epoch - 2 < networkConfig.getAllegraHardforkEpoch()
+                ? CompletableFuture.supplyAsync(() -> dataProvider.findSharedPoolRewardAddressWithoutReward(epoch - 2), executor)
+                : CompletableFuture.completedFuture(new HashSet<>());
+
+        long stabilityWindow = networkConfig.getRandomnessStabilisationWindow();
+        // Since the Vasil hard fork, the unregistered accounts will not filter out before the
+        // rewards calculation starts (at the stability window). They will be filtered out on the
+        // epoch boundary when the reward update will be applied.
+        if (epoch - 2 >= networkConfig.getVasilHardforkEpoch()) {
+            stabilityWindow = networkConfig.getExpectedSlotsPerEpoch();
+        }
+        final long registrationStabilityWindow = stabilityWindow;
+
+        CompletableFuture<HashSet<String>> poolRewardAddresses = poolStates.thenCombine(retiredPools, (states, pools) -> {
+            HashSet<String> rewardAddresses = states.stream().map(PoolState::getRewardAddress).collect(Collectors.toCollection(HashSet::new));
+            rewardAddresses.addAll(pools.stream().map(RetiredPool::getRewardAddress).collect(Collectors.toSet()));
+            return rewardAddresses;
+        });
+        CompletableFuture<HashSet<String>> registeredAccountsSinceLastEpoch = poolRewardAddresses.thenApplyAsync(
+                rewardAddresses -> dataProvider.getRegisteredAccountsUntilLastEpoch(epoch, rewardAddresses, registrationStabilityWindow), executor);
+        CompletableFuture<HashSet<String>> registeredAccountsUntilNow = poolRewardAddresses.thenApplyAsync(
+                rewardAddresses -> dataProvider.getRegisteredAccountsUntilNow(epoch, rewardAddresses, registrationStabilityWindow), executor);
+
+        CompletableFuture<HashSet<Reward>> memberRewards = detailedValidation
+                ? CompletableFuture.supplyAsync(() -> dataProvider.getMemberRewardsInEpoch(epoch - 2), executor)
+                : CompletableFuture.completedFuture(new HashSet<>());
+        CompletableFuture<HashSet<PoolReward>> totalPoolRewards = detailedValidation
+                ? CompletableFuture.supplyAsync(() -> dataProvider.getTotalPoolRewardsInEpoch(epoch - 2), executor)
+                : CompletableFuture.completedFuture(new HashSet<>());
+
+        ProvidedEpochData providedEpochData = new ProvidedEpochData();
+        providedEpochData.adaPotsOfPreviousEpoch = join(adaPotsOfPreviousEpoch);
+        providedEpochData.protocolParameters = join(protocolParameters);
+        providedEpochData.epochInfo = join(epochInfo);
+        providedEpochData.retiredPools = join(retiredPools);
+        providedEpochData.mirCertificates = join(mirCertificates);
+        providedEpochData.poolIds = join(blocksMadeByPoolsInEpoch).stream().map(PoolBlock::getPoolId).distinct().toList();
+        providedEpochData.poolStates = join(poolStates);
+        providedEpochData.deregisteredAccounts = join(deregisteredAccounts);
+        providedEpochData.deregisteredAccountsOnEpochBoundary = join(deregisteredAccountsOnEpochBoundary);
+        providedEpochData.lateDeregisteredAccounts = epoch - 2 >= networkConfig.getVasilHardforkEpoch()
+                ? new HashSet<>()
+                : providedEpochData.deregisteredAccountsOnEpochBoundary.stream()
+                    .filter(account -> !providedEpochData.deregisteredAccounts.contains(account))
+                    .collect(Collectors.toCollection(HashSet::new));
+        providedEpochData.sharedPoolRewardAddressesWithoutReward = join(sharedPoolRewardAddressesWithoutReward);
+        providedEpochData.registeredAccountsSinceLastEpoch = join(registeredAccountsSinceLastEpoch);
+        providedEpochData.registeredAccountsUntilNow = join(registeredAccountsUntilNow);
+        providedEpochData.memberRewards = join(memberRewards);
+        providedEpochData.totalPoolRewards = join(totalPoolRewards);
+        return providedEpochData;
+    }
+
+    /*
+     * Waits for the result and rethrows the exception of a failed data provider call as it is.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public static ProtocolParameters getProtocolParameters(EpochValidationInput epochValidationInput) {
+        return ProtocolParameters.builder()
+                .decentralisation(epochValidationInput.getDecentralisation())
+                .monetaryExpandRate(epochValidationInput.getMonetaryExpandRate())
+                .treasuryGrowRate(epochValidationInput.getTreasuryGrowRate())
+                .optimalPoolCount(epochValidationInput.getOptimalPoolCount())
+                .poolOwnerInfluence(epochValidationInput.getPoolOwnerInfluence())
+                .build();
+    }
+
+    public static Epoch getEpochInfo(int epoch, EpochValidationInput epochValidationInput) {
+        if (epochValidationInput.getBlockCount() == 0) {
+            return null;
+        }
+
+        return Epoch.builder()
+                .number(epoch)
+                .blockCount(epochValidationInput.getBlockCount())
+                .fees(epochValidationInput.getFees())
+                .activeStake(epochValidationInput.getActiveStake())
+                .nonOBFTBlockCount(epochValidationInput.getNonOBFTBlockCount())
+                .build();
+    }
 }
@@ -65,13 +65,27 @@ public class PoolRewardValidation {
         }
 
         // Step 10 a: Check if pool reward address or member stake addresses have been unregistered before
+        final HashSet<Delegator> delegators = poolStateCurrentEpoch.toDelegators();
         List<String> stakeAddresses = new ArrayList<>();
         stakeAddresses.add(poolStateCurrentEpoch.getRewardAddress());
-        stakeAddresses.addAll(poolStateCurrentEpoch.getDelegators().stream().map(Delegator::getStakeAddress).filter(address -> !excludedStakeAddresses.contains(address)).toList());
+        stakeAddresses.addAll(delegators.stream().map(Delegator::getStakeAddress).filter(address -> !excludedStakeAddresses.contains(address)).toList());
 
-        for (Delegator delegator : poolStateCurrentEpoch.getDelegators()) {
+        // The pool state may be shared with other calculations, so the excluded stake is
+        // subtracted on a copy instead of the given pool state
+        BigInteger excludedActiveStake = BigInteger.ZERO;
+        for (Delegator delegator : delegators) {
             if (excludedStakeAddresses.contains(delegator.getStakeAddress())) {
-                poolStateCurrentEpoch.setActiveStake(poolStateCurrentEpoch.getActiveStake().subtract(delegator.getActiveStake()));
+                excludedActiveStake = excludedActiveStake.add(delegator.getActiveStake());
+            }
+        }
+
+        if (isHigher(excludedActiveStake, BigInteger.ZERO)) {
+            final DelegatorStakes delegatorStakes = poolStateCurrentEpoch.delegatorStakes();
+            poolStateCurrentEpoch = poolStateCurrentEpoch.toBuilder()
+                    .activeStake(poolStateCurrentEpoch.getActiveStake().subtract(excludedActiveStake))
+                    .build();
+            if (delegatorStakes != null) {
+                poolStateCurrentEpoch.replaceDelegators(delegatorStakes);
             }
         }
 
@@ -0,0 +1,51 @@
+package org.cardanofoundation.rewards.validation.data.converter;
+
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputBinaryWriter;
+import org.cardanofoundation.rewards.validation.util.JsonConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+
+/*
+ * Converts the fetched epoch-validation-input-N.json.gz files into the binary format next to them,
+ * which the JsonDataProvider prefers if it exists.
+ */
+@Service
+public class EpochValidationInputConverter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EpochValidationInputConverter.class);
+
+    @Value("${json.data-provider.source}")
+    private String sourceFolder;
+
+    public void convert(int epoch, boolean override) {
+        String jsonFilePath = String.format("%s/epoch-validation-input-%d.json.gz", sourceFolder, epoch);
+        String binaryFilePath = String.format("%s/epoch-validation-input-%d.bin", sourceFolder, epoch);
+
+        if (!new File(jsonFilePath).exists()) {
+            logger.info("Skip to convert epoch validation input data for epoch " + epoch + " because the json file does not exist");
+            return;
+        }
+
+        if (new File(binaryFilePath).exists() && !override) {
+            logger.info("Skip to convert epoch validation input data for epoch " + epoch + " because the binary file already exists");
+            return;
+        }
+
+        try {
+            convert(jsonFilePath, binaryFilePath);
+        } catch (IOException e) {
+            logger.error("Failed to convert epoch validation input data for epoch " + epoch + ": " + e.getMessage());
+        }
+    }
+
+    public static void convert(String jsonFilePath, String binaryFilePath) throws IOException {
+        EpochValidationInput epochValidationInput = JsonConverter.readJsonFile(jsonFilePath, EpochValidationInput.class);
+        EpochValidationInputBinaryWriter.write(epochValidationInput, binaryFilePath);
+    }
+}
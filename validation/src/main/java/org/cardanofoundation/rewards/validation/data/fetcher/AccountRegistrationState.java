@@ -0,0 +1,185 @@
+package org.cardanofoundation.rewards.validation.data.fetcher;
+
+import org.cardanofoundation.rewards.calculation.domain.StakeAddressDictionary;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * The registration state of all stake addresses after the last applied epoch: the id of the last
+ * transaction that registered and the last one that deregistered each address. An address is
+ * deregistered if its last deregistration is later than its last registration.
+ *
+ * The state of a point within a later epoch is the state combined with the registrations and
+ * deregistrations between the end of the last applied epoch and that point, which are collected
+ * in a separate, small instance. So fetching the account sets of an epoch only reads the
+ * certificates of that epoch, instead of the whole history up to it.
+ *
+ * The state is kept as a file next to the fetched epochs, so that a later run continues from the
+ * last applied epoch. Instances are not thread safe.
+ */
+public class AccountRegistrationState {
+
+    private static final int MAGIC = 0x43464152; // CFAR
+    private static final byte VERSION = 1;
+    // Transaction ids start at one in db-sync
+    private static final long NONE = 0;
+
+    private final StakeAddressDictionary stakeAddressDictionary;
+    private long[] lastRegistrationTxIds;
+    private long[] lastDeregistrationTxIds;
+    private int lastAppliedEpoch;
+
+    public AccountRegistrationState(int lastAppliedEpoch) {
+        this(lastAppliedEpoch, 1024);
+    }
+
+    private AccountRegistrationState(int lastAppliedEpoch, int expectedSize) {
+        this.stakeAddressDictionary = new StakeAddressDictionary(expectedSize);
+        this.lastRegistrationTxIds = new long[Math.max(16, expectedSize)];
+        this.lastDeregistrationTxIds = new long[Math.max(16, expectedSize)];
+        this.lastAppliedEpoch = lastAppliedEpoch;
+    }
+
+    public int getLastAppliedEpoch() {
+        return lastAppliedEpoch;
+    }
+
+    public void setLastAppliedEpoch(int lastAppliedEpoch) {
+        this.lastAppliedEpoch = lastAppliedEpoch;
+    }
+
+    public int size() {
+        return stakeAddressDictionary.size();
+    }
+
+    public void addRegistration(final String stakeAddress, final long txId) {
+        final int id = idOf(stakeAddress);
+        lastRegistrationTxIds[id] = Math.max(lastRegistrationTxIds[id], txId);
+    }
+
+    public void addDeregistration(final String stakeAddress, final long txId) {
+        final int id = idOf(stakeAddress);
+        lastDeregistrationTxIds[id] = Math.max(lastDeregistrationTxIds[id], txId);
+    }
+
+    /*
+     * Applies the registrations and deregistrations of the changes to this state.
+     */
+    public void addAll(final AccountRegistrationState changes) {
+        for (int changeId = 0; changeId < changes.size(); changeId++) {
+            final int id = idOf(changes.stakeAddressDictionary.getStakeAddress(changeId));
+            lastRegistrationTxIds[id] = Math.max(lastRegistrationTxIds[id], changes.lastRegistrationTxIds[changeId]);
+            lastDeregistrationTxIds[id] = Math.max(lastDeregistrationTxIds[id], changes.lastDeregistrationTxIds[changeId]);
+        }
+    }
+
+    /*
+     * Returns the addresses that are deregistered in this state combined with the changes.
+     */
+    public HashSet<String> getDeregisteredAccounts(final AccountRegistrationState changes) {
+        final HashSet<String> deregisteredAccounts = new HashSet<>();
+        for (int id = 0; id < size(); id++) {
+            if (lastDeregistrationTxIds[id] > lastRegistrationTxIds[id] && lastRegistrationTxIds[id] != NONE) {
+                final String stakeAddress = stakeAddressDictionary.getStakeAddress(id);
+                if (changes.stakeAddressDictionary.getId(stakeAddress) == StakeAddressDictionary.NOT_FOUND) {
+                    deregisteredAccounts.add(stakeAddress);
+                }
+            }
+        }
+
+        for (int changeId = 0; changeId < changes.size(); changeId++) {
+            final String stakeAddress = changes.stakeAddressDictionary.getStakeAddress(changeId);
+            final int id = stakeAddressDictionary.getId(stakeAddress);
+            long lastRegistrationTxId = changes.lastRegistrationTxIds[changeId];
+            long lastDeregistrationTxId = changes.lastDeregistrationTxIds[changeId];
+            if (id != StakeAddressDictionary.NOT_FOUND) {
+                lastRegistrationTxId = Math.max(lastRegistrationTxId, lastRegistrationTxIds[id]);
+                lastDeregistrationTxId = Math.max(lastDeregistrationTxId, lastDeregistrationTxIds[id]);
+            }
+
+            if (lastDeregistrationTxId > lastRegistrationTxId && lastRegistrationTxId != NONE) {
+                deregisteredAccounts.add(stakeAddress);
+            }
+        }
+        return deregisteredAccounts;
+    }
+
+    /*
+     * Returns the given addresses that have been registered at least once in this state combined with the changes.
+     */
+    public HashSet<String> getRegisteredAccounts(final Collection<String> stakeAddresses, final AccountRegistrationState changes) {
+        final HashSet<String> registeredAccounts = new HashSet<>();
+        for (String stakeAddress : stakeAddresses) {
+            if (changes.hasBeenRegistered(stakeAddress) || hasBeenRegistered(stakeAddress)) {
+                registeredAccounts.add(stakeAddress);
+            }
+        }
+        return registeredAccounts;
+    }
+
+    private boolean hasBeenRegistered(final String stakeAddress) {
+        final int id = stakeAddressDictionary.getId(stakeAddress);
+        return id != StakeAddressDictionary.NOT_FOUND && lastRegistrationTxIds[id] != NONE;
+    }
+
+    private int idOf(final String stakeAddress) {
+        final int id = stakeAddressDictionary.add(stakeAddress);
+        if (id == lastRegistrationTxIds.length) {
+            lastRegistrationTxIds = Arrays.copyOf(lastRegistrationTxIds, id * 2);
+            lastDeregistrationTxIds = Arrays.copyOf(lastDeregistrationTxIds, id * 2);
+        }
+        return id;
+    }
+
+    public static AccountRegistrationState read(final Path path) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path), 65536)))) {
+            if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+                throw new IOException("Unsupported account registration state in " + path);
+            }
+
+            final int lastAppliedEpoch = input.readInt();
+            final int size = input.readInt();
+            final AccountRegistrationState accountRegistrationState = new AccountRegistrationState(lastAppliedEpoch, size);
+            for (int i = 0; i < size; i++) {
+                final int id = accountRegistrationState.idOf(input.readUTF());
+                accountRegistrationState.lastRegistrationTxIds[id] = input.readLong();
+                accountRegistrationState.lastDeregistrationTxIds[id] = input.readLong();
+            }
+            return accountRegistrationState;
+        }
+    }
+
+    /*
+     * Writes the state next to the target file and moves it into place once it is complete.
+     */
+    public void write(final Path path) throws IOException {
+        final Path targetPath = path.toAbsolutePath();
+        Files.createDirectories(targetPath.getParent());
+        final Path temporaryPath = targetPath.resolveSibling(targetPath.getFileName() + ".tmp");
+
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporaryPath), 65536)))) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeInt(lastAppliedEpoch);
+            output.writeInt(size());
+            for (int id = 0; id < size(); id++) {
+                output.writeUTF(stakeAddressDictionary.getStakeAddress(id));
+                output.writeLong(lastRegistrationTxIds[id]);
+                output.writeLong(lastDeregistrationTxIds[id]);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryPath);
+            throw e;
+        }
+
+        Files.move(temporaryPath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
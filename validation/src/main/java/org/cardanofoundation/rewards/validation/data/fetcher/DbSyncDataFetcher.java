@@ -8,6 +8,7 @@ import org.cardanofoundation.rewards.validation.domain.EpochValidationDelegatorR
 import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
 import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
 import org.cardanofoundation.rewards.validation.domain.PoolReward;
+import org.cardanofoundation.rewards.validation.repository.DbSyncAccountRegistrationReader;
 import org.cardanofoundation.rewards.validation.util.JsonConverter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,18 +20,27 @@ import java.io.File;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Service
 public class DbSyncDataFetcher implements DataFetcher {
 
     private static final Logger logger = LoggerFactory.getLogger(DbSyncDataFetcher.class);
+    private static final String ACCOUNT_REGISTRATION_STATE_FILE = "account-registration-state.bin.gz";
+
     @Autowired(required = false)
     private DbSyncDataProvider dbSyncDataProvider;
 
+    @Autowired(required = false)
+    private DbSyncAccountRegistrationReader dbSyncAccountRegistrationReader;
+
     @Autowired(required = false)
     private JsonDataProvider jsonDataProvider;
 
@@ -40,6 +50,70 @@ public class DbSyncDataFetcher implements DataFetcher {
     @Value("${json.data-provider.source}")
     private String sourceFolder;
 
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @Value("${json.data-fetcher.incremental:false}")
+    private boolean incremental;
+
+    private AccountRegistrationState accountRegistrationState;
+
+    /*
+     * Fetches the epochs from the start epoch up to the end epoch (exclusive) with up to parallelism
+     * epochs at the same time. A fetch runs its queries one after another on one connection, so the
+     * number of workers is bounded by the size of the connection pool. Epochs that fail are logged
+     * and do not stop the other epochs, they are returned once the other epochs are done. An
+     * incremental fetch advances the account registration state epoch by epoch and fetches one epoch
+     * at a time.
+     */
+    public List<Integer> fetch(int startEpoch, int endEpoch, boolean override, boolean skipValidationData, NetworkConfig networkConfig,
+                      int parallelism) {
+        if (incremental && parallelism > 1) {
+            logger.info("Fetching one epoch at a time, the account registration state is advanced epoch by epoch");
+            parallelism = 1;
+        }
+        int workers = Math.max(1, Math.min(Math.min(parallelism, connectionPoolSize), endEpoch - startEpoch));
+        logger.info("Fetching the epochs " + startEpoch + " to " + (endEpoch - 1) + " with " + workers + " workers");
+
+        Map<Integer, Future<?>> fetches = new LinkedHashMap<>();
+        List<Integer> failedEpochs = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            for (int epoch = startEpoch; epoch < endEpoch; epoch++) {
+                final int epochToFetch = epoch;
+                fetches.put(epoch, executor.submit(() -> {
+                    logger.info("Fetching data for epoch with the DB sync data provider " + epochToFetch);
+                    fetch(epochToFetch, override, skipValidationData, networkConfig);
+                }));
+            }
+
+            for (Map.Entry<Integer, Future<?>> fetch : fetches.entrySet()) {
+                try {
+                    fetch.getValue().get();
+                } catch (ExecutionException e) {
+                    logger.error("Failed to fetch epoch " + fetch.getKey(), e.getCause());
+                    failedEpochs.add(fetch.getKey());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while fetching epochs");
+            // The epochs that have not been fetched yet are cancelled by the shutdown
+            fetches.forEach((epoch, fetch) -> {
+                if (!fetch.isDone() && !failedEpochs.contains(epoch)) {
+                    failedEpochs.add(epoch);
+                }
+            });
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (!failedEpochs.isEmpty()) {
+            logger.error("Failed to fetch the epochs " + failedEpochs);
+        }
+        return failedEpochs;
+    }
+
     @Override
     public void fetch(int epoch, boolean override, boolean skipValidationData, NetworkConfig networkConfig) {
         String filePath = String.format("%s/epoch-validation-input-%d.json.gz", sourceFolder, epoch);
@@ -90,12 +164,13 @@ public class DbSyncDataFetcher implements DataFetcher {
         retiredPools = dbSyncDataProvider.getRetiredPoolsInEpoch(epoch);
         Set<String> rewardAddressesOfRetiredPoolsInEpoch = retiredPools.stream().map(RetiredPool::getRewardAddress).collect(Collectors.toSet());
 
+        AccountRegistrationState accountRegistrationState = incremental ? getAccountRegistrationStateAfter(epoch - 2) : null;
         if (epoch - 2 < networkConfig.getVasilHardforkEpoch()) {
-            deregisteredAccounts = dbSyncDataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getRandomnessStabilisationWindow());
-            deregisteredAccountsOnEpochBoundary = dbSyncDataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getExpectedSlotsPerEpoch());
+            deregisteredAccounts = getDeregisteredAccountsInEpoch(accountRegistrationState, epoch - 1, networkConfig.getRandomnessStabilisationWindow());
+            deregisteredAccountsOnEpochBoundary = getDeregisteredAccountsInEpoch(accountRegistrationState, epoch - 1, networkConfig.getExpectedSlotsPerEpoch());
             lateDeregisteredAccounts = deregisteredAccountsOnEpochBoundary.stream().filter(account -> !deregisteredAccounts.contains(account)).collect(Collectors.toCollection(HashSet::new));
         } else {
-            deregisteredAccounts = dbSyncDataProvider.getDeregisteredAccountsInEpoch(epoch - 1, networkConfig.getExpectedSlotsPerEpoch());
+            deregisteredAccounts = getDeregisteredAccountsInEpoch(accountRegistrationState, epoch - 1, networkConfig.getExpectedSlotsPerEpoch());
             deregisteredAccountsOnEpochBoundary = deregisteredAccounts;
         }
 
@@ -114,8 +189,17 @@ public class DbSyncDataFetcher implements DataFetcher {
             stabilityWindow = networkConfig.getExpectedSlotsPerEpoch();
         }
 
-        HashSet<String> registeredAccountsSinceLastEpoch = dbSyncDataProvider.getRegisteredAccountsUntilLastEpoch(epoch, poolRewardAddresses, stabilityWindow);
-        HashSet<String> registeredAccountsUntilNow = dbSyncDataProvider.getRegisteredAccountsUntilNow(epoch, poolRewardAddresses, stabilityWindow);
+        HashSet<String> registeredAccountsSinceLastEpoch;
+        HashSet<String> registeredAccountsUntilNow;
+        if (accountRegistrationState != null) {
+            registeredAccountsSinceLastEpoch = accountRegistrationState.getRegisteredAccounts(poolRewardAddresses,
+                    readAccountRegistrationChanges(accountRegistrationState, epoch - 1, stabilityWindow));
+            registeredAccountsUntilNow = accountRegistrationState.getRegisteredAccounts(poolRewardAddresses,
+                    readAccountRegistrationChanges(accountRegistrationState, epoch, stabilityWindow));
+        } else {
+            registeredAccountsSinceLastEpoch = dbSyncDataProvider.getRegisteredAccountsUntilLastEpoch(epoch, poolRewardAddresses, stabilityWindow);
+            registeredAccountsUntilNow = dbSyncDataProvider.getRegisteredAccountsUntilNow(epoch, poolRewardAddresses, stabilityWindow);
+        }
 
         HashSet<Reward> memberRewardsInEpoch = dbSyncDataProvider.getMemberRewardsInEpoch(epoch - 2);
         HashSet<PoolReward> totalPoolRewardsInEpoch = dbSyncDataProvider.getTotalPoolRewardsInEpoch(epoch - 2);
@@ -166,4 +250,64 @@ public class DbSyncDataFetcher implements DataFetcher {
             logger.error("Failed to write epoch validation input data to json file for epoch " + epoch);
         }
     }
+
+    private HashSet<String> getDeregisteredAccountsInEpoch(AccountRegistrationState accountRegistrationState, int epoch, long stabilityWindow) {
+        if (accountRegistrationState == null) {
+            return dbSyncDataProvider.getDeregisteredAccountsInEpoch(epoch, stabilityWindow);
+        }
+        return accountRegistrationState.getDeregisteredAccounts(readAccountRegistrationChanges(accountRegistrationState, epoch, stabilityWindow));
+    }
+
+    /*
+     * Reads the registrations and deregistrations after the last applied epoch of the state up to the slot of the epoch.
+     */
+    private AccountRegistrationState readAccountRegistrationChanges(AccountRegistrationState accountRegistrationState, int epoch, long slot) {
+        AccountRegistrationState changes = new AccountRegistrationState(accountRegistrationState.getLastAppliedEpoch());
+        dbSyncAccountRegistrationReader.readCertificatesInRange(accountRegistrationState.getLastAppliedEpoch(), epoch, slot,
+                changes::addRegistration, changes::addDeregistration);
+        return changes;
+    }
+
+    /*
+     * Returns the account registration state after the given epoch. The state is read from the source folder and
+     * advanced by the certificates of the epochs since it has been written, the first incremental fetch reads the
+     * whole history once. Returns null, so that the accounts are fetched from the whole history, if the state is
+     * past the epoch or cannot be read.
+     */
+    private synchronized AccountRegistrationState getAccountRegistrationStateAfter(int epoch) {
+        Path path = Path.of(sourceFolder, ACCOUNT_REGISTRATION_STATE_FILE);
+        try {
+            if (accountRegistrationState == null) {
+                accountRegistrationState = Files.exists(path) ? AccountRegistrationState.read(path) : new AccountRegistrationState(-1);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read the account registration state, fetching the accounts of epoch " + (epoch + 2) + " from the whole history: " + e.getMessage());
+            return null;
+        }
+
+        int lastAppliedEpoch = accountRegistrationState.getLastAppliedEpoch();
+        if (lastAppliedEpoch > epoch) {
+            logger.info("The account registration state is past epoch " + epoch + ", fetching the accounts of epoch " + (epoch + 2) + " from the whole history");
+            return null;
+        }
+
+        if (lastAppliedEpoch < epoch) {
+            logger.info("Advancing the account registration state from epoch " + lastAppliedEpoch + " to epoch " + epoch);
+            try {
+                dbSyncAccountRegistrationReader.readCertificatesInRange(lastAppliedEpoch, epoch + 1, 0,
+                        accountRegistrationState::addRegistration, accountRegistrationState::addDeregistration);
+            } catch (RuntimeException e) {
+                // The state may contain a part of the certificates, it is read from the file again by the next fetch
+                accountRegistrationState = null;
+                throw e;
+            }
+            accountRegistrationState.setLastAppliedEpoch(epoch);
+            try {
+                accountRegistrationState.write(path);
+            } catch (IOException e) {
+                logger.error("Failed to write the account registration state after epoch " + epoch + ": " + e.getMessage());
+            }
+        }
+        return accountRegistrationState;
+    }
 }
@@ -0,0 +1,259 @@
+package org.cardanofoundation.rewards.validation.data.generator;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.Delegator;
+import org.cardanofoundation.rewards.calculation.domain.MirCertificate;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.calculation.domain.RetiredPool;
+import org.cardanofoundation.rewards.calculation.enums.MirPot;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+
+/*
+ * Generates mainnet-like epochs of arbitrary size to load test the calculation. The same seed,
+ * epoch and sizes always result in the same EpochValidationInput.
+ *
+ * Distributions:
+ *  - Delegators choose a pool by a Zipf distribution over the pool rank, so that a few pools are
+ *    saturated and most pools are small.
+ *  - Delegator stakes follow a Pareto distribution (the continuous counterpart of Zipf) starting
+ *    at 1000 ada, capped at 50M ada.
+ *  - Every pool has one owner account delegating at least the pledge to the pool, in addition to
+ *    the delegators. Some owners do not meet the pledge.
+ *  - Most pools use the minimum pool cost and a margin between 0% and 5%, a few are private pools
+ *    with a margin of 100%.
+ *  - About 1% of the delegators deregister during the epoch. Before the Vasil hard fork a third of
+ *    them deregister after the randomness stabilisation window.
+ *  - About 3% of the pool reward addresses have never been registered, about 0.5% of the pools
+ *    retire in the epoch and some epochs contain MIR certificates.
+ *  - Blocks are distributed by a Poisson distribution around the expected blocks of each pool.
+ *
+ * The generated input does not contain actual rewards (poolRewards is empty).
+ */
+public class SyntheticEpochGenerator {
+
+    private static final String BECH32_CHARSET = "qpzry9x8gf2tvdw0s3jn54khce6mua7l";
+    private static final int STAKE_ADDRESS_DATA_LENGTH = 52;
+    private static final int POOL_ID_DATA_LENGTH = 51;
+
+    private static final double POOL_SIZE_ZIPF_EXPONENT = 1.1;
+    private static final double STAKE_PARETO_ALPHA = 1.1;
+    private static final long MIN_DELEGATOR_STAKE = 1_000_000_000L;
+    private static final long MAX_DELEGATOR_STAKE = 50_000_000_000_000L;
+    private static final long MIN_POOL_COST = 170_000_000L;
+
+    private final long seed;
+    private final NetworkConfig networkConfig;
+
+    public SyntheticEpochGenerator(final long seed, final NetworkConfig networkConfig) {
+        this.seed = seed;
+        this.networkConfig = networkConfig;
+    }
+
+    public EpochValidationInput generate(final int epoch, final int poolCount, final int delegatorCount) {
+        final SplittableRandom random = new SplittableRandom(seed * 1_000_003L + epoch);
+        final int earnedEpoch = epoch - 2;
+        final boolean beforeVasil = earnedEpoch < networkConfig.getVasilHardforkEpoch();
+
+        final List<HashSet<Delegator>> delegatorsOfPools = new ArrayList<>(poolCount);
+        for (int i = 0; i < poolCount; i++) {
+            delegatorsOfPools.add(new HashSet<>());
+        }
+        final long[] poolStakes = new long[poolCount];
+        final double[] cumulativePoolWeights = cumulativeZipfWeights(poolCount);
+
+        final HashSet<String> deregisteredAccounts = new HashSet<>();
+        final HashSet<String> lateDeregisteredAccounts = new HashSet<>();
+
+        for (int i = 0; i < delegatorCount; i++) {
+            final int poolIndex = sampleIndex(cumulativePoolWeights, random.nextDouble());
+            final long stake = sampleDelegatorStake(random);
+            final String stakeAddress = randomBech32("stake1u", STAKE_ADDRESS_DATA_LENGTH, random);
+
+            delegatorsOfPools.get(poolIndex).add(Delegator.builder()
+                    .stakeAddress(stakeAddress)
+                    .activeStake(BigInteger.valueOf(stake))
+                    .build());
+            poolStakes[poolIndex] += stake;
+
+            if (random.nextInt(100) == 0) {
+                if (beforeVasil && random.nextInt(3) == 0) {
+                    lateDeregisteredAccounts.add(stakeAddress);
+                } else {
+                    deregisteredAccounts.add(stakeAddress);
+                }
+            }
+        }
+
+        final String[] poolIds = new String[poolCount];
+        final String[] rewardAddresses = new String[poolCount];
+        final BigInteger[] pledges = new BigInteger[poolCount];
+        final BigInteger[] ownerActiveStakes = new BigInteger[poolCount];
+        long totalActiveStake = 0;
+        for (int i = 0; i < poolCount; i++) {
+            poolIds[i] = randomBech32("pool1", POOL_ID_DATA_LENGTH, random);
+            rewardAddresses[i] = randomBech32("stake1u", STAKE_ADDRESS_DATA_LENGTH, random);
+            pledges[i] = BigInteger.valueOf((long) Math.pow(10, 9 + random.nextDouble() * 4));
+            // Some owners do not meet their pledge and the pool does not receive any rewards
+            ownerActiveStakes[i] = random.nextInt(20) == 0 ? pledges[i].shiftRight(1) : pledges[i];
+
+            delegatorsOfPools.get(i).add(Delegator.builder()
+                    .stakeAddress(rewardAddresses[i])
+                    .activeStake(ownerActiveStakes[i])
+                    .build());
+            poolStakes[i] += ownerActiveStakes[i].longValue();
+            totalActiveStake += poolStakes[i];
+        }
+
+        final int expectedBlocks = (int) (networkConfig.getExpectedSlotsPerEpoch() * networkConfig.getActiveSlotCoefficient());
+        final HashSet<PoolState> poolStates = new HashSet<>();
+        final HashSet<String> registeredAccounts = new HashSet<>();
+        final Set<RetiredPool> retiredPools = new HashSet<>();
+        int blockCount = 0;
+
+        for (int i = 0; i < poolCount; i++) {
+            final String poolId = poolIds[i];
+            final String rewardAddress = rewardAddresses[i];
+            final double relativeStake = (double) poolStakes[i] / totalActiveStake;
+            final int poolBlocks = samplePoisson(relativeStake * expectedBlocks, random);
+
+            if (random.nextInt(100) >= 3) {
+                registeredAccounts.add(rewardAddress);
+            }
+
+            poolStates.add(PoolState.builder()
+                    .poolId(poolId)
+                    .epoch(earnedEpoch)
+                    .rewardAddress(rewardAddress)
+                    .owners(new HashSet<>(List.of(rewardAddress)))
+                    .ownerActiveStake(ownerActiveStakes[i])
+                    .activeStake(BigInteger.valueOf(poolStakes[i]))
+                    .pledge(pledges[i])
+                    .fixedCost(samplePoolCost(random))
+                    .margin(samplePoolMargin(random))
+                    .blockCount(poolBlocks)
+                    .delegators(delegatorsOfPools.get(i))
+                    .build());
+
+            if (random.nextInt(200) == 0) {
+                retiredPools.add(RetiredPool.builder()
+                        .poolId(poolId)
+                        .rewardAddress(rewardAddress)
+                        .depositAmount(networkConfig.getPoolDepositInLovelace())
+                        .build());
+            }
+
+            blockCount += poolBlocks;
+        }
+
+        final HashSet<MirCertificate> mirCertificates = new HashSet<>();
+        final int mirCertificateCount = random.nextInt(10) == 0 ? 1 + random.nextInt(3) : 0;
+        for (int i = 0; i < mirCertificateCount; i++) {
+            mirCertificates.add(MirCertificate.builder()
+                    .pot(random.nextBoolean() ? MirPot.TREASURY : MirPot.RESERVES)
+                    .totalRewards(BigInteger.valueOf(1_000_000L + random.nextLong(10_000_000_000_000L)))
+                    .build());
+        }
+
+        final HashSet<String> deregisteredAccountsOnEpochBoundary = new HashSet<>(deregisteredAccounts);
+        deregisteredAccountsOnEpochBoundary.addAll(lateDeregisteredAccounts);
+
+        return EpochValidationInput.builder()
+                .epoch(epoch)
+                .treasuryOfPreviousEpoch(BigInteger.valueOf(1_000_000_000_000_000L + random.nextLong(500_000_000_000_000L)))
+                .reservesOfPreviousEpoch(BigInteger.valueOf(8_000_000_000_000_000L + random.nextLong(1_000_000_000_000_000L)))
+                .decentralisation(BigDecimal.ZERO)
+                .treasuryGrowRate(new BigDecimal("0.2"))
+                .monetaryExpandRate(new BigDecimal("0.003"))
+                .optimalPoolCount(500)
+                .poolOwnerInfluence(new BigDecimal("0.3"))
+                .fees(BigInteger.valueOf(20_000_000_000L + random.nextLong(80_000_000_000L)))
+                .blockCount(blockCount)
+                .nonOBFTBlockCount(blockCount)
+                .activeStake(BigInteger.valueOf(totalActiveStake))
+                .retiredPools(retiredPools)
+                .deregisteredAccounts(deregisteredAccounts)
+                .lateDeregisteredAccounts(lateDeregisteredAccounts)
+                .registeredAccountsSinceLastEpoch(registeredAccounts)
+                .registeredAccountsUntilNow(new HashSet<>(registeredAccounts))
+                .sharedPoolRewardAddressesWithoutReward(new HashSet<>())
+                .deregisteredAccountsOnEpochBoundary(deregisteredAccountsOnEpochBoundary)
+                .poolStates(poolStates)
+                .mirCertificates(mirCertificates)
+                .poolRewards(new HashSet<>())
+                .build();
+    }
+
+    private static double[] cumulativeZipfWeights(final int count) {
+        final double[] cumulativeWeights = new double[count];
+        double sum = 0;
+        for (int rank = 1; rank <= count; rank++) {
+            sum += 1.0 / Math.pow(rank, POOL_SIZE_ZIPF_EXPONENT);
+            cumulativeWeights[rank - 1] = sum;
+        }
+        for (int i = 0; i < count; i++) {
+            cumulativeWeights[i] /= sum;
+        }
+        return cumulativeWeights;
+    }
+
+    private static int sampleIndex(final double[] cumulativeWeights, final double value) {
+        final int index = Arrays.binarySearch(cumulativeWeights, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeWeights.length - 1);
+    }
+
+    private static long sampleDelegatorStake(final SplittableRandom random) {
+        final double stake = MIN_DELEGATOR_STAKE / Math.pow(1.0 - random.nextDouble(), 1.0 / STAKE_PARETO_ALPHA);
+        return (long) Math.min(stake, MAX_DELEGATOR_STAKE);
+    }
+
+    private static BigInteger samplePoolCost(final SplittableRandom random) {
+        if (random.nextInt(10) < 7) {
+            return BigInteger.valueOf(MIN_POOL_COST);
+        }
+        return BigInteger.valueOf(MIN_POOL_COST + random.nextInt(830) * 1_000_000L);
+    }
+
+    private static BigDecimal samplePoolMargin(final SplittableRandom random) {
+        final int category = random.nextInt(100);
+        if (category < 2) {
+            return BigDecimal.ONE;
+        } else if (category < 30) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(random.nextInt(500), 4);
+    }
+
+    /*
+     * Knuth's algorithm for small means, a normal approximation for large means.
+     */
+    private static int samplePoisson(final double mean, final SplittableRandom random) {
+        if (mean <= 0) {
+            return 0;
+        } else if (mean > 30) {
+            final double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+            return (int) Math.max(0, Math.round(mean + Math.sqrt(mean) * gaussian));
+        }
+
+        final double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static String randomBech32(final String prefix, final int length, final SplittableRandom random) {
+        final StringBuilder builder = new StringBuilder(prefix.length() + length);
+        builder.append(prefix);
+        for (int i = 0; i < length; i++) {
+            builder.append(BECH32_CHARSET.charAt(random.nextInt(BECH32_CHARSET.length())));
+        }
+        return builder.toString();
+    }
+}
@@ -13,7 +13,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,12 +37,27 @@ public class CsvDataPlotter implements DataPlotter {
         List<HashMap<String, String>> data = new ArrayList<>();
         for (int epoch = epochStart; epoch < epochEnd; epoch++) {
             HashMap<String, String> row = new HashMap<>();
-            boolean detailedValidation = false;
 
-            EpochValidationInput epochValidationInput = jsonDataProvider.getEpochValidationInput(epoch);
-            HashSet<String> poolIds = epochValidationInput.getPoolStates().stream().map(PoolState::getPoolId).collect(Collectors.toCollection(HashSet::new));
-            EpochCalculationResult epochCalculationResult = EpochValidation.calculateEpochRewardPots(epoch,
-                    jsonDataProvider, detailedValidation,networkConfig);
+            EpochValidationInput epochValidationInput;
+            EpochCalculationResult epochCalculationResult;
+            HashSet<String> poolIds;
+            if (jsonDataProvider.isReadAheadEnabled()) {
+                epochValidationInput = jsonDataProvider.getEpochValidationInput(epoch);
+                poolIds = epochValidationInput.getPoolStates().stream().map(PoolState::getPoolId).collect(Collectors.toCollection(HashSet::new));
+                epochCalculationResult = EpochValidation.calculateEpochRewardPots(epoch, epochValidationInput, networkConfig, (ForkJoinPool) null);
+            } else {
+                // The epoch fields are read once and the pools are streamed once, the epoch is never loaded completely
+                HashSet<String> calculatedPoolIds = new HashSet<>();
+                try {
+                    epochValidationInput = jsonDataProvider.readEpochValidationInputWithoutPools(epoch);
+                    epochCalculationResult = EpochValidation.calculateEpochRewardPots(epoch, epochValidationInput,
+                            jsonDataProvider.getPreferredEpochValidationInputFilePath(epoch), networkConfig,
+                            poolRewardCalculationResult -> calculatedPoolIds.add(poolRewardCalculationResult.getPoolId()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to read the epoch validation input of epoch " + epoch, e);
+                }
+                poolIds = calculatedPoolIds;
+            }
 
             row.put("epoch", String.valueOf(epoch));
             row.put("reserves", String.valueOf(epochCalculationResult.getReserves()));
@@ -0,0 +1,50 @@
+package org.cardanofoundation.rewards.validation.data.provider;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * The shared threads the data provider calls of an epoch run on (see EpochValidation). Each call of
+ * the db-sync data provider holds a database connection while it runs, so the number of threads is
+ * bounded by the size of the connection pool and by MAX_THREADS, the most calls an epoch has that
+ * do not depend on each other.
+ */
+@Component
+public class DataProviderExecutor implements Executor {
+
+    public static final int MAX_THREADS = 8;
+
+    private final int threadCount;
+    private final ExecutorService executor;
+
+    public DataProviderExecutor(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize) {
+        this.threadCount = Math.max(1, Math.min(MAX_THREADS, connectionPoolSize));
+
+        final AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "epoch-data-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -16,8 +16,10 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -35,6 +37,9 @@ public class DbSyncDataProvider implements DataProvider {
     @Autowired
     DbSyncEpochStakeRepository dbSyncEpochStakeRepository;
 
+    @Autowired
+    DbSyncEpochStakeReader dbSyncEpochStakeReader;
+
     @Autowired
     DbSyncPoolUpdateRepository dbSyncPoolUpdateRepository;
 
@@ -106,101 +111,75 @@ public class DbSyncDataProvider implements DataProvider {
         return ProtocolParametersMapper.fromDbSyncProtocolParameters(dbSyncProtocolParameters);
     }
 
-    public List<PoolState> fetchPoolHistoryInBatches(Integer epoch, int batchSize, List<PoolBlock> blocksMadeByPoolsInEpoch) {
+    /*
+     * Fetches the state of all pools that made blocks in the epoch with a single query over the epoch stakes,
+     * which is read with a cursor and returns the delegators ordered by pool. The pool states are built in
+     * one pass over the stakes, while the blocks, updates and owners are looked up by pool id. The
+     * delegators of the pools are held as DelegatorStakes of a dictionary shared by the pools of the epoch.
+     */
+    public List<PoolState> fetchPoolHistory(Integer epoch, List<PoolBlock> blocksMadeByPoolsInEpoch) {
         List<PoolState> poolHistories = new ArrayList<>();
-        List<String> poolIds = blocksMadeByPoolsInEpoch.stream()
-                .map(PoolBlock::getPoolId)
-                .distinct()
-                .toList();
+        Map<String, Integer> blockCounts = new HashMap<>();
+        for (PoolBlock poolBlock : blocksMadeByPoolsInEpoch) {
+            blockCounts.putIfAbsent(poolBlock.getPoolId(), poolBlock.getBlockCount());
+        }
+        List<String> poolIds = new ArrayList<>(blockCounts.keySet());
 
-        HashSet<LatestPoolUpdate> latestUpdates = dbSyncPoolUpdateRepository.findLatestActiveUpdatesInEpoch(epoch, poolIds);
+        Map<String, LatestPoolUpdate> latestUpdates = new HashMap<>();
+        for (LatestPoolUpdate latestUpdate : dbSyncPoolUpdateRepository.findLatestActiveUpdatesInEpoch(epoch, poolIds)) {
+            latestUpdates.putIfAbsent(latestUpdate.getPoolId(), latestUpdate);
+        }
 
-        List<Long> updateIds = latestUpdates.stream()
+        List<Long> updateIds = latestUpdates.values().stream()
                 .map(LatestPoolUpdate::getId)
                 .toList();
 
-        List<PoolOwner> owners = dbSyncPoolOwnerRepository.getOwnersByPoolUpdateIds(updateIds);
-        List<List<String>> poolIdBatches = new ArrayList<>();
-
-        for (int i = 0; i < poolIds.size(); i += batchSize) {
-            int end = Math.min(i + batchSize, poolIds.size());
-            List<String> batch = poolIds.subList(i, end);
-            poolIdBatches.add(batch);
+        Map<String, HashSet<String>> owners = new HashMap<>();
+        for (PoolOwner owner : dbSyncPoolOwnerRepository.getOwnersByPoolUpdateIds(updateIds)) {
+            owners.computeIfAbsent(owner.getPoolId(), poolId -> new HashSet<>()).add(owner.getStakeAddress());
         }
 
-        int i = 0;
-        int batches = poolIdBatches.size();
-        for (List<String> poolIdBatch : poolIdBatches) {
-            log.info("fetching pool history batch " + i + " / " + batches + " for epoch " + epoch + " with " + poolIdBatch.size() + " pools");
-            HashSet<PoolEpochStake> poolEpochStakes = dbSyncEpochStakeRepository.getAllPoolsActiveStakesInEpoch(epoch, poolIdBatch);
-
-            for (String poolId : poolIdBatch) {
-                PoolState poolState = new PoolState();
-
-                HashSet<Delegator> delegators = poolEpochStakes.stream()
-                        .filter(epochStake -> epochStake.getPoolId().equals(poolId))
-                        .map(DelegatorMapper::fromPoolEpochStake)
-                        .collect(Collectors.toCollection(HashSet::new));
-
-                if (!delegators.isEmpty()) {
-                    BigInteger activeStake = delegators.stream()
-                            .map(Delegator::getActiveStake)
-                            .reduce(BigInteger::add)
-                            .orElse(BigInteger.ZERO);
-
-                    poolState.setActiveStake(activeStake);
-                    poolState.setDelegators(delegators);
-
-                    Integer blockCount = blocksMadeByPoolsInEpoch.stream()
-                            .filter(poolBlocks -> poolBlocks.getPoolId().equals(poolId))
-                            .map(PoolBlock::getBlockCount)
-                            .findFirst()
-                            .orElse(0);
-                    poolState.setBlockCount(blockCount);
-
-                    LatestPoolUpdate latestUpdate = latestUpdates.stream()
-                            .filter(update -> update.getPoolId().equals(poolId))
-                            .findFirst()
-                            .orElse(null);
-
-                    if (latestUpdate == null) {
-                        log.info("No update for pool " + poolId + " in epoch " + epoch);
-                        continue;
-                    }
-
-                    poolState.setFixedCost(latestUpdate.getFixedCost());
-                    poolState.setMargin(latestUpdate.getMargin());
-                    poolState.setRewardAddress(latestUpdate.getRewardAddress());
-                    poolState.setPledge(latestUpdate.getPledge());
-                    poolState.setEpoch(epoch);
-                    poolState.setPoolId(poolId);
-
-
-                    HashSet<String> poolOwnerStakeAddresses = owners.stream()
-                            .filter(owner -> owner.getPoolId().equals(poolId)).map(PoolOwner::getStakeAddress).collect(Collectors.toCollection(HashSet::new));
-
-                    BigInteger poolOwnerActiveStake = BigInteger.ZERO;
-                    for (Delegator delegator : delegators) {
-                        if (poolOwnerStakeAddresses.contains(delegator.getStakeAddress())) {
-                            poolOwnerActiveStake = poolOwnerActiveStake.add(delegator.getActiveStake());
-                        }
-                    }
-
-                    poolState.setOwners(poolOwnerStakeAddresses);
-                    poolState.setOwnerActiveStake(poolOwnerActiveStake);
-
-                    poolHistories.add(poolState);
+        log.info("fetching pool history of " + poolIds.size() + " pools for epoch " + epoch);
+        StakeAddressDictionary stakeAddressDictionary = new StakeAddressDictionary();
+        dbSyncEpochStakeReader.readPoolActiveStakesInEpoch(epoch, poolIds, stakeAddressDictionary, (poolId, delegatorStakes, activeStake) -> {
+            LatestPoolUpdate latestUpdate = latestUpdates.get(poolId);
+            if (latestUpdate == null) {
+                log.info("No update for pool " + poolId + " in epoch " + epoch);
+                return;
+            }
+
+            PoolState poolState = new PoolState();
+            poolState.setActiveStake(BigInteger.valueOf(activeStake));
+            poolState.replaceDelegators(delegatorStakes);
+            poolState.setBlockCount(blockCounts.getOrDefault(poolId, 0));
+            poolState.setFixedCost(latestUpdate.getFixedCost());
+            poolState.setMargin(latestUpdate.getMargin());
+            poolState.setRewardAddress(latestUpdate.getRewardAddress());
+            poolState.setPledge(latestUpdate.getPledge());
+            poolState.setEpoch(epoch);
+            poolState.setPoolId(poolId);
+
+            HashSet<String> poolOwnerStakeAddresses = owners.getOrDefault(poolId, new HashSet<>());
+            long poolOwnerActiveStake = 0;
+            DelegatorStakes.Cursor delegator = delegatorStakes.cursor();
+            while (delegator.next()) {
+                if (poolOwnerStakeAddresses.contains(delegator.getStakeAddress())) {
+                    poolOwnerActiveStake += delegator.getActiveStake();
                 }
             }
-            i++;
-        }
+
+            poolState.setOwners(poolOwnerStakeAddresses);
+            poolState.setOwnerActiveStake(BigInteger.valueOf(poolOwnerActiveStake));
+
+            poolHistories.add(poolState);
+        });
 
         return poolHistories;
     }
 
     @Override
     public List<PoolState> getHistoryOfAllPoolsInEpoch(int epoch, List<PoolBlock> blocksMadeByPoolsInEpoch) {
-        return fetchPoolHistoryInBatches(epoch, 20, blocksMadeByPoolsInEpoch);
+        return fetchPoolHistory(epoch, blocksMadeByPoolsInEpoch);
     }
 
     @Override
@@ -253,40 +232,62 @@ public class DbSyncDataProvider implements DataProvider {
         return poolState;
     }
 
+    /*
+     * Resolves the pools retiring in the epoch with a few set-based queries. The latest retirement of each pool
+     * announced for the epoch is a candidate, which is cancelled by a later update of the pool registered before
+     * the epoch or by a later retirement announced before the epoch for another epoch.
+     */
     @Override
     public Set<RetiredPool> getRetiredPoolsInEpoch(int epoch) {
-        List<DbSyncPoolRetirement> poolDeregistrations = dbSyncPoolRetirementRepository.getPoolRetirementsByEpoch(epoch);
+        Map<String, Long> announcedTransactionIds = new HashMap<>();
+        for (LatestPoolRetirement poolRetirement : dbSyncPoolRetirementRepository.getLatestPoolRetirementsByEpoch(epoch)) {
+            announcedTransactionIds.put(poolRetirement.getPoolId(), poolRetirement.getAnnouncedTransactionId());
+        }
+
         Set<RetiredPool> retiredPools = new HashSet<>();
+        if (announcedTransactionIds.isEmpty()) {
+            return retiredPools;
+        }
 
-        for (DbSyncPoolRetirement poolDeregistration : poolDeregistrations) {
-            boolean poolDeregistrationLaterInEpoch = poolDeregistrations.stream().anyMatch(
-                    deregistration -> deregistration.getPool().getBech32PoolId().equals(poolDeregistration.getPool().getBech32PoolId()) &&
-                            deregistration.getAnnouncedTransaction().getId() > poolDeregistration.getAnnouncedTransaction().getId()
-            );
+        Set<String> poolIds = announcedTransactionIds.keySet();
+        Map<String, Long> updateTransactionIds = new HashMap<>();
+        for (LatestPoolUpdateTransaction updateTransaction : dbSyncPoolUpdateRepository.findLatestUpdateTransactionsInEpoch(poolIds, epoch - 1)) {
+            updateTransactionIds.put(updateTransaction.getPoolId(), updateTransaction.getRegisteredTransactionId());
+        }
 
-            // To prevent double counting, we only count the pool deregistration if there is no other deregistration
-            // for the same pool later in the epoch
-            if (poolDeregistrationLaterInEpoch) {
-                continue;
-            }
+        Map<String, Integer> retiringEpochs = new HashMap<>();
+        for (LatestPoolRetirement poolRetirement : dbSyncPoolRetirementRepository.latestPoolRetirementsUntilEpoch(poolIds, epoch - 1)) {
+            retiringEpochs.put(poolRetirement.getPoolId(), poolRetirement.getRetiringEpoch());
+        }
 
-            List<PoolUpdate> poolUpdates = this.getPoolUpdateAfterTransactionIdInEpoch(poolDeregistration.getPool().getBech32PoolId(),
-                    poolDeregistration.getAnnouncedTransaction().getId(), epoch - 1);
+        Map<String, LatestPoolDeposit> latestDeposits = new HashMap<>();
+        for (LatestPoolDeposit latestDeposit : dbSyncPoolUpdateRepository.findLatestDepositsInEpoch(poolIds, epoch)) {
+            latestDeposits.put(latestDeposit.getPoolId(), latestDeposit);
+        }
+
+        for (Map.Entry<String, Long> announcedTransactionId : announcedTransactionIds.entrySet()) {
+            String poolId = announcedTransactionId.getKey();
 
             // There is an update after the deregistration, so the pool has not been retired
-            if (poolUpdates.size() == 0) {
-                DbSyncPoolRetirement latestPoolRetirementUntilEpoch = dbSyncPoolRetirementRepository.latestPoolRetirementUntilEpoch(poolDeregistration.getPool().getBech32PoolId(), epoch - 1);
-                if (latestPoolRetirementUntilEpoch != null && latestPoolRetirementUntilEpoch.getRetiringEpoch() != epoch) {
-                    // The pool was retired in a previous epoch for the next epoch, but another deregistration was announced and changed the
-                    // retirement epoch to something else. This means the pool was not retired in this epoch.
-                    continue;
-                }
+            Long updateTransactionId = updateTransactionIds.get(poolId);
+            if (updateTransactionId != null && updateTransactionId > announcedTransactionId.getValue()) {
+                continue;
+            }
 
-                DbSyncPoolUpdate dbSyncPoolUpdate = dbSyncPoolUpdateRepository.findLatestUpdateInEpoch(poolDeregistration.getPool().getBech32PoolId(), epoch);
-                var retiredPool = new RetiredPool(dbSyncPoolUpdate.getPool().getBech32PoolId(), dbSyncPoolUpdate.getStakeAddress().getView(),
-                        dbSyncPoolUpdate.getDeposit());
-                retiredPools.add(retiredPool);
+            Integer retiringEpoch = retiringEpochs.get(poolId);
+            if (retiringEpoch != null && retiringEpoch != epoch) {
+                // The pool was retired in a previous epoch for the next epoch, but another deregistration was announced and changed the
+                // retirement epoch to something else. This means the pool was not retired in this epoch.
+                continue;
             }
+
+            LatestPoolDeposit latestDeposit = latestDeposits.get(poolId);
+            if (latestDeposit == null) {
+                log.warn("No registration for retiring pool " + poolId + " in epoch " + epoch);
+                continue;
+            }
+
+            retiredPools.add(new RetiredPool(poolId, latestDeposit.getRewardAddress(), latestDeposit.getDeposit()));
         }
 
         return retiredPools;
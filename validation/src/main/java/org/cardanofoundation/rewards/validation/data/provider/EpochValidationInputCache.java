@@ -0,0 +1,161 @@
+package org.cardanofoundation.rewards.validation.data.provider;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputFootprint;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Keeps the least recently used epochs in memory, as long as their estimated heap footprint (see
+ * EpochValidationInputFootprint) stays below the memory cap. The most recently loaded epoch is always
+ * kept, even if it exceeds the cap on its own. The hits and misses are counted to tell whether the
+ * cap fits the access pattern of a run.
+ *
+ * The cache is thread safe. Cached epochs are returned without locking. An epoch that is requested
+ * by several threads at the same time is loaded once, the other threads wait for it. Only evicting
+ * epochs is serialized.
+ */
+@Slf4j
+public class EpochValidationInputCache {
+
+    private final long memoryCap;
+    private final Map<Integer, CachedEpoch> cachedEpochs = new ConcurrentHashMap<>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong retainedMemory = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private class CachedEpoch {
+        private final CompletableFuture<EpochValidationInput> epochValidationInput = new CompletableFuture<>();
+        private volatile long lastAccess = clock.incrementAndGet();
+        // Zero until the loaded epoch is counted against the memory cap
+        private volatile long footprint;
+    }
+
+    public EpochValidationInputCache(long memoryCap) {
+        this.memoryCap = memoryCap;
+    }
+
+    /*
+     * Returns the cached epoch or loads it with the loader on the calling thread and caches it.
+     */
+    public EpochValidationInput get(int epoch, EpochValidationInputLoader epochValidationInputLoader) throws IOException {
+        final CachedEpoch cachedEpoch = cachedEpochs.get(epoch);
+        if (cachedEpoch != null) {
+            hitCount.increment();
+            cachedEpoch.lastAccess = clock.incrementAndGet();
+            return await(cachedEpoch);
+        }
+
+        final CachedEpoch loadingEpoch = new CachedEpoch();
+        final CachedEpoch concurrentlyLoadingEpoch = cachedEpochs.putIfAbsent(epoch, loadingEpoch);
+        if (concurrentlyLoadingEpoch != null) {
+            hitCount.increment();
+            return await(concurrentlyLoadingEpoch);
+        }
+
+        missCount.increment();
+        final EpochValidationInput epochValidationInput;
+        try {
+            epochValidationInput = epochValidationInputLoader.load(epoch);
+        } catch (IOException | RuntimeException e) {
+            cachedEpochs.remove(epoch, loadingEpoch);
+            loadingEpoch.epochValidationInput.completeExceptionally(e);
+            throw e;
+        }
+
+        loadingEpoch.epochValidationInput.complete(epochValidationInput);
+        retain(epoch, loadingEpoch, EpochValidationInputFootprint.estimate(epochValidationInput));
+        return epochValidationInput;
+    }
+
+    public boolean contains(int epoch) {
+        return cachedEpochs.containsKey(epoch);
+    }
+
+    private synchronized void retain(int loadedEpoch, CachedEpoch cachedEpoch, long footprint) {
+        // The cache might have been cleared while the epoch was loaded
+        if (cachedEpochs.get(loadedEpoch) != cachedEpoch) {
+            return;
+        }
+
+        cachedEpoch.footprint = footprint;
+        retainedMemory.addAndGet(footprint);
+        while (retainedMemory.get() > memoryCap) {
+            Map.Entry<Integer, CachedEpoch> leastRecentlyUsed = null;
+            for (Map.Entry<Integer, CachedEpoch> entry : cachedEpochs.entrySet()) {
+                // Epochs that are still loaded are not counted yet and cannot be evicted
+                if (entry.getKey() == loadedEpoch || entry.getValue().footprint == 0) {
+                    continue;
+                }
+                if (leastRecentlyUsed == null || entry.getValue().lastAccess < leastRecentlyUsed.getValue().lastAccess) {
+                    leastRecentlyUsed = entry;
+                }
+            }
+
+            if (leastRecentlyUsed == null) {
+                return;
+            }
+
+            log.debug("Evicting epoch " + leastRecentlyUsed.getKey() + " from the epoch validation input cache");
+            if (cachedEpochs.remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue())) {
+                retainedMemory.addAndGet(-leastRecentlyUsed.getValue().footprint);
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private static EpochValidationInput await(CachedEpoch cachedEpoch) throws IOException {
+        try {
+            return cachedEpoch.epochValidationInput.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an epoch to be loaded");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    public synchronized void clear() {
+        cachedEpochs.clear();
+        retainedMemory.set(0);
+    }
+
+    public int size() {
+        return cachedEpochs.size();
+    }
+
+    public long getRetainedMemory() {
+        return retainedMemory.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+}
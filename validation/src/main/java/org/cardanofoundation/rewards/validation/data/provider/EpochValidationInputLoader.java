@@ -0,0 +1,14 @@
+package org.cardanofoundation.rewards.validation.data.provider;
+
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+
+import java.io.IOException;
+
+/*
+ * Loads the complete epoch validation input of an epoch, e.g. from the files of the JsonDataProvider.
+ * Implementations must be safe to call from another thread than the one that uses the inputs.
+ */
+@FunctionalInterface
+public interface EpochValidationInputLoader {
+    EpochValidationInput load(int epoch) throws IOException;
+}
@@ -0,0 +1,174 @@
+package org.cardanofoundation.rewards.validation.data.provider;
+
+import lombok.extern.slf4j.Slf4j;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputFootprint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+/*
+ * Loads the epochs following the last requested epoch on background threads, so that the next epochs
+ * of a loop over consecutive epochs are decoded while the current one is calculated.
+ *
+ * Up to readAheadEpochs epochs are loaded ahead, as long as their estimated heap footprint stays
+ * below the memory cap. The footprint of an epoch that is not loaded yet is estimated by the one of
+ * the last requested epoch, consecutive epochs are of a similar size. The epoch that has been handed
+ * out is not counted against the cap. Epochs that are no longer ahead of the requested epoch are
+ * dropped.
+ *
+ * An instance is thread safe. The bookkeeping is synchronized, epochs are loaded and awaited without
+ * holding the lock. Threads that request epochs far apart from each other drop the epochs read ahead
+ * for the other threads, which are then loaded when they are requested.
+ */
+@Slf4j
+public class EpochValidationInputReadAhead implements Closeable {
+
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final EpochValidationInputLoader epochValidationInputLoader;
+    private final int readAheadEpochs;
+    private final long memoryCap;
+    private final IntPredicate isLoadedElsewhere;
+    private final ExecutorService executor;
+    private final Map<Integer, LoadingEpoch> loadingEpochs = new HashMap<>();
+
+    private long reservedMemory;
+    private long estimatedFootprint;
+
+    private static class LoadingEpoch {
+        private final Future<EpochValidationInput> epochValidationInput;
+        private final long reservedMemory;
+
+        private LoadingEpoch(Future<EpochValidationInput> epochValidationInput, long reservedMemory) {
+            this.epochValidationInput = epochValidationInput;
+            this.reservedMemory = reservedMemory;
+        }
+    }
+
+    public EpochValidationInputReadAhead(EpochValidationInputLoader epochValidationInputLoader, int readAheadEpochs, long memoryCap) {
+        this(epochValidationInputLoader, readAheadEpochs, memoryCap, epoch -> false);
+    }
+
+    /*
+     * Epochs for which isLoadedElsewhere is true, e.g. because they are cached by the caller, are not read ahead.
+     */
+    public EpochValidationInputReadAhead(EpochValidationInputLoader epochValidationInputLoader, int readAheadEpochs, long memoryCap,
+                                         IntPredicate isLoadedElsewhere) {
+        if (readAheadEpochs < 1) {
+            throw new IllegalArgumentException("At least one epoch has to be read ahead");
+        }
+
+        this.epochValidationInputLoader = epochValidationInputLoader;
+        this.readAheadEpochs = readAheadEpochs;
+        this.memoryCap = memoryCap;
+        this.isLoadedElsewhere = isLoadedElsewhere;
+        final int instance = INSTANCES.incrementAndGet();
+        final AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(readAheadEpochs, runnable -> {
+            Thread thread = new Thread(runnable, "epoch-read-ahead-" + instance + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+     * Returns the epoch, loaded in the background if it has been read ahead, and starts loading the
+     * epochs after it.
+     */
+    public EpochValidationInput get(int epoch) throws IOException {
+        final LoadingEpoch loadingEpoch;
+        synchronized (this) {
+            loadingEpoch = loadingEpochs.remove(epoch);
+            if (loadingEpoch != null) {
+                reservedMemory -= loadingEpoch.reservedMemory;
+            }
+        }
+
+        final EpochValidationInput epochValidationInput = loadingEpoch != null
+                ? await(loadingEpoch.epochValidationInput)
+                : epochValidationInputLoader.load(epoch);
+        final long footprint = EpochValidationInputFootprint.estimate(epochValidationInput);
+
+        synchronized (this) {
+            estimatedFootprint = footprint;
+            dropEpochsNotAhead(epoch);
+            readAhead(epoch);
+        }
+        return epochValidationInput;
+    }
+
+    public synchronized boolean isReadAhead(int epoch) {
+        return loadingEpochs.containsKey(epoch);
+    }
+
+    private void readAhead(int epoch) {
+        for (int nextEpoch = epoch + 1; nextEpoch <= epoch + readAheadEpochs; nextEpoch++) {
+            if (loadingEpochs.containsKey(nextEpoch) || isLoadedElsewhere.test(nextEpoch)) {
+                continue;
+            }
+
+            if (reservedMemory + estimatedFootprint > memoryCap) {
+                log.debug("Not reading ahead epoch " + nextEpoch + ", the estimated footprint of "
+                        + (reservedMemory + estimatedFootprint) / (1024 * 1024) + " MB exceeds the memory cap");
+                return;
+            }
+
+            final int epochToLoad = nextEpoch;
+            reservedMemory += estimatedFootprint;
+            loadingEpochs.put(epochToLoad, new LoadingEpoch(
+                    executor.submit(() -> epochValidationInputLoader.load(epochToLoad)), estimatedFootprint));
+        }
+    }
+
+    private void dropEpochsNotAhead(int epoch) {
+        final Iterator<Map.Entry<Integer, LoadingEpoch>> iterator = loadingEpochs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Integer, LoadingEpoch> entry = iterator.next();
+            if (entry.getKey() <= epoch || entry.getKey() > epoch + readAheadEpochs) {
+                entry.getValue().epochValidationInput.cancel(true);
+                reservedMemory -= entry.getValue().reservedMemory;
+                iterator.remove();
+            }
+        }
+    }
+
+    private static EpochValidationInput await(Future<EpochValidationInput> epochValidationInput) throws IOException {
+        try {
+            return epochValidationInput.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading ahead");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        for (LoadingEpoch loadingEpoch : loadingEpochs.values()) {
+            loadingEpoch.epochValidationInput.cancel(true);
+        }
+        loadingEpochs.clear();
+        reservedMemory = 0;
+        executor.shutdownNow();
+    }
+}
@@ -5,17 +5,31 @@ import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
 import org.cardanofoundation.rewards.calculation.domain.*;
 import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
 import org.cardanofoundation.rewards.validation.domain.PoolReward;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputBinaryReader;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputStreamReader;
 import org.cardanofoundation.rewards.validation.util.JsonConverter;
+import org.cardanofoundation.rewards.validation.util.StakeAddressInterner;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.File;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/*
+ * Provides the data of the epoch validation input files in the source folder.
+ *
+ * The provider can be used by several threads at the same time, e.g. to validate epochs in parallel.
+ * A loaded epoch is a snapshot that is shared between the threads and not modified after it has been
+ * loaded, so the collections returned by the provider must not be modified by the callers. Epochs
+ * that are loaded already are read without locking.
+ */
 @Service
 @Slf4j
 public class JsonDataProvider implements DataProvider {
@@ -23,27 +37,220 @@ public class JsonDataProvider implements DataProvider {
     @Value("${json.data-provider.source}")
     private String sourceFolder;
 
-    private int epoch;
+    // Read ahead is a throughput opt-in that loads whole epochs. Without it (0 epochs, the default) the
+    // validations stream the pools of an epoch from its file instead of loading it.
+    @Value("${json.data-provider.read-ahead.epochs:0}")
+    private int readAheadEpochs;
 
-    private EpochValidationInput epochValidationInput;
+    // A memory cap of 0 takes a share of the maximum heap, see getMemoryCapInBytes
+    @Value("${json.data-provider.read-ahead.memory-cap-mb:0}")
+    private long readAheadMemoryCapInMegabytes;
 
-    private void loadEpochValidationInput(int epoch) throws IOException {
-        if (epoch != this.epoch) {
-            log.info("Loading epoch validation input for epoch " + epoch + " into memory");
+    @Value("${json.data-provider.cache.memory-cap-mb:0}")
+    private long cacheMemoryCapInMegabytes;
 
-            String filePath = String.format("%s/epoch-validation-input-%d.json.gz", sourceFolder, epoch);
-            this.epochValidationInput = JsonConverter.readJsonFile(filePath, EpochValidationInput.class);
-            this.epoch = epoch;
+    private volatile EpochValidationInputReadAhead readAhead;
+
+    private volatile EpochValidationInputCache cache;
+
+    // An epoch and the epochs around it, e.g. the following epoch that holds the ada pots of the epoch
+    private static final int MAPPED_EPOCHS = 4;
+
+    // The mapped epochs in access order, the least recently used epoch is unmapped first
+    private final LinkedHashMap<Integer, MappedEpoch> mappedEpochs = new LinkedHashMap<>(16, 0.75f, true);
+
+    /*
+     * The binary file of an epoch that stays mapped, with the epoch fields once they have been read.
+     */
+    private static class MappedEpoch {
+        private final EpochValidationInputBinaryReader reader;
+        private volatile EpochValidationInput epochValidationInputWithoutPools;
+
+        private MappedEpoch(EpochValidationInputBinaryReader reader) {
+            this.reader = reader;
+        }
+
+        private EpochValidationInput getEpochValidationInputWithoutPools() throws IOException {
+            // Concurrent callers might both read the fields, which is cheaper than waiting for each other
+            if (epochValidationInputWithoutPools == null) {
+                epochValidationInputWithoutPools = reader.readWithoutPools();
+            }
+            return epochValidationInputWithoutPools;
         }
     }
-    @Override
-    public AdaPots getAdaPotsForEpoch(int epoch) {
+
+    private boolean isLoaded(int epoch) {
+        return getCache().contains(epoch);
+    }
+
+    private EpochValidationInput loadEpochValidationInput(int epoch) throws IOException {
+        return getCache().get(epoch, this::loadEpochValidationInputIntoMemory);
+    }
+
+    private EpochValidationInput loadEpochValidationInputIntoMemory(int epoch) throws IOException {
+        log.info("Loading epoch validation input for epoch " + epoch + " into memory");
+
+        if (isReadAheadEnabled()) {
+            return getReadAhead().get(epoch);
+        } else if (hasBinaryEpochValidationInput(epoch)) {
+            EpochValidationInput epochValidationInput = getMappedEpoch(epoch).reader.readEpochValidationInput();
+            StakeAddressInterner.intern(epochValidationInput);
+            return epochValidationInput;
+        } else {
+            return readEpochValidationInput(epoch);
+        }
+    }
+
+    /*
+     * The loaded epochs are kept in a cache that is bounded by their estimated heap footprint, so that
+     * validations that alternate between epochs, e.g. an epoch and the epoch of its ada pots, do not
+     * load the same epochs again.
+     */
+    public EpochValidationInputCache getCache() {
+        EpochValidationInputCache cache = this.cache;
+        if (cache == null) {
+            synchronized (this) {
+                if (this.cache == null) {
+                    this.cache = new EpochValidationInputCache(
+                            getMemoryCapInBytes(cacheMemoryCapInMegabytes, Runtime.getRuntime().maxMemory()));
+                }
+                cache = this.cache;
+            }
+        }
+        return cache;
+    }
+
+    /*
+     * The configured memory cap of the cache or the read ahead, or without one a quarter of the maximum
+     * heap, so that both together take at most half of it and leave the rest to the calculation.
+     */
+    static long getMemoryCapInBytes(long configuredMemoryCapInMegabytes, long maxMemoryInBytes) {
+        if (configuredMemoryCapInMegabytes > 0) {
+            return configuredMemoryCapInMegabytes * 1024 * 1024;
+        }
+        return maxMemoryInBytes / 4;
+    }
+
+    /*
+     * With read ahead, loading an epoch starts decoding the following epochs on background threads,
+     * which speeds up loops over consecutive epochs like the ones of the data plotters.
+     */
+    public boolean isReadAheadEnabled() {
+        return readAheadEpochs > 0;
+    }
+
+    private EpochValidationInputReadAhead getReadAhead() {
+        EpochValidationInputReadAhead readAhead = this.readAhead;
+        if (readAhead == null) {
+            synchronized (this) {
+                if (this.readAhead == null) {
+                    this.readAhead = new EpochValidationInputReadAhead(this::readEpochValidationInput, readAheadEpochs,
+                            getMemoryCapInBytes(readAheadMemoryCapInMegabytes, Runtime.getRuntime().maxMemory()), this::isLoaded);
+                }
+                readAhead = this.readAhead;
+            }
+        }
+        return readAhead;
+    }
+
+    /*
+     * Reads the complete epoch validation input of the epoch from its file without keeping it in the
+     * provider, e.g. to load an epoch on another thread. The stake addresses are interned.
+     */
+    public EpochValidationInput readEpochValidationInput(int epoch) throws IOException {
+        EpochValidationInput epochValidationInput;
+        if (hasBinaryEpochValidationInput(epoch)) {
+            epochValidationInput = EpochValidationInputBinaryReader.read(getBinaryEpochValidationInputFilePath(epoch));
+        } else {
+            epochValidationInput = JsonConverter.readJsonFile(getEpochValidationInputFilePath(epoch), EpochValidationInput.class);
+        }
+        StakeAddressInterner.intern(epochValidationInput);
+        return epochValidationInput;
+    }
+
+    /*
+     * The binary files of the last accessed epochs stay mapped, so that pools can be looked up by their id
+     * and the epoch fields can be read without loading the pools of the epoch. Each epoch is mapped once,
+     * also if several threads ask for it at the same time. Closing a reader only closes its file channel,
+     * the mapped file stays readable for threads that still use the reader.
+     */
+    private MappedEpoch getMappedEpoch(int epoch) throws IOException {
+        synchronized (mappedEpochs) {
+            MappedEpoch mappedEpoch = mappedEpochs.get(epoch);
+            if (mappedEpoch == null) {
+                mappedEpoch = new MappedEpoch(EpochValidationInputBinaryReader.open(getBinaryEpochValidationInputFilePath(epoch)));
+                mappedEpochs.put(epoch, mappedEpoch);
+
+                if (mappedEpochs.size() > MAPPED_EPOCHS) {
+                    Iterator<MappedEpoch> leastRecentlyUsed = mappedEpochs.values().iterator();
+                    leastRecentlyUsed.next().reader.close();
+                    leastRecentlyUsed.remove();
+                }
+            }
+            return mappedEpoch;
+        }
+    }
+
+    /*
+     * Returns the epoch validation input of the epoch, which might not contain the pool states and the
+     * pool rewards if the epoch is not loaded completely.
+     */
+    private EpochValidationInput getEpochValidationInputWithoutPools(int epoch) {
         try {
-            loadEpochValidationInput(epoch + 1);
+            if (!isLoaded(epoch) && hasBinaryEpochValidationInput(epoch)) {
+                return getMappedEpoch(epoch).getEpochValidationInputWithoutPools();
+            }
+
+            return loadEpochValidationInput(epoch);
         } catch (IOException e) {
             log.error(e.getMessage());
             return null;
         }
+    }
+
+    /*
+     * Returns the epoch fields of the epoch without reading its pool states, e.g. to stream the pools
+     * afterward. A loaded epoch is returned as it is (including its pools), a binary epoch is read from
+     * its mapped file and a json epoch is read from its file without keeping its pools.
+     */
+    public EpochValidationInput readEpochValidationInputWithoutPools(int epoch) throws IOException {
+        if (isLoaded(epoch)) {
+            return loadEpochValidationInput(epoch);
+        } else if (hasBinaryEpochValidationInput(epoch)) {
+            return getMappedEpoch(epoch).getEpochValidationInputWithoutPools();
+        }
+        return EpochValidationInputStreamReader.readWithoutPools(getEpochValidationInputFilePath(epoch));
+    }
+
+    /*
+     * The path of the binary file of the epoch if there is one, otherwise the path of its json file.
+     */
+    public String getPreferredEpochValidationInputFilePath(int epoch) {
+        return hasBinaryEpochValidationInput(epoch) ? getBinaryEpochValidationInputFilePath(epoch) : getEpochValidationInputFilePath(epoch);
+    }
+
+    public String getEpochValidationInputFilePath(int epoch) {
+        return String.format("%s/epoch-validation-input-%d.json.gz", sourceFolder, epoch);
+    }
+
+    public String getBinaryEpochValidationInputFilePath(int epoch) {
+        return String.format("%s/epoch-validation-input-%d.bin", sourceFolder, epoch);
+    }
+
+    /*
+     * The binary file is written by the EpochValidationInputConverter and preferred over the json
+     * file, because it is read several times faster.
+     */
+    public boolean hasBinaryEpochValidationInput(int epoch) {
+        return new File(getBinaryEpochValidationInputFilePath(epoch)).exists();
+    }
+
+    @Override
+    public AdaPots getAdaPotsForEpoch(int epoch) {
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch + 1);
+        if (epochValidationInput == null) {
+            return null;
+        }
 
         return AdaPots.builder()
                 .treasury(epochValidationInput.getTreasuryOfPreviousEpoch())
@@ -56,10 +263,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public Epoch getEpochInfo(int epoch, NetworkConfig networkConfig) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -78,10 +283,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public ProtocolParameters getProtocolParametersForEpoch(int epoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -96,10 +299,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public List<PoolState> getHistoryOfAllPoolsInEpoch(int epoch, List<PoolBlock> blocksMadeByPoolsInEpoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInput(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -108,25 +309,27 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public PoolState getPoolHistory(String poolId, int epoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        if (!isLoaded(epoch) && hasBinaryEpochValidationInput(epoch)) {
+            try {
+                return getMappedEpoch(epoch).reader.getPoolState(poolId);
+            } catch (IOException e) {
+                log.error(e.getMessage());
+                return null;
+            }
+        }
+
+        EpochValidationInput epochValidationInput = getEpochValidationInput(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
-        return epochValidationInput.getPoolStates().stream()
-                .filter(poolState -> poolState.getPoolId().equals(poolId))
-                .findFirst()
-                .orElse(null);
+        return epochValidationInput.getPoolState(poolId);
     }
 
     @Override
     public Set<RetiredPool> getRetiredPoolsInEpoch(int epoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -135,10 +338,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public List<MirCertificate> getMirCertificatesInEpoch(int epoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -162,10 +363,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public HashSet<Reward> getMemberRewardsInEpoch(int epoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInput(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -182,10 +381,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public List<PoolBlock> getBlocksMadeByPoolsInEpoch(int epoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInput(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -199,10 +396,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public HashSet<PoolReward> getTotalPoolRewardsInEpoch(int epoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInput(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -217,10 +412,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public HashSet<String> findSharedPoolRewardAddressWithoutReward(int epoch) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -229,10 +422,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public HashSet<String> getDeregisteredAccountsInEpoch(int epoch, long stabilityWindow) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -241,10 +432,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public HashSet<String> getRegisteredAccountsUntilLastEpoch(Integer epoch, HashSet<String> stakeAddresses, Long stabilityWindow) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -253,10 +442,8 @@ public class JsonDataProvider implements DataProvider {
 
     @Override
     public HashSet<String> getRegisteredAccountsUntilNow(Integer epoch, HashSet<String> stakeAddresses, Long stabilityWindow) {
-        try {
-            loadEpochValidationInput(epoch);
-        } catch (IOException e) {
-            log.error(e.getMessage());
+        EpochValidationInput epochValidationInput = getEpochValidationInputWithoutPools(epoch);
+        if (epochValidationInput == null) {
             return null;
         }
 
@@ -265,12 +452,10 @@ public class JsonDataProvider implements DataProvider {
 
     public EpochValidationInput getEpochValidationInput(int epoch) {
         try {
-            loadEpochValidationInput(epoch);
+            return loadEpochValidationInput(epoch);
         } catch (IOException e) {
             log.error(e.getMessage());
             return null;
         }
-
-        return epochValidationInput;
     }
 }
@@ -0,0 +1,27 @@
+package org.cardanofoundation.rewards.validation.domain;
+
+import lombok.*;
+import org.cardanofoundation.rewards.calculation.domain.AdaPots;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpochReplayResult {
+    private int startEpoch;
+    private int endEpoch;
+    // Reserves and treasury at the end of each replayed epoch, calculated from the previous epoch
+    private List<AdaPots> calculatedAdaPots;
+    private int comparedEpochs;
+    // Null if the calculated pots of all compared epochs match the reference pots
+    private Integer firstDivergentEpoch;
+    private AdaPots calculatedAdaPotsOfFirstDivergentEpoch;
+    private AdaPots referenceAdaPotsOfFirstDivergentEpoch;
+
+    public boolean hasDiverged() {
+        return firstDivergentEpoch != null;
+    }
+}
@@ -1,15 +1,20 @@
 package org.cardanofoundation.rewards.validation.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.*;
 import org.cardanofoundation.rewards.calculation.domain.MirCertificate;
 import org.cardanofoundation.rewards.calculation.domain.PoolState;
 import org.cardanofoundation.rewards.calculation.domain.RetiredPool;
+import org.cardanofoundation.rewards.calculation.domain.StakeAddressDictionary;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Getter
 @Setter
@@ -46,4 +51,37 @@ public class EpochValidationInput {
     private HashSet<MirCertificate> mirCertificates;
 
     private HashSet<EpochValidationPoolReward> poolRewards;
+
+    // The dictionary the stake addresses of the input have been interned with, if any (see StakeAddressInterner)
+    @JsonIgnore
+    private StakeAddressDictionary stakeAddressDictionary;
+
+    // The pool states by their pool id, built on the first lookup
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<Map<String, PoolState>> poolStatesById = new AtomicReference<>();
+
+    public void setPoolStates(HashSet<PoolState> poolStates) {
+        this.poolStates = poolStates;
+        this.poolStatesById.set(null);
+    }
+
+    /*
+     * Returns the pool state of the pool, or null if the pool has no state in the epoch. If a pool id
+     * occurs more than once, one of its pool states is returned.
+     */
+    public PoolState getPoolState(String poolId) {
+        Map<String, PoolState> poolStatesById = this.poolStatesById.get();
+        if (poolStatesById == null) {
+            // Concurrent callers might both build the index, which is cheaper than waiting for each other
+            poolStatesById = new HashMap<>();
+            if (poolStates != null) {
+                for (PoolState poolState : poolStates) {
+                    poolStatesById.putIfAbsent(poolState.getPoolId(), poolState);
+                }
+            }
+            this.poolStatesById.compareAndSet(null, poolStatesById);
+        }
+        return poolStatesById.get(poolId);
+    }
 }
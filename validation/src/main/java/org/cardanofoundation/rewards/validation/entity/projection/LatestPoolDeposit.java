@@ -0,0 +1,9 @@
+package org.cardanofoundation.rewards.validation.entity.projection;
+
+import java.math.BigInteger;
+
+public interface LatestPoolDeposit {
+    String getPoolId();
+    String getRewardAddress();
+    BigInteger getDeposit();
+}
@@ -0,0 +1,7 @@
+package org.cardanofoundation.rewards.validation.entity.projection;
+
+public interface LatestPoolRetirement {
+    String getPoolId();
+    Long getAnnouncedTransactionId();
+    Integer getRetiringEpoch();
+}
@@ -0,0 +1,6 @@
+package org.cardanofoundation.rewards.validation.entity.projection;
+
+public interface LatestPoolUpdateTransaction {
+    String getPoolId();
+    Long getRegisteredTransactionId();
+}
@@ -0,0 +1,85 @@
+package org.cardanofoundation.rewards.validation.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+/*
+ * Reads the stake address registrations and deregistrations of a range of epochs with a forward-only
+ * JDBC cursor. The range starts after the end of an epoch and ends before a slot of a later epoch,
+ * the bounds the account queries of DbSyncStakeRegistrationRepository and
+ * DbSyncStakeDeregistrationRepository use for the whole history.
+ */
+@Repository
+@Profile("db-sync")
+public class DbSyncAccountRegistrationReader {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String REGISTRATIONS_IN_RANGE = """
+            SELECT
+                sa.view AS stakeAddress, sr.tx_id
+            FROM
+                stake_registration sr
+            JOIN
+                tx ON tx.id = sr.tx_id
+            JOIN
+                block ON block.id = tx.block_id AND block.epoch_no > :afterEpoch AND (block.epoch_no < :epoch OR
+                                                                                      (block.epoch_no = :epoch AND block.epoch_slot_no < :slot))
+            JOIN
+                stake_address sa ON sa.id = sr.addr_id
+            WHERE
+                sr.epoch_no > :afterEpoch AND sr.epoch_no <= :epoch""";
+
+    private static final String DEREGISTRATIONS_IN_RANGE = """
+            SELECT
+                sa.view AS stakeAddress, sd.tx_id
+            FROM
+                stake_deregistration sd
+            JOIN
+                tx ON tx.id = sd.tx_id
+            JOIN
+                block ON block.id = tx.block_id AND block.epoch_no > :afterEpoch AND (block.epoch_no < :epoch OR
+                                                                                      (block.epoch_no = :epoch AND block.epoch_slot_no < :slot))
+            JOIN
+                stake_address sa ON sa.id = sd.addr_id
+            WHERE
+                sd.epoch_no > :afterEpoch AND sd.epoch_no <= :epoch""";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @FunctionalInterface
+    public interface CertificateConsumer {
+        void accept(String stakeAddress, long txId);
+    }
+
+    public DbSyncAccountRegistrationReader(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /*
+     * Passes the registrations in the blocks after the end of afterEpoch and before the slot of the epoch to the
+     * consumer, followed by the deregistrations in the same blocks.
+     */
+    @Transactional(readOnly = true)
+    public void readCertificatesInRange(int afterEpoch, int epoch, long slot, CertificateConsumer registrationConsumer,
+                                        CertificateConsumer deregistrationConsumer) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("afterEpoch", afterEpoch)
+                .addValue("epoch", epoch)
+                .addValue("slot", slot);
+
+        namedParameterJdbcTemplate.query(REGISTRATIONS_IN_RANGE, parameters,
+                (RowCallbackHandler) resultSet -> registrationConsumer.accept(resultSet.getString(1), resultSet.getLong(2)));
+        namedParameterJdbcTemplate.query(DEREGISTRATIONS_IN_RANGE, parameters,
+                (RowCallbackHandler) resultSet -> deregistrationConsumer.accept(resultSet.getString(1), resultSet.getLong(2)));
+    }
+}
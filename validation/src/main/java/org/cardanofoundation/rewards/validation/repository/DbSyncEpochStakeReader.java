@@ -0,0 +1,114 @@
+package org.cardanofoundation.rewards.validation.repository;
+
+import org.cardanofoundation.rewards.calculation.domain.DelegatorStakes;
+import org.cardanofoundation.rewards.calculation.domain.StakeAddressDictionary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/*
+ * Reads the epoch stakes of pools with a forward-only JDBC cursor and adds the delegators of each
+ * pool to DelegatorStakes, without creating a projection or a Delegator object per row. The
+ * PostgreSQL driver only fetches the rows in chunks of the fetch size if the query runs within a
+ * transaction, otherwise it reads the whole result into memory.
+ */
+@Repository
+@Profile("db-sync")
+public class DbSyncEpochStakeReader {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private static final String POOL_ACTIVE_STAKES_IN_EPOCH = """
+            SELECT
+                epoch_stake.pool_id, pool_hash.view AS pool_id_view, stake_address.view AS stake_address, amount::bigint AS amount
+            FROM epoch_stake
+                JOIN pool_hash ON pool_hash.id=epoch_stake.pool_id
+                JOIN stake_address ON stake_address.id = epoch_stake.addr_id
+            WHERE epoch_no=:epoch AND pool_hash.view IN (:poolIds) AND amount > 0
+            ORDER BY epoch_stake.pool_id""";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @FunctionalInterface
+    public interface PoolStakesConsumer {
+        void accept(String poolId, DelegatorStakes delegatorStakes, long activeStake);
+    }
+
+    public DbSyncEpochStakeReader(DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /*
+     * Passes the delegators of each of the given pools that has an active stake in the epoch to the
+     * consumer, one pool after another. The stake addresses are added to the dictionary.
+     */
+    @Transactional(readOnly = true)
+    public void readPoolActiveStakesInEpoch(int epoch, Collection<String> poolIds, StakeAddressDictionary stakeAddressDictionary,
+                                            PoolStakesConsumer poolStakesConsumer) {
+        if (poolIds.isEmpty()) {
+            return;
+        }
+
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("epoch", epoch)
+                .addValue("poolIds", poolIds);
+
+        PoolStakesHandler poolStakesHandler = new PoolStakesHandler(stakeAddressDictionary, poolStakesConsumer);
+        namedParameterJdbcTemplate.query(POOL_ACTIVE_STAKES_IN_EPOCH, parameters, poolStakesHandler);
+        poolStakesHandler.completePool();
+    }
+
+    /*
+     * Groups the rows, which are ordered by pool, into the delegators of each pool. The last pool is
+     * only passed to the consumer by completePool after the last row.
+     */
+    static class PoolStakesHandler implements RowCallbackHandler {
+        private final StakeAddressDictionary stakeAddressDictionary;
+        private final PoolStakesConsumer poolStakesConsumer;
+
+        private long poolHashId = -1;
+        private String poolId;
+        private DelegatorStakes.Builder delegatorStakes;
+        private long activeStake;
+
+        PoolStakesHandler(StakeAddressDictionary stakeAddressDictionary, PoolStakesConsumer poolStakesConsumer) {
+            this.stakeAddressDictionary = stakeAddressDictionary;
+            this.poolStakesConsumer = poolStakesConsumer;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            // The rows are ordered by the numeric pool id, the pool id view is only read for the first row of a pool
+            long rowPoolHashId = resultSet.getLong(1);
+            if (rowPoolHashId != poolHashId) {
+                completePool();
+                poolHashId = rowPoolHashId;
+                poolId = resultSet.getString(2);
+                delegatorStakes = DelegatorStakes.builder(stakeAddressDictionary);
+                activeStake = 0;
+            }
+
+            long amount = resultSet.getLong(4);
+            delegatorStakes.add(resultSet.getString(3), amount);
+            activeStake += amount;
+        }
+
+        void completePool() {
+            if (delegatorStakes != null && delegatorStakes.size() > 0) {
+                poolStakesConsumer.accept(poolId, delegatorStakes.build(), activeStake);
+            }
+            delegatorStakes = null;
+        }
+    }
+}
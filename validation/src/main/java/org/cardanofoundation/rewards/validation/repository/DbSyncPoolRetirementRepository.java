@@ -1,29 +1,43 @@
 package org.cardanofoundation.rewards.validation.repository;
 
 import org.cardanofoundation.rewards.validation.entity.dbsync.DbSyncPoolRetirement;
+import org.cardanofoundation.rewards.validation.entity.projection.LatestPoolRetirement;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 @Profile("db-sync")
 public interface DbSyncPoolRetirementRepository extends ReadOnlyRepository<DbSyncPoolRetirement, Long>{
 
-    @Query("""
-            SELECT retirement FROM DbSyncPoolRetirement AS retirement
-                WHERE retirement.retiringEpoch = :epoch AND retirement.announcedTransaction.block.epochNo <= :epoch""")
-    List<DbSyncPoolRetirement> getPoolRetirementsByEpoch(@Param("epoch") Integer epoch);
+    /*
+     * Returns the latest retirement announced until the epoch of each pool that announced a retirement
+     * for the epoch.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT DISTINCT ON (pool_retire.hash_id)
+                pool_hash.view AS poolId, pool_retire.announced_tx_id AS announcedTransactionId, pool_retire.retiring_epoch AS retiringEpoch
+            FROM pool_retire
+                JOIN tx ON tx.id=pool_retire.announced_tx_id
+                JOIN block ON block.id=tx.block_id AND block.epoch_no <= :epoch
+                JOIN pool_hash ON pool_hash.id=pool_retire.hash_id
+            WHERE pool_retire.retiring_epoch = :epoch
+            ORDER BY pool_retire.hash_id, pool_retire.announced_tx_id DESC""")
+    List<LatestPoolRetirement> getLatestPoolRetirementsByEpoch(@Param("epoch") Integer epoch);
 
-    @Query("""
-            SELECT retirement FROM DbSyncPoolRetirement AS retirement
-                   WHERE retirement.announcedTransaction.block.epochNo <= :epoch
-                   AND retirement.pool.bech32PoolId = :poolId
-            ORDER BY retirement.announcedTransaction.id DESC LIMIT 1
-            """)
-    DbSyncPoolRetirement latestPoolRetirementUntilEpoch(@Param("poolId") String poolId,
-                                                        @Param("epoch") Integer epoch);
+    @Query(nativeQuery = true, value = """
+            SELECT DISTINCT ON (pool_retire.hash_id)
+                pool_hash.view AS poolId, pool_retire.announced_tx_id AS announcedTransactionId, pool_retire.retiring_epoch AS retiringEpoch
+            FROM pool_retire
+                JOIN tx ON tx.id=pool_retire.announced_tx_id
+                JOIN block ON block.id=tx.block_id AND block.epoch_no <= :epoch
+                JOIN pool_hash ON pool_hash.id=pool_retire.hash_id AND pool_hash.view IN :poolIds
+            ORDER BY pool_retire.hash_id, pool_retire.announced_tx_id DESC""")
+    List<LatestPoolRetirement> latestPoolRetirementsUntilEpoch(@Param("poolIds") Collection<String> poolIds,
+                                                               @Param("epoch") Integer epoch);
 
 }
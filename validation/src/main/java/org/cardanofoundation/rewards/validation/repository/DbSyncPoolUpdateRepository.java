@@ -1,12 +1,15 @@
 package org.cardanofoundation.rewards.validation.repository;
 
 import org.cardanofoundation.rewards.validation.entity.dbsync.DbSyncPoolUpdate;
+import org.cardanofoundation.rewards.validation.entity.projection.LatestPoolDeposit;
 import org.cardanofoundation.rewards.validation.entity.projection.LatestPoolUpdate;
+import org.cardanofoundation.rewards.validation.entity.projection.LatestPoolUpdateTransaction;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 
@@ -47,13 +50,27 @@ public interface DbSyncPoolUpdateRepository extends ReadOnlyRepository<DbSyncPoo
                                                                        @Param("transactionId") long transactionId,
                                                                        @Param("epoch") int epoch);
 
-    @Query("""
-           SELECT update FROM DbSyncPoolUpdate AS update
-               WHERE update.pool.bech32PoolId = :poolId
-               AND update.registeredTransaction.block.epochNo <= :epoch
-           ORDER BY update.registeredTransaction.id DESC LIMIT 1""")
-    DbSyncPoolUpdate findLatestUpdateInEpoch(@Param("poolId") String poolId,
-                                             @Param("epoch") int epoch);
+    @Query(nativeQuery = true, value = """
+            SELECT pool_hash.view AS poolId, MAX(pool_update.registered_tx_id) AS registeredTransactionId
+            FROM pool_update
+                JOIN tx ON tx.id=pool_update.registered_tx_id
+                JOIN block ON block.id=tx.block_id AND block.epoch_no <= :epoch
+                JOIN pool_hash ON pool_hash.id=pool_update.hash_id AND pool_hash.view IN :poolIds
+            GROUP BY pool_hash.view""")
+    List<LatestPoolUpdateTransaction> findLatestUpdateTransactionsInEpoch(@Param("poolIds") Collection<String> poolIds,
+                                                                          @Param("epoch") int epoch);
+
+    @Query(nativeQuery = true, value = """
+            SELECT DISTINCT ON (pool_update.hash_id)
+                pool_hash.view AS poolId, stake_address.view AS rewardAddress, pool_update.deposit AS deposit
+            FROM pool_update
+                JOIN tx ON tx.id=pool_update.registered_tx_id
+                JOIN block ON block.id=tx.block_id AND block.epoch_no <= :epoch
+                JOIN pool_hash ON pool_hash.id=pool_update.hash_id AND pool_hash.view IN :poolIds
+                JOIN stake_address ON stake_address.id=pool_update.reward_addr_id
+            ORDER BY pool_update.hash_id, pool_update.registered_tx_id DESC""")
+    List<LatestPoolDeposit> findLatestDepositsInEpoch(@Param("poolIds") Collection<String> poolIds,
+                                                      @Param("epoch") int epoch);
 
     @Query(nativeQuery = true, value = """
             WITH active_pool AS (
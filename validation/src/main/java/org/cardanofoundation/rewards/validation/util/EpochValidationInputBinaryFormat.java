@@ -0,0 +1,269 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*
+ * A compact binary encoding of the epoch validation input, an alternative to the gzip compressed json
+ * files that is read without parsing text.
+ *
+ * Layout of a file (version 1):
+ *
+ *   magic (4 bytes) | version (1 byte)
+ *   dictionary      | all stake addresses and pool ids of the epoch, each stored once
+ *   epoch fields    | pots, protocol parameters, block counts and the account sets
+ *   retired pools   | mir certificates
+ *   pool states     | one record per pool, delegators sorted by dictionary id
+ *   pool rewards    | one record per pool, delegator rewards sorted by dictionary id
+ *   pool index      | dictionary id of the pool id with the offsets of its state and reward record
+ *   index offset (8 bytes) | magic (4 bytes)
+ *
+ * Strings are referenced by their dictionary id. The ids are assigned in the order of the first
+ * occurrence, walking the delegators of each pool, so that the sorted ids of the delegators of a
+ * pool are mostly consecutive and their deltas fit into a single byte. Bech32 strings are stored as
+ * a reference to their human readable part and their data part packed with 5 bits per character.
+ *
+ * Integers are LEB128 varints (zigzag encoded if they can be negative). Lovelace amounts that fit
+ * into a long are varints as well, larger amounts are stored as two's complement byte arrays.
+ * Nullable values are prefixed by a tag, nullable references and counts are stored incremented by
+ * one, where zero stands for null.
+ */
+public class EpochValidationInputBinaryFormat {
+
+    public static final int MAGIC = 0x43464549; // CFEI
+    public static final byte VERSION = 1;
+
+    static final byte STRING_RAW = 0;
+    static final byte STRING_BECH32 = 1;
+
+    static final byte NULL = 0;
+    static final byte SMALL_INTEGER = 1;
+    static final byte LARGE_INTEGER = 2;
+
+    static final long NO_RECORD = -1;
+
+    private static final String BECH32_CHARSET = "qpzry9x8gf2tvdw0s3jn54khce6mua7l";
+    private static final byte[] BECH32_CHARACTERS = BECH32_CHARSET.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BECH32_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BECH32_VALUES, (byte) -1);
+        for (int i = 0; i < BECH32_CHARSET.length(); i++) {
+            BECH32_VALUES[BECH32_CHARSET.charAt(i)] = (byte) i;
+        }
+    }
+
+    /*
+     * Returns the position of the bech32 separator if the data part of the string can be packed, otherwise -1.
+     */
+    static int bech32Separator(final String value) {
+        final int separator = value.lastIndexOf('1');
+        if (separator < 1 || separator == value.length() - 1) {
+            return -1;
+        }
+
+        for (int i = separator + 1; i < value.length(); i++) {
+            final char character = value.charAt(i);
+            if (character >= 128 || BECH32_VALUES[character] < 0) {
+                return -1;
+            }
+        }
+        return separator;
+    }
+
+    static void packBech32(final String value, final int dataStart, final Output output) throws IOException {
+        long bits = 0;
+        int bitCount = 0;
+        for (int i = dataStart; i < value.length(); i++) {
+            bits = (bits << 5) | BECH32_VALUES[value.charAt(i)];
+            bitCount += 5;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                output.writeByte((int) (bits >>> bitCount));
+            }
+        }
+        if (bitCount > 0) {
+            output.writeByte((int) (bits << (8 - bitCount)));
+        }
+    }
+
+    static String unpackBech32(final byte[] humanReadablePart, final int dataLength, final ByteBuffer buffer) {
+        final byte[] characters = new byte[humanReadablePart.length + 1 + dataLength];
+        System.arraycopy(humanReadablePart, 0, characters, 0, humanReadablePart.length);
+        characters[humanReadablePart.length] = '1';
+
+        int position = humanReadablePart.length + 1;
+        long bits = 0;
+        int bitCount = 0;
+        while (position < characters.length) {
+            if (bitCount < 5) {
+                bits = (bits << 8) | (buffer.get() & 0xFF);
+                bitCount += 8;
+            }
+            bitCount -= 5;
+            characters[position++] = BECH32_CHARACTERS[(int) (bits >>> bitCount) & 0x1F];
+        }
+        // Bech32 strings only contain ascii characters
+        return new String(characters, StandardCharsets.ISO_8859_1);
+    }
+
+    static long readVarLong(final ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+
+    static int readVarInt(final ByteBuffer buffer) {
+        return Math.toIntExact(readVarLong(buffer));
+    }
+
+    static long readSignedVarLong(final ByteBuffer buffer) {
+        final long value = readVarLong(buffer);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static String readString(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static BigInteger readBigInteger(final ByteBuffer buffer) {
+        final byte tag = buffer.get();
+        if (tag == NULL) {
+            return null;
+        } else if (tag == SMALL_INTEGER) {
+            return BigInteger.valueOf(readSignedVarLong(buffer));
+        }
+
+        final byte[] bytes = new byte[readVarInt(buffer)];
+        buffer.get(bytes);
+        return new BigInteger(bytes);
+    }
+
+    static BigDecimal readBigDecimal(final ByteBuffer buffer) {
+        final BigInteger unscaledValue = readBigInteger(buffer);
+        if (unscaledValue == null) {
+            return null;
+        }
+        return new BigDecimal(unscaledValue, (int) readSignedVarLong(buffer));
+    }
+
+    /*
+     * A buffered output that keeps track of its position, which is used for the offsets of the pool index.
+     */
+    static class Output implements AutoCloseable {
+
+        private final OutputStream outputStream;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int bufferPosition;
+        private long position;
+
+        Output(final OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        long getPosition() {
+            return position;
+        }
+
+        void writeByte(final int value) throws IOException {
+            if (bufferPosition == buffer.length) {
+                flush();
+            }
+            buffer[bufferPosition++] = (byte) value;
+            position++;
+        }
+
+        void writeBytes(final byte[] bytes) throws IOException {
+            for (byte value : bytes) {
+                writeByte(value);
+            }
+        }
+
+        void writeInt(final int value) throws IOException {
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                writeByte(value >>> shift);
+            }
+        }
+
+        void writeLong(final long value) throws IOException {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writeByte((int) (value >>> shift));
+            }
+        }
+
+        void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            writeByte((int) value);
+        }
+
+        void writeSignedVarLong(final long value) throws IOException {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeString(final String value) throws IOException {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            writeBytes(bytes);
+        }
+
+        void writeBigInteger(final BigInteger value) throws IOException {
+            if (value == null) {
+                writeByte(NULL);
+            } else if (value.bitLength() < Long.SIZE) {
+                writeByte(SMALL_INTEGER);
+                writeSignedVarLong(value.longValue());
+            } else {
+                final byte[] bytes = value.toByteArray();
+                writeByte(LARGE_INTEGER);
+                writeVarLong(bytes.length);
+                writeBytes(bytes);
+            }
+        }
+
+        void writeBigDecimal(final BigDecimal value) throws IOException {
+            if (value == null) {
+                writeByte(NULL);
+                return;
+            }
+            writeBigInteger(value.unscaledValue());
+            writeSignedVarLong(value.scale());
+        }
+
+        /*
+         * Writes a non-negative lovelace amount that fits into a long without a tag.
+         */
+        void writeAmount(final BigInteger value, final String description) throws IOException {
+            if (value == null || value.signum() < 0 || value.bitLength() >= Long.SIZE) {
+                throw new IOException("Unable to encode the " + description + " " + value);
+            }
+            writeVarLong(value.longValue());
+        }
+
+        private void flush() throws IOException {
+            outputStream.write(buffer, 0, bufferPosition);
+            bufferPosition = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            outputStream.close();
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import org.cardanofoundation.rewards.calculation.domain.Delegator;
+import org.cardanofoundation.rewards.calculation.domain.MirCertificate;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.calculation.domain.RetiredPool;
+import org.cardanofoundation.rewards.calculation.enums.MirPot;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationDelegatorReward;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.cardanofoundation.rewards.validation.util.EpochValidationInputBinaryFormat.*;
+
+/*
+ * Reads an epoch validation input in the binary format described in EpochValidationInputBinaryFormat.
+ *
+ * The file is memory mapped. Opening it only locates the entries of the dictionary and reads the pool
+ * index, so the state, the delegators and the expected rewards of a single pool are read by seeking to
+ * their records without decoding the rest of the epoch. The strings of a record are decoded on demand,
+ * unless the whole epoch is read at once.
+ *
+ * All reads use their own view of the mapped buffer, so a reader can be shared between threads. The
+ * mapping is released by the garbage collector after the reader has been closed. A single mapping is
+ * limited to 2 GB, which is several times the size of a mainnet epoch.
+ */
+public class EpochValidationInputBinaryReader implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[][] humanReadableParts;
+    private final int[] dictionaryOffsets;
+    private final int epochFieldsOffset;
+    private final Map<String, int[]> recordOffsetsByPoolId;
+
+    // Only set if the whole dictionary has been decoded
+    private volatile String[] dictionary;
+    private volatile int poolRecordsOffset = -1;
+
+    private EpochValidationInputBinaryReader(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        this.channel = channel;
+        this.buffer = buffer;
+
+        if (buffer.limit() < 17 || buffer.getInt(0) != MAGIC || buffer.getInt(buffer.limit() - 4) != MAGIC) {
+            throw new IOException("Not an epoch validation input file");
+        }
+
+        final byte version = buffer.get(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported epoch validation input file version " + version);
+        }
+
+        final ByteBuffer cursor = cursor(5);
+        this.humanReadableParts = new byte[readVarInt(cursor)][];
+        for (int i = 0; i < humanReadableParts.length; i++) {
+            humanReadableParts[i] = readString(cursor).getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        this.dictionaryOffsets = new int[readVarInt(cursor)];
+        for (int i = 0; i < dictionaryOffsets.length; i++) {
+            dictionaryOffsets[i] = cursor.position();
+            if (cursor.get() == STRING_BECH32) {
+                readVarInt(cursor);
+                final int dataLength = readVarInt(cursor);
+                cursor.position(cursor.position() + (dataLength * 5 + 7) / 8);
+            } else {
+                final int length = readVarInt(cursor);
+                cursor.position(cursor.position() + length);
+            }
+        }
+        this.epochFieldsOffset = cursor.position();
+
+        final ByteBuffer indexCursor = cursor(Math.toIntExact(buffer.getLong(buffer.limit() - 12)));
+        final int poolCount = readVarInt(indexCursor);
+        this.recordOffsetsByPoolId = new LinkedHashMap<>(Math.max(16, poolCount * 4 / 3 + 1));
+        for (int i = 0; i < poolCount; i++) {
+            final String poolId = decodeReference(readVarInt(indexCursor));
+            final int poolStateOffset = Math.toIntExact(readVarLong(indexCursor) - 1);
+            final int poolRewardOffset = Math.toIntExact(readVarLong(indexCursor) - 1);
+            recordOffsetsByPoolId.put(poolId, new int[]{poolStateOffset, poolRewardOffset});
+        }
+    }
+
+    public static EpochValidationInputBinaryReader open(final String filePath) throws IOException {
+        final FileChannel channel = FileChannel.open(Path.of(filePath), StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The epoch validation input file " + filePath + " is too large to be mapped");
+            }
+            return new EpochValidationInputBinaryReader(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException | ArithmeticException e) {
+            channel.close();
+            throw new IOException("Corrupt epoch validation input file " + filePath, e);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static EpochValidationInput read(final String filePath) throws IOException {
+        try (EpochValidationInputBinaryReader reader = open(filePath)) {
+            return reader.readEpochValidationInput();
+        }
+    }
+
+    public EpochValidationInput readEpochValidationInput() throws IOException {
+        return decode(() -> {
+            decodeDictionary();
+            final ByteBuffer cursor = cursor(epochFieldsOffset);
+            final EpochValidationInput input = readEpochFields(cursor);
+
+            final int poolStateCount = readVarInt(cursor);
+            if (poolStateCount > 0) {
+                final HashSet<PoolState> poolStates = new HashSet<>();
+                for (int i = 0; i < poolStateCount - 1; i++) {
+                    poolStates.add(readPoolState(cursor));
+                }
+                input.setPoolStates(poolStates);
+            }
+
+            final int poolRewardCount = readVarInt(cursor);
+            if (poolRewardCount > 0) {
+                final HashSet<EpochValidationPoolReward> poolRewards = new HashSet<>();
+                for (int i = 0; i < poolRewardCount - 1; i++) {
+                    poolRewards.add(readPoolReward(cursor));
+                }
+                input.setPoolRewards(poolRewards);
+            }
+
+            return input;
+        });
+    }
+
+    /*
+     * Reads all fields of the epoch validation input except the pool states and the pool rewards,
+     * which are left null.
+     */
+    public EpochValidationInput readWithoutPools() throws IOException {
+        return decode(() -> readEpochFields(cursor(epochFieldsOffset)));
+    }
+
+    public Set<String> getPoolIds() {
+        return Collections.unmodifiableSet(recordOffsetsByPoolId.keySet());
+    }
+
+    /*
+     * Returns the first pool state of the pool or null if the epoch does not contain a state of the pool.
+     */
+    public PoolState getPoolState(final String poolId) throws IOException {
+        final int[] recordOffsets = recordOffsetsByPoolId.get(poolId);
+        if (recordOffsets == null || recordOffsets[0] == NO_RECORD) {
+            return null;
+        }
+        return decode(() -> readPoolState(cursor(recordOffsets[0])));
+    }
+
+    /*
+     * Returns the first expected reward of the pool or null if the epoch does not contain rewards of the pool.
+     */
+    public EpochValidationPoolReward getPoolReward(final String poolId) throws IOException {
+        final int[] recordOffsets = recordOffsetsByPoolId.get(poolId);
+        if (recordOffsets == null || recordOffsets[1] == NO_RECORD) {
+            return null;
+        }
+        return decode(() -> readPoolReward(cursor(recordOffsets[1])));
+    }
+
+    /*
+     * Iterates over the pool states in the order of the file. Only the current pool state is held in memory.
+     */
+    public Iterator<PoolState> poolStates() throws IOException {
+        final ByteBuffer cursor = cursor(getPoolRecordsOffset());
+        final int poolStateCount = decode(() -> readVarInt(cursor));
+
+        return new Iterator<>() {
+            private int remaining = Math.max(0, poolStateCount - 1);
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public PoolState next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                remaining--;
+                try {
+                    return decode(() -> readPoolState(cursor));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int getPoolRecordsOffset() throws IOException {
+        if (poolRecordsOffset < 0) {
+            final ByteBuffer cursor = cursor(epochFieldsOffset);
+            decode(() -> readEpochFields(cursor));
+            poolRecordsOffset = cursor.position();
+        }
+        return poolRecordsOffset;
+    }
+
+    private EpochValidationInput readEpochFields(final ByteBuffer cursor) {
+        final EpochValidationInput input = new EpochValidationInput();
+        input.setEpoch((int) readSignedVarLong(cursor));
+        input.setTreasuryOfPreviousEpoch(readBigInteger(cursor));
+        input.setReservesOfPreviousEpoch(readBigInteger(cursor));
+        input.setDecentralisation(readBigDecimal(cursor));
+        input.setTreasuryGrowRate(readBigDecimal(cursor));
+        input.setMonetaryExpandRate(readBigDecimal(cursor));
+        final int optimalPoolCount = readVarInt(cursor);
+        input.setOptimalPoolCount(optimalPoolCount == 0 ? null : optimalPoolCount - 1);
+        input.setPoolOwnerInfluence(readBigDecimal(cursor));
+        input.setFees(readBigInteger(cursor));
+        input.setBlockCount((int) readSignedVarLong(cursor));
+        input.setActiveStake(readBigInteger(cursor));
+        input.setNonOBFTBlockCount((int) readSignedVarLong(cursor));
+
+        input.setDeregisteredAccounts(readStrings(cursor));
+        input.setLateDeregisteredAccounts(readStrings(cursor));
+        input.setRegisteredAccountsSinceLastEpoch(readStrings(cursor));
+        input.setRegisteredAccountsUntilNow(readStrings(cursor));
+        input.setSharedPoolRewardAddressesWithoutReward(readStrings(cursor));
+        input.setDeregisteredAccountsOnEpochBoundary(readStrings(cursor));
+
+        final int retiredPoolCount = readVarInt(cursor);
+        if (retiredPoolCount > 0) {
+            final Set<RetiredPool> retiredPools = new HashSet<>();
+            for (int i = 0; i < retiredPoolCount - 1; i++) {
+                retiredPools.add(RetiredPool.builder()
+                        .poolId(readReference(cursor))
+                        .rewardAddress(readReference(cursor))
+                        .depositAmount(readBigInteger(cursor))
+                        .build());
+            }
+            input.setRetiredPools(retiredPools);
+        }
+
+        final int mirCertificateCount = readVarInt(cursor);
+        if (mirCertificateCount > 0) {
+            final HashSet<MirCertificate> mirCertificates = new HashSet<>();
+            for (int i = 0; i < mirCertificateCount - 1; i++) {
+                final int pot = readVarInt(cursor);
+                mirCertificates.add(MirCertificate.builder()
+                        .pot(pot == 0 ? null : MirPot.values()[pot - 1])
+                        .totalRewards(readBigInteger(cursor))
+                        .build());
+            }
+            input.setMirCertificates(mirCertificates);
+        }
+
+        return input;
+    }
+
+    private PoolState readPoolState(final ByteBuffer cursor) {
+        final PoolState poolState = PoolState.builder()
+                .poolId(readReference(cursor))
+                .activeStake(readBigInteger(cursor))
+                .rewardAddress(readReference(cursor))
+                .owners(readStrings(cursor))
+                .ownerActiveStake(readBigInteger(cursor))
+                .poolFees(readBigInteger(cursor))
+                .margin(readBigDecimal(cursor))
+                .fixedCost(readBigInteger(cursor))
+                .pledge(readBigInteger(cursor))
+                .blockCount((int) readSignedVarLong(cursor))
+                .epoch((int) readSignedVarLong(cursor))
+                .build();
+
+        final int delegatorCount = readVarInt(cursor);
+        if (delegatorCount > 0) {
+            final HashSet<Delegator> delegators = new HashSet<>(Math.max(16, (delegatorCount - 1) * 4 / 3 + 1));
+            int id = 0;
+            for (int i = 0; i < delegatorCount - 1; i++) {
+                id += readVarInt(cursor);
+                delegators.add(Delegator.builder()
+                        .stakeAddress(string(id))
+                        .activeStake(BigInteger.valueOf(readVarLong(cursor)))
+                        .build());
+            }
+            poolState.setDelegators(delegators);
+        }
+
+        return poolState;
+    }
+
+    private EpochValidationPoolReward readPoolReward(final ByteBuffer cursor) {
+        final EpochValidationPoolReward poolReward = EpochValidationPoolReward.builder()
+                .poolId(readReference(cursor))
+                .totalPoolReward(readBigInteger(cursor))
+                .build();
+
+        final int delegatorRewardCount = readVarInt(cursor);
+        if (delegatorRewardCount > 0) {
+            final HashSet<EpochValidationDelegatorReward> delegatorRewards = new HashSet<>(Math.max(16, (delegatorRewardCount - 1) * 4 / 3 + 1));
+            int id = 0;
+            for (int i = 0; i < delegatorRewardCount - 1; i++) {
+                id += readVarInt(cursor);
+                delegatorRewards.add(EpochValidationDelegatorReward.builder()
+                        .stakeAddress(string(id))
+                        .reward(BigInteger.valueOf(readVarLong(cursor)))
+                        .build());
+            }
+            poolReward.setDelegatorRewards(delegatorRewards);
+        }
+
+        return poolReward;
+    }
+
+    private String readReference(final ByteBuffer cursor) {
+        return decodeReference(readVarInt(cursor));
+    }
+
+    private String decodeReference(final int reference) {
+        return reference == 0 ? null : string(reference - 1);
+    }
+
+    private HashSet<String> readStrings(final ByteBuffer cursor) {
+        final int count = readVarInt(cursor);
+        if (count == 0) {
+            return null;
+        }
+
+        final HashSet<String> strings = new HashSet<>(Math.max(16, (count - 1) * 4 / 3 + 1));
+        int reference = 0;
+        for (int i = 0; i < count - 1; i++) {
+            reference += readVarInt(cursor);
+            strings.add(decodeReference(reference));
+        }
+        return strings;
+    }
+
+    private String string(final int id) {
+        final String[] decodedDictionary = dictionary;
+        if (decodedDictionary != null) {
+            return decodedDictionary[id];
+        }
+        return readDictionaryEntry(cursor(dictionaryOffsets[id]));
+    }
+
+    private void decodeDictionary() {
+        if (dictionary != null) {
+            return;
+        }
+
+        final String[] decodedDictionary = new String[dictionaryOffsets.length];
+        if (decodedDictionary.length > 0) {
+            final ByteBuffer cursor = cursor(dictionaryOffsets[0]);
+            for (int i = 0; i < decodedDictionary.length; i++) {
+                decodedDictionary[i] = readDictionaryEntry(cursor);
+            }
+        }
+        dictionary = decodedDictionary;
+    }
+
+    private String readDictionaryEntry(final ByteBuffer cursor) {
+        if (cursor.get() == STRING_BECH32) {
+            final byte[] humanReadablePart = humanReadableParts[readVarInt(cursor)];
+            return unpackBech32(humanReadablePart, readVarInt(cursor), cursor);
+        }
+        return readString(cursor);
+    }
+
+    private ByteBuffer cursor(final int position) {
+        return buffer.duplicate().position(position);
+    }
+
+    private interface Decoder<T> {
+        T decode();
+    }
+
+    private static <T> T decode(final Decoder<T> decoder) throws IOException {
+        try {
+            return decoder.decode();
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException | ArithmeticException e) {
+            throw new IOException("Corrupt epoch validation input file", e);
+        }
+    }
+}
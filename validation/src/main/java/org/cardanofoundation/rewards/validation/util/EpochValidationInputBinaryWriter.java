@@ -0,0 +1,303 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import org.cardanofoundation.rewards.calculation.domain.Delegator;
+import org.cardanofoundation.rewards.calculation.domain.MirCertificate;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.calculation.domain.RetiredPool;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationDelegatorReward;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+import static org.cardanofoundation.rewards.validation.util.EpochValidationInputBinaryFormat.*;
+
+/*
+ * Writes an epoch validation input in the binary format described in EpochValidationInputBinaryFormat.
+ * The file is written next to the target and moved into place once it is complete, so readers never
+ * see a partially written file.
+ */
+public class EpochValidationInputBinaryWriter {
+
+    public static void write(final EpochValidationInput epochValidationInput, final String filePath) throws IOException {
+        final Path targetPath = Path.of(filePath).toAbsolutePath();
+        Files.createDirectories(targetPath.getParent());
+        final Path temporaryPath = targetPath.resolveSibling(targetPath.getFileName() + ".tmp");
+
+        try (Output output = new Output(new FileOutputStream(temporaryPath.toFile()))) {
+            write(epochValidationInput, output);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryPath);
+            throw e;
+        }
+
+        Files.move(temporaryPath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void write(final EpochValidationInput input, final Output output) throws IOException {
+        final Dictionary dictionary = Dictionary.of(input);
+
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        dictionary.write(output);
+
+        output.writeSignedVarLong(input.getEpoch());
+        output.writeBigInteger(input.getTreasuryOfPreviousEpoch());
+        output.writeBigInteger(input.getReservesOfPreviousEpoch());
+        output.writeBigDecimal(input.getDecentralisation());
+        output.writeBigDecimal(input.getTreasuryGrowRate());
+        output.writeBigDecimal(input.getMonetaryExpandRate());
+        output.writeVarLong(input.getOptimalPoolCount() == null ? 0 : input.getOptimalPoolCount() + 1L);
+        output.writeBigDecimal(input.getPoolOwnerInfluence());
+        output.writeBigInteger(input.getFees());
+        output.writeSignedVarLong(input.getBlockCount());
+        output.writeBigInteger(input.getActiveStake());
+        output.writeSignedVarLong(input.getNonOBFTBlockCount());
+
+        writeStrings(input.getDeregisteredAccounts(), dictionary, output);
+        writeStrings(input.getLateDeregisteredAccounts(), dictionary, output);
+        writeStrings(input.getRegisteredAccountsSinceLastEpoch(), dictionary, output);
+        writeStrings(input.getRegisteredAccountsUntilNow(), dictionary, output);
+        writeStrings(input.getSharedPoolRewardAddressesWithoutReward(), dictionary, output);
+        writeStrings(input.getDeregisteredAccountsOnEpochBoundary(), dictionary, output);
+
+        writeCount(input.getRetiredPools(), output);
+        if (input.getRetiredPools() != null) {
+            for (RetiredPool retiredPool : input.getRetiredPools()) {
+                output.writeVarLong(dictionary.reference(retiredPool.getPoolId()));
+                output.writeVarLong(dictionary.reference(retiredPool.getRewardAddress()));
+                output.writeBigInteger(retiredPool.getDepositAmount());
+            }
+        }
+
+        writeCount(input.getMirCertificates(), output);
+        if (input.getMirCertificates() != null) {
+            for (MirCertificate mirCertificate : input.getMirCertificates()) {
+                output.writeVarLong(mirCertificate.getPot() == null ? 0 : mirCertificate.getPot().ordinal() + 1L);
+                output.writeBigInteger(mirCertificate.getTotalRewards());
+            }
+        }
+
+        final Map<String, long[]> recordOffsetsByPoolId = new LinkedHashMap<>();
+        writeCount(input.getPoolStates(), output);
+        if (input.getPoolStates() != null) {
+            for (PoolState poolState : input.getPoolStates()) {
+                recordOffsetsByPoolId.computeIfAbsent(poolState.getPoolId(), poolId -> new long[]{NO_RECORD, NO_RECORD});
+                final long[] recordOffsets = recordOffsetsByPoolId.get(poolState.getPoolId());
+                if (recordOffsets[0] == NO_RECORD) {
+                    recordOffsets[0] = output.getPosition();
+                }
+                writePoolState(poolState, dictionary, output);
+            }
+        }
+
+        writeCount(input.getPoolRewards(), output);
+        if (input.getPoolRewards() != null) {
+            for (EpochValidationPoolReward poolReward : input.getPoolRewards()) {
+                recordOffsetsByPoolId.computeIfAbsent(poolReward.getPoolId(), poolId -> new long[]{NO_RECORD, NO_RECORD});
+                final long[] recordOffsets = recordOffsetsByPoolId.get(poolReward.getPoolId());
+                if (recordOffsets[1] == NO_RECORD) {
+                    recordOffsets[1] = output.getPosition();
+                }
+                writePoolReward(poolReward, dictionary, output);
+            }
+        }
+
+        final long indexOffset = output.getPosition();
+        output.writeVarLong(recordOffsetsByPoolId.size());
+        for (Map.Entry<String, long[]> entry : recordOffsetsByPoolId.entrySet()) {
+            output.writeVarLong(dictionary.reference(entry.getKey()));
+            output.writeVarLong(entry.getValue()[0] + 1);
+            output.writeVarLong(entry.getValue()[1] + 1);
+        }
+
+        output.writeLong(indexOffset);
+        output.writeInt(MAGIC);
+    }
+
+    private static void writePoolState(final PoolState poolState, final Dictionary dictionary, final Output output) throws IOException {
+        output.writeVarLong(dictionary.reference(poolState.getPoolId()));
+        output.writeBigInteger(poolState.getActiveStake());
+        output.writeVarLong(dictionary.reference(poolState.getRewardAddress()));
+        writeStrings(poolState.getOwners(), dictionary, output);
+        output.writeBigInteger(poolState.getOwnerActiveStake());
+        output.writeBigInteger(poolState.getPoolFees());
+        output.writeBigDecimal(poolState.getMargin());
+        output.writeBigInteger(poolState.getFixedCost());
+        output.writeBigInteger(poolState.getPledge());
+        output.writeSignedVarLong(poolState.getBlockCount());
+        output.writeSignedVarLong(poolState.getEpoch());
+
+        // Delegators held as DelegatorStakes are converted to a new set on each call
+        final HashSet<Delegator> delegatorSet = poolState.toDelegators();
+        writeCount(delegatorSet, output);
+        if (delegatorSet != null) {
+            final List<Delegator> delegators = new ArrayList<>(delegatorSet);
+            int previousId = 0;
+            for (long key : sortedKeys(delegators.stream().map(Delegator::getStakeAddress).toList(), dictionary)) {
+                final int id = (int) (key >>> 32);
+                output.writeVarLong(id - previousId);
+                output.writeAmount(delegators.get((int) key).getActiveStake(), "active stake of a delegator");
+                previousId = id;
+            }
+        }
+    }
+
+    private static void writePoolReward(final EpochValidationPoolReward poolReward, final Dictionary dictionary, final Output output) throws IOException {
+        output.writeVarLong(dictionary.reference(poolReward.getPoolId()));
+        output.writeBigInteger(poolReward.getTotalPoolReward());
+
+        writeCount(poolReward.getDelegatorRewards(), output);
+        if (poolReward.getDelegatorRewards() != null) {
+            final List<EpochValidationDelegatorReward> delegatorRewards = new ArrayList<>(poolReward.getDelegatorRewards());
+            int previousId = 0;
+            for (long key : sortedKeys(delegatorRewards.stream().map(EpochValidationDelegatorReward::getStakeAddress).toList(), dictionary)) {
+                final int id = (int) (key >>> 32);
+                output.writeVarLong(id - previousId);
+                output.writeAmount(delegatorRewards.get((int) key).getReward(), "reward of a delegator");
+                previousId = id;
+            }
+        }
+    }
+
+    /*
+     * Sorts the positions of the stake addresses by their dictionary id. Each key holds the id in the
+     * upper and the position in the lower 32 bits.
+     */
+    private static long[] sortedKeys(final List<String> stakeAddresses, final Dictionary dictionary) throws IOException {
+        final long[] keys = new long[stakeAddresses.size()];
+        for (int i = 0; i < keys.length; i++) {
+            final String stakeAddress = stakeAddresses.get(i);
+            if (stakeAddress == null) {
+                throw new IOException("Unable to encode a delegator without a stake address");
+            }
+            keys[i] = ((long) dictionary.id(stakeAddress) << 32) | i;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static void writeStrings(final Collection<String> strings, final Dictionary dictionary, final Output output) throws IOException {
+        writeCount(strings, output);
+        if (strings == null) {
+            return;
+        }
+
+        final int[] ids = new int[strings.size()];
+        int i = 0;
+        for (String string : strings) {
+            ids[i++] = dictionary.reference(string);
+        }
+        Arrays.sort(ids);
+
+        int previousId = 0;
+        for (int id : ids) {
+            output.writeVarLong(id - previousId);
+            previousId = id;
+        }
+    }
+
+    private static void writeCount(final Collection<?> collection, final Output output) throws IOException {
+        output.writeVarLong(collection == null ? 0 : collection.size() + 1L);
+    }
+
+    /*
+     * Assigns the ids in the order of the first occurrence. Reference 0 stands for null, so the
+     * references of the strings start at 1.
+     */
+    private static class Dictionary {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        static Dictionary of(final EpochValidationInput input) {
+            final Dictionary dictionary = new Dictionary();
+            if (input.getPoolStates() != null) {
+                for (PoolState poolState : input.getPoolStates()) {
+                    dictionary.add(poolState.getPoolId());
+                    dictionary.add(poolState.getRewardAddress());
+                    dictionary.addAll(poolState.getOwners());
+                    final HashSet<Delegator> delegators = poolState.toDelegators();
+                    if (delegators != null) {
+                        delegators.forEach(delegator -> dictionary.add(delegator.getStakeAddress()));
+                    }
+                }
+            }
+            if (input.getPoolRewards() != null) {
+                for (EpochValidationPoolReward poolReward : input.getPoolRewards()) {
+                    dictionary.add(poolReward.getPoolId());
+                    if (poolReward.getDelegatorRewards() != null) {
+                        poolReward.getDelegatorRewards().forEach(reward -> dictionary.add(reward.getStakeAddress()));
+                    }
+                }
+            }
+            if (input.getRetiredPools() != null) {
+                for (RetiredPool retiredPool : input.getRetiredPools()) {
+                    dictionary.add(retiredPool.getPoolId());
+                    dictionary.add(retiredPool.getRewardAddress());
+                }
+            }
+            dictionary.addAll(input.getDeregisteredAccounts());
+            dictionary.addAll(input.getLateDeregisteredAccounts());
+            dictionary.addAll(input.getRegisteredAccountsSinceLastEpoch());
+            dictionary.addAll(input.getRegisteredAccountsUntilNow());
+            dictionary.addAll(input.getSharedPoolRewardAddressesWithoutReward());
+            dictionary.addAll(input.getDeregisteredAccountsOnEpochBoundary());
+            return dictionary;
+        }
+
+        private void add(final String string) {
+            if (string != null && !ids.containsKey(string)) {
+                ids.put(string, strings.size());
+                strings.add(string);
+            }
+        }
+
+        private void addAll(final Collection<String> strings) {
+            if (strings != null) {
+                strings.forEach(this::add);
+            }
+        }
+
+        int id(final String string) {
+            return ids.get(string);
+        }
+
+        int reference(final String string) {
+            return string == null ? 0 : ids.get(string) + 1;
+        }
+
+        void write(final Output output) throws IOException {
+            final Map<String, Integer> humanReadablePartIds = new LinkedHashMap<>();
+            for (String string : strings) {
+                final int separator = bech32Separator(string);
+                if (separator > 0) {
+                    humanReadablePartIds.putIfAbsent(string.substring(0, separator), humanReadablePartIds.size());
+                }
+            }
+
+            output.writeVarLong(humanReadablePartIds.size());
+            for (String humanReadablePart : humanReadablePartIds.keySet()) {
+                output.writeString(humanReadablePart);
+            }
+
+            output.writeVarLong(strings.size());
+            for (String string : strings) {
+                final int separator = bech32Separator(string);
+                if (separator > 0) {
+                    output.writeByte(STRING_BECH32);
+                    output.writeVarLong(humanReadablePartIds.get(string.substring(0, separator)));
+                    output.writeVarLong(string.length() - separator - 1);
+                    packBech32(string, separator + 1, output);
+                } else {
+                    output.writeByte(STRING_RAW);
+                    output.writeString(string);
+                }
+            }
+        }
+    }
+}
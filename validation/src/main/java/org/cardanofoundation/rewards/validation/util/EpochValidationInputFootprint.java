@@ -0,0 +1,65 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
+
+import java.util.Collection;
+
+/*
+ * Estimates the heap retained by a loaded epoch validation input from the sizes of its collections,
+ * without walking the object graph. The estimate is meant to bound the number of epochs held in
+ * memory, not to be exact. The constants assume compressed oops and stake addresses of 59 characters.
+ */
+public class EpochValidationInputFootprint {
+
+    // A String with its byte array, referenced from the stake address dictionary
+    private static final long STAKE_ADDRESS = 120;
+    // A HashMap node and its slot in the table of a HashSet
+    private static final long SET_ENTRY = 40;
+    // An id and an active stake of DelegatorStakes
+    private static final long DELEGATOR_STAKE = 12;
+    // A Delegator with its BigInteger stake and its stake address, which is not interned
+    private static final long DELEGATOR = SET_ENTRY + 24 + 40 + STAKE_ADDRESS;
+    // An EpochValidationDelegatorReward with its BigInteger reward
+    private static final long DELEGATOR_REWARD = SET_ENTRY + 24 + 40;
+    private static final long POOL = 400;
+    private static final long EPOCH = 2_000;
+
+    public static long estimate(final EpochValidationInput epochValidationInput) {
+        long footprint = EPOCH;
+        if (epochValidationInput.getStakeAddressDictionary() != null) {
+            footprint += epochValidationInput.getStakeAddressDictionary().size() * STAKE_ADDRESS;
+        }
+
+        footprint += (size(epochValidationInput.getDeregisteredAccounts())
+                + size(epochValidationInput.getLateDeregisteredAccounts())
+                + size(epochValidationInput.getRegisteredAccountsSinceLastEpoch())
+                + size(epochValidationInput.getRegisteredAccountsUntilNow())
+                + size(epochValidationInput.getSharedPoolRewardAddressesWithoutReward())
+                + size(epochValidationInput.getDeregisteredAccountsOnEpochBoundary())) * SET_ENTRY;
+        footprint += (size(epochValidationInput.getRetiredPools()) + size(epochValidationInput.getMirCertificates())) * POOL;
+
+        if (epochValidationInput.getPoolStates() != null) {
+            for (PoolState poolState : epochValidationInput.getPoolStates()) {
+                footprint += POOL;
+                if (poolState.delegatorStakes() != null) {
+                    footprint += poolState.delegatorStakes().size() * DELEGATOR_STAKE;
+                } else if (poolState.getDelegators() != null) {
+                    footprint += poolState.getDelegators().size() * DELEGATOR;
+                }
+            }
+        }
+
+        if (epochValidationInput.getPoolRewards() != null) {
+            for (EpochValidationPoolReward poolReward : epochValidationInput.getPoolRewards()) {
+                footprint += POOL + size(poolReward.getDelegatorRewards()) * DELEGATOR_REWARD;
+            }
+        }
+        return footprint;
+    }
+
+    private static long size(final Collection<?> collection) {
+        return collection == null ? 0 : collection.size();
+    }
+}
@@ -0,0 +1,150 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
+import com.fasterxml.jackson.core.filter.TokenFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
+
+import java.io.*;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+/*
+ * Reads the compressed epoch validation input files written by the JsonConverter without
+ * materializing the whole epoch. The pool states and the pool rewards hold nearly all of the data
+ * of an epoch, so they are streamed element by element with the token streaming API of Jackson,
+ * while the remaining fields of the epoch are read into an EpochValidationInput without them.
+ *
+ * The properties of the json object can be in any order, so each read is a separate pass over the
+ * file. Only the current element of a streamed array is held in memory.
+ */
+public class EpochValidationInputStreamReader {
+
+    public static final String POOL_STATES = "poolStates";
+    public static final String POOL_REWARDS = "poolRewards";
+
+    private static final ObjectMapper OBJECT_MAPPER = JsonConverter.OBJECT_MAPPER;
+
+    /*
+     * Reads all fields of the epoch validation input except the pool states and the pool rewards,
+     * which are left null.
+     */
+    public static EpochValidationInput readWithoutPools(final String filePath) throws IOException {
+        final TokenFilter withoutPools = new TokenFilter() {
+            @Override
+            public TokenFilter includeProperty(final String name) {
+                return name.equals(POOL_STATES) || name.equals(POOL_REWARDS) ? null : TokenFilter.INCLUDE_ALL;
+            }
+        };
+
+        try (JsonParser parser = new FilteringParserDelegate(createParser(filePath), withoutPools,
+                TokenFilter.Inclusion.INCLUDE_ALL_AND_PATH, true)) {
+            return OBJECT_MAPPER.readValue(parser, EpochValidationInput.class);
+        }
+    }
+
+    public static JsonArrayIterator<PoolState> streamPoolStates(final String filePath) throws IOException {
+        return streamArray(filePath, POOL_STATES, PoolState.class);
+    }
+
+    public static JsonArrayIterator<EpochValidationPoolReward> streamPoolRewards(final String filePath) throws IOException {
+        return streamArray(filePath, POOL_REWARDS, EpochValidationPoolReward.class);
+    }
+
+    /*
+     * Returns an iterator over the elements of the array property of the top level object. A missing
+     * or null property results in an empty iterator. The iterator has to be closed to release the file.
+     */
+    public static <T> JsonArrayIterator<T> streamArray(final String filePath, final String propertyName,
+                                                       final Class<T> elementClass) throws IOException {
+        final JsonParser parser = createParser(filePath);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Expected an epoch validation input object in " + filePath);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                final JsonToken value = parser.nextToken();
+                if (name.equals(propertyName)) {
+                    if (value == JsonToken.START_ARRAY) {
+                        return new JsonArrayIterator<>(parser, elementClass);
+                    } else if (value == JsonToken.VALUE_NULL) {
+                        break;
+                    }
+                    throw new IOException("Expected " + propertyName + " to be an array in " + filePath);
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+
+        parser.close();
+        return new JsonArrayIterator<>(null, elementClass);
+    }
+
+    private static JsonParser createParser(final String filePath) throws IOException {
+        final InputStream inputStream = new GZIPInputStream(new BufferedInputStream(new FileInputStream(filePath)), 64 * 1024);
+        return OBJECT_MAPPER.getFactory().createParser(inputStream);
+    }
+
+    public static class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+
+        private final JsonParser parser;
+        private final Class<T> elementClass;
+        private JsonToken nextToken;
+
+        private JsonArrayIterator(final JsonParser parser, final Class<T> elementClass) {
+            this.parser = parser;
+            this.elementClass = elementClass;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (parser == null || parser.isClosed()) {
+                return false;
+            }
+
+            try {
+                if (nextToken == null) {
+                    nextToken = parser.nextToken();
+                }
+                if (nextToken == JsonToken.END_ARRAY || nextToken == null) {
+                    close();
+                    return false;
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            try {
+                nextToken = null;
+                return OBJECT_MAPPER.readValue(parser, elementClass);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (parser != null) {
+                parser.close();
+            }
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package org.cardanofoundation.rewards.validation.util;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
 
 public class JsonConverter {
 
-    public static <T> T readJsonFile(String filePath, Class<T> targetClass) throws IOException {
-        ObjectMapper objectMapper = new ObjectMapper();
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .addMixIn(PoolState.class, PoolStateJsonMixin.class);
 
+    public static <T> T readJsonFile(String filePath, Class<T> targetClass) throws IOException {
         FileInputStream fileInputStream = new FileInputStream(filePath);
         GZIPInputStream gzipInputStream = new GZIPInputStream(fileInputStream);
 
-        return objectMapper.readValue(gzipInputStream, targetClass);
+        return OBJECT_MAPPER.readValue(gzipInputStream, targetClass);
     }
 
     public static <T> void writeObjectToCompressedJsonFile(T objectToWrite, String filePath) throws IOException {
@@ -36,14 +41,16 @@ public class JsonConverter {
             }
         }
 
-        FileOutputStream fileOutputStream = new FileOutputStream(outputFile);
-        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(fileOutputStream);
-
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.writeValue(gzipOutputStream, objectToWrite);
-
-        gzipOutputStream.close();
-        fileOutputStream.close();
+        // Write to a temporary file first, so that an interrupted write never leaves a truncated file behind
+        Path targetPath = outputFile.toPath();
+        Path temporaryPath = targetPath.resolveSibling(targetPath.getFileName() + ".tmp");
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(new FileOutputStream(temporaryPath.toFile()))) {
+            OBJECT_MAPPER.writeValue(gzipOutputStream, objectToWrite);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryPath);
+            throw e;
+        }
+        Files.move(temporaryPath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
 
     public static <T> void writeObjectToJsonFile(T objectToWrite, String filePath) throws IOException {
@@ -67,8 +74,7 @@ public class JsonConverter {
 
         FileOutputStream fileOutputStream = new FileOutputStream(outputFile);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.writeValue(fileOutputStream, objectToWrite);
+        OBJECT_MAPPER.writeValue(fileOutputStream, objectToWrite);
 
         fileOutputStream.close();
     }
@@ -0,0 +1,24 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.cardanofoundation.rewards.calculation.domain.Delegator;
+
+import java.util.HashSet;
+
+/*
+ * Maps the delegators of a PoolState to json regardless of how the pool state holds them. The
+ * calculation module does not depend on Jackson, so the mapping is added to the object mapper
+ * as a mixin instead of being annotated on the PoolState.
+ */
+abstract class PoolStateJsonMixin {
+
+    @JsonIgnore
+    abstract HashSet<Delegator> getDelegators();
+
+    @JsonProperty("delegators")
+    abstract HashSet<Delegator> toDelegators();
+
+    @JsonProperty("delegators")
+    abstract void setDelegators(HashSet<Delegator> delegators);
+}
@@ -0,0 +1,78 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import org.cardanofoundation.rewards.calculation.domain.DelegatorStakes;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.calculation.domain.RetiredPool;
+import org.cardanofoundation.rewards.calculation.domain.StakeAddressDictionary;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationDelegatorReward;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
+
+import java.util.HashSet;
+
+/*
+ * Replaces the stake addresses of an epoch validation input by the instances of a stake address
+ * dictionary of the epoch. A deserialized epoch holds a separate String for every occurrence of an
+ * address, e.g. as a delegator, in the account sets and in the expected rewards. After interning,
+ * each address is held once and the delegators of the pools are replaced by DelegatorStakes with
+ * the ids of the dictionary, which the calculation uses without looking up the addresses.
+ *
+ * The delegators are added first, pool by pool, so that the delegators of a pool get mostly
+ * consecutive ids.
+ */
+public class StakeAddressInterner {
+
+    public static StakeAddressDictionary intern(final EpochValidationInput epochValidationInput) {
+        final StakeAddressDictionary stakeAddressDictionary = new StakeAddressDictionary(
+                Math.max(16, epochValidationInput.getRegisteredAccountsUntilNow() != null
+                        ? epochValidationInput.getRegisteredAccountsUntilNow().size() : 0));
+
+        if (epochValidationInput.getPoolStates() != null) {
+            for (PoolState poolState : epochValidationInput.getPoolStates()) {
+                if (poolState.getDelegators() != null) {
+                    poolState.replaceDelegators(DelegatorStakes.of(poolState.getDelegators(), stakeAddressDictionary));
+                }
+                poolState.setRewardAddress(stakeAddressDictionary.intern(poolState.getRewardAddress()));
+                poolState.setOwners(intern(poolState.getOwners(), stakeAddressDictionary));
+            }
+        }
+
+        epochValidationInput.setDeregisteredAccounts(intern(epochValidationInput.getDeregisteredAccounts(), stakeAddressDictionary));
+        epochValidationInput.setLateDeregisteredAccounts(intern(epochValidationInput.getLateDeregisteredAccounts(), stakeAddressDictionary));
+        epochValidationInput.setRegisteredAccountsSinceLastEpoch(intern(epochValidationInput.getRegisteredAccountsSinceLastEpoch(), stakeAddressDictionary));
+        epochValidationInput.setRegisteredAccountsUntilNow(intern(epochValidationInput.getRegisteredAccountsUntilNow(), stakeAddressDictionary));
+        epochValidationInput.setDeregisteredAccountsOnEpochBoundary(intern(epochValidationInput.getDeregisteredAccountsOnEpochBoundary(), stakeAddressDictionary));
+
+        if (epochValidationInput.getRetiredPools() != null) {
+            for (RetiredPool retiredPool : epochValidationInput.getRetiredPools()) {
+                // Replacing the address by an equal instance keeps the hash code of the retired pool
+                retiredPool.setRewardAddress(stakeAddressDictionary.intern(retiredPool.getRewardAddress()));
+            }
+        }
+
+        if (epochValidationInput.getPoolRewards() != null) {
+            for (EpochValidationPoolReward poolReward : epochValidationInput.getPoolRewards()) {
+                if (poolReward.getDelegatorRewards() != null) {
+                    for (EpochValidationDelegatorReward delegatorReward : poolReward.getDelegatorRewards()) {
+                        delegatorReward.setStakeAddress(stakeAddressDictionary.intern(delegatorReward.getStakeAddress()));
+                    }
+                }
+            }
+        }
+
+        epochValidationInput.setStakeAddressDictionary(stakeAddressDictionary);
+        return stakeAddressDictionary;
+    }
+
+    private static HashSet<String> intern(final HashSet<String> stakeAddresses, final StakeAddressDictionary stakeAddressDictionary) {
+        if (stakeAddresses == null) {
+            return null;
+        }
+
+        final HashSet<String> internedStakeAddresses = new HashSet<>(Math.max(16, stakeAddresses.size() * 4 / 3 + 1));
+        for (String stakeAddress : stakeAddresses) {
+            internedStakeAddresses.add(stakeAddressDictionary.intern(stakeAddress));
+        }
+        return internedStakeAddresses;
+    }
+}
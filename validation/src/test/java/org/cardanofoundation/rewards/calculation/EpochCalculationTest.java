@@ -0,0 +1,302 @@
+package org.cardanofoundation.rewards.calculation;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public class EpochCalculationTest {
+
+    private static final int EPOCH = 420;
+
+    /*
+     * A pool state that counts how often its pool id has been read. Finding the pool state of
+     * a block producing pool by scanning all pool histories reads the pool id O(pools^2) times
+     * per epoch, while an indexed lookup reads it once per pool.
+     */
+    private static class CountingPoolState extends PoolState {
+        private final AtomicLong poolIdReads;
+
+        CountingPoolState(AtomicLong poolIdReads) {
+            this.poolIdReads = poolIdReads;
+        }
+
+        @Override
+        public String getPoolId() {
+            poolIdReads.incrementAndGet();
+            return super.getPoolId();
+        }
+    }
+
+    private static List<PoolState> createPoolStates(int poolCount, AtomicLong poolIdReads) {
+        List<PoolState> poolStates = new ArrayList<>();
+        for (int i = 0; i < poolCount; i++) {
+            PoolState poolState = new CountingPoolState(poolIdReads);
+            String rewardAddress = "stake1pool" + i;
+            HashSet<Delegator> delegators = new HashSet<>();
+            delegators.add(Delegator.builder().stakeAddress(rewardAddress).activeStake(BigInteger.valueOf(500_000_000_000L)).build());
+            delegators.add(Delegator.builder().stakeAddress("stake1member" + i).activeStake(BigInteger.valueOf(2_000_000_000_000L)).build());
+
+            poolState.setPoolId("pool" + i);
+            poolState.setEpoch(EPOCH - 2);
+            poolState.setRewardAddress(rewardAddress);
+            poolState.setOwners(new HashSet<>(List.of(rewardAddress)));
+            poolState.setOwnerActiveStake(BigInteger.valueOf(500_000_000_000L));
+            poolState.setActiveStake(BigInteger.valueOf(2_500_000_000_000L));
+            poolState.setPledge(BigInteger.valueOf(100_000_000_000L));
+            poolState.setFixedCost(BigInteger.valueOf(340_000_000L));
+            poolState.setMargin(new BigDecimal("0.01"));
+            poolState.setBlockCount(7);
+            poolState.setDelegators(delegators);
+            poolStates.add(poolState);
+        }
+        return poolStates;
+    }
+
+    private static long countPoolIdReadsInEpochCalculation(int poolCount) {
+        AtomicLong poolIdReads = new AtomicLong();
+        List<PoolState> poolStates = createPoolStates(poolCount, poolIdReads);
+        List<String> poolIds = new ArrayList<>();
+        for (int i = 0; i < poolCount; i++) {
+            poolIds.add("pool" + i);
+        }
+
+        HashSet<String> registeredAccounts = new HashSet<>();
+        for (int i = 0; i < poolCount; i++) {
+            registeredAccounts.add("stake1pool" + i);
+        }
+
+        NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+        ProtocolParameters protocolParameters = ProtocolParameters.builder()
+                .decentralisation(BigDecimal.ZERO)
+                .treasuryGrowRate(new BigDecimal("0.2"))
+                .monetaryExpandRate(new BigDecimal("0.003"))
+                .optimalPoolCount(500)
+                .poolOwnerInfluence(new BigDecimal("0.3"))
+                .build();
+        Epoch epochInfo = Epoch.builder()
+                .number(EPOCH - 2)
+                .blockCount(poolCount * 7)
+                .nonOBFTBlockCount(poolCount * 7)
+                .fees(BigInteger.valueOf(50_000_000_000L))
+                .activeStake(BigInteger.valueOf(2_500_000_000_000L).multiply(BigInteger.valueOf(poolCount)))
+                .build();
+
+        EpochCalculationResult epochCalculationResult = EpochCalculation.calculateEpochRewardPots(EPOCH,
+                new BigInteger("8000000000000000"), new BigInteger("1200000000000000"), protocolParameters, epochInfo,
+                new HashSet<>(), new HashSet<>(), new ArrayList<>(), poolIds, poolStates, new HashSet<>(),
+                registeredAccounts, registeredAccounts, new HashSet<>(), new HashSet<>(), networkConfig);
+
+        Assertions.assertEquals(poolCount, epochCalculationResult.getPoolRewardCalculationResults().size());
+        Assertions.assertTrue(isPositive(epochCalculationResult.getTotalDistributedRewards()));
+        return poolIdReads.get();
+    }
+
+    private static boolean isPositive(BigInteger value) {
+        return value.compareTo(BigInteger.ZERO) > 0;
+    }
+
+    @Test
+    void poolLookupInEpochCalculationIsLinearInPoolCount() {
+        long readsFor1000Pools = countPoolIdReadsInEpochCalculation(1_000);
+        long readsFor4000Pools = countPoolIdReadsInEpochCalculation(4_000);
+
+        // One read per pool to build the index. A linear scan per pool would need
+        // about 500k reads for 1k pools and 8M reads for 4k pools.
+        Assertions.assertTrue(readsFor1000Pools <= 2L * 1_000, "pool id reads for 1k pools: " + readsFor1000Pools);
+        Assertions.assertTrue(readsFor4000Pools <= 2L * 4_000, "pool id reads for 4k pools: " + readsFor4000Pools);
+        Assertions.assertTrue(readsFor4000Pools <= 5 * readsFor1000Pools,
+                "pool id reads grew super-linearly from " + readsFor1000Pools + " to " + readsFor4000Pools);
+    }
+
+    private static EpochCalculationResult calculateEpochWithDeregistrations(int poolCount, ForkJoinPool forkJoinPool) {
+        Random random = new Random(42);
+        List<PoolState> poolStates = new ArrayList<>();
+        List<String> poolIds = new ArrayList<>();
+        HashSet<String> registeredAccounts = new HashSet<>();
+        HashSet<String> deregisteredAccounts = new HashSet<>();
+        HashSet<String> lateDeregisteredAccounts = new HashSet<>();
+        BigInteger totalActiveStake = BigInteger.ZERO;
+
+        for (int i = 0; i < poolCount; i++) {
+            String rewardAddress = "stake1pool" + i;
+            HashSet<Delegator> delegators = new HashSet<>();
+            BigInteger poolStake = BigInteger.ZERO;
+            int delegatorCount = 1 + random.nextInt(20);
+            for (int j = 0; j < delegatorCount; j++) {
+                String stakeAddress = "stake1member" + i + "_" + j;
+                BigInteger stake = BigInteger.valueOf(1_000_000L + random.nextInt(1_000_000_000));
+                delegators.add(Delegator.builder().stakeAddress(stakeAddress).activeStake(stake).build());
+                poolStake = poolStake.add(stake);
+
+                int registrationState = random.nextInt(10);
+                if (registrationState == 0) {
+                    deregisteredAccounts.add(stakeAddress);
+                } else if (registrationState == 1) {
+                    lateDeregisteredAccounts.add(stakeAddress);
+                }
+            }
+
+            if (random.nextInt(10) > 0) {
+                registeredAccounts.add(rewardAddress);
+            }
+
+            PoolState poolState = PoolState.builder()
+                    .poolId("pool" + i)
+                    .epoch(EPOCH - 2)
+                    .rewardAddress(rewardAddress)
+                    .owners(new HashSet<>())
+                    .ownerActiveStake(BigInteger.ZERO)
+                    .activeStake(poolStake)
+                    .pledge(BigInteger.ZERO)
+                    .fixedCost(BigInteger.valueOf(340_000_000L))
+                    .margin(BigDecimal.valueOf(random.nextInt(50), 3))
+                    .blockCount(1 + random.nextInt(10))
+                    .delegators(delegators)
+                    .build();
+            poolStates.add(poolState);
+            poolIds.add(poolState.getPoolId());
+            totalActiveStake = totalActiveStake.add(poolStake);
+        }
+
+        int totalBlocks = poolStates.stream().mapToInt(PoolState::getBlockCount).sum();
+        ProtocolParameters protocolParameters = ProtocolParameters.builder()
+                .decentralisation(BigDecimal.ZERO)
+                .treasuryGrowRate(new BigDecimal("0.2"))
+                .monetaryExpandRate(new BigDecimal("0.003"))
+                .optimalPoolCount(500)
+                .poolOwnerInfluence(new BigDecimal("0.3"))
+                .build();
+        Epoch epochInfo = Epoch.builder()
+                .number(EPOCH - 2)
+                .blockCount(totalBlocks)
+                .nonOBFTBlockCount(totalBlocks)
+                .fees(BigInteger.valueOf(50_000_000_000L))
+                .activeStake(totalActiveStake)
+                .build();
+
+        return EpochCalculation.calculateEpochRewardPots(EPOCH,
+                new BigInteger("8000000000000000"), new BigInteger("1200000000000000"), protocolParameters, epochInfo,
+                new HashSet<>(), deregisteredAccounts, new ArrayList<>(), poolIds, poolStates, lateDeregisteredAccounts,
+                registeredAccounts, registeredAccounts, new HashSet<>(), new HashSet<>(), NetworkConfig.getMainnetConfig(),
+                forkJoinPool);
+    }
+
+    @Test
+    void parallelEpochCalculationIsIdenticalToSequentialCalculation() {
+        EpochCalculationResult sequentialResult = calculateEpochWithDeregistrations(2_000, null);
+        ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+        EpochCalculationResult parallelResult;
+        try {
+            parallelResult = calculateEpochWithDeregistrations(2_000, forkJoinPool);
+        } finally {
+            forkJoinPool.shutdown();
+        }
+
+        Assertions.assertEquals(sequentialResult.getTotalDistributedRewards(), parallelResult.getTotalDistributedRewards());
+        Assertions.assertEquals(sequentialResult.getReserves(), parallelResult.getReserves());
+        Assertions.assertEquals(sequentialResult.getTreasury(), parallelResult.getTreasury());
+        Assertions.assertEquals(sequentialResult.getTreasuryCalculationResult().getUnspendableEarnedRewards(),
+                parallelResult.getTreasuryCalculationResult().getUnspendableEarnedRewards());
+        Assertions.assertTrue(isPositive(parallelResult.getTreasuryCalculationResult().getUnspendableEarnedRewards()));
+
+        List<PoolRewardCalculationResult> sequentialPools = sequentialResult.getPoolRewardCalculationResults();
+        List<PoolRewardCalculationResult> parallelPools = parallelResult.getPoolRewardCalculationResults();
+        Assertions.assertEquals(sequentialPools.size(), parallelPools.size());
+        for (int i = 0; i < sequentialPools.size(); i++) {
+            Assertions.assertEquals(sequentialPools.get(i).getPoolId(), parallelPools.get(i).getPoolId());
+            Assertions.assertEquals(sequentialPools.get(i).getDistributedPoolReward(), parallelPools.get(i).getDistributedPoolReward());
+            Assertions.assertEquals(sequentialPools.get(i).getUnspendableEarnedRewards(), parallelPools.get(i).getUnspendableEarnedRewards());
+        }
+    }
+
+    private static EpochCalculationResult calculateEpochWithSink(List<PoolState> poolStates,
+                                                                 Consumer<PoolRewardCalculationResult> poolRewardConsumer,
+                                                                 StakeAddressDictionary stakeAddressDictionary, RewardSink memberRewardSink) {
+        ProtocolParameters protocolParameters = ProtocolParameters.builder()
+                .decentralisation(BigDecimal.ZERO)
+                .treasuryGrowRate(new BigDecimal("0.2"))
+                .monetaryExpandRate(new BigDecimal("0.003"))
+                .optimalPoolCount(500)
+                .poolOwnerInfluence(new BigDecimal("0.3"))
+                .build();
+        Epoch epochInfo = Epoch.builder()
+                .number(EPOCH - 2)
+                .blockCount(poolStates.size() * 7)
+                .nonOBFTBlockCount(poolStates.size() * 7)
+                .fees(BigInteger.valueOf(50_000_000_000L))
+                .activeStake(BigInteger.valueOf(2_500_000_000_000L).multiply(BigInteger.valueOf(poolStates.size())))
+                .build();
+
+        return EpochCalculation.calculateEpochRewardPots(EPOCH,
+                new BigInteger("8000000000000000"), new BigInteger("1200000000000000"), protocolParameters, epochInfo,
+                new HashSet<>(), new HashSet<>(), new ArrayList<>(), poolStates.iterator(), new HashSet<>(),
+                new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), NetworkConfig.getMainnetConfig(),
+                poolRewardConsumer, stakeAddressDictionary, memberRewardSink);
+    }
+
+    @Test
+    void aMemberRewardSinkPassesTheIdsOfTheGivenDictionary() {
+        List<PoolState> poolStates = createPoolStates(10, new AtomicLong());
+        StakeAddressDictionary stakeAddressDictionary = new StakeAddressDictionary();
+        poolStates.forEach(poolState -> poolState.replaceDelegators(DelegatorStakes.of(poolState.getDelegators(), stakeAddressDictionary)));
+        List<String> rewardedStakeAddresses = new ArrayList<>();
+
+        calculateEpochWithSink(poolStates, poolRewardCalculationResult -> {}, stakeAddressDictionary, new RewardSink() {
+            @Override
+            public void accept(int stakeAddressId, long amount) {
+                rewardedStakeAddresses.add(stakeAddressDictionary.getStakeAddress(stakeAddressId));
+            }
+
+            @Override
+            public void accept(String stakeAddress, long amount) {
+                Assertions.fail("The stake address " + stakeAddress + " has not been passed by its id");
+            }
+        });
+
+        // The reward addresses are the owners of the pools and do not receive member rewards
+        Assertions.assertEquals(10, rewardedStakeAddresses.size());
+        Assertions.assertTrue(rewardedStakeAddresses.stream().allMatch(stakeAddress -> stakeAddress.startsWith("stake1member")));
+    }
+
+    @Test
+    void aMemberRewardSinkWithoutDictionaryIsPassedTheStakeAddresses() {
+        List<PoolState> poolStates = createPoolStates(10, new AtomicLong());
+        List<String> rewardedStakeAddresses = new ArrayList<>();
+
+        calculateEpochWithSink(poolStates, poolRewardCalculationResult -> {}, null, new RewardSink() {
+            @Override
+            public void accept(int stakeAddressId, long amount) {
+                Assertions.fail("The sink has been passed the id " + stakeAddressId);
+            }
+
+            @Override
+            public void accept(String stakeAddress, long amount) {
+                rewardedStakeAddresses.add(stakeAddress);
+            }
+        });
+
+        Assertions.assertEquals(10, rewardedStakeAddresses.size());
+        Assertions.assertTrue(rewardedStakeAddresses.stream().allMatch(stakeAddress -> stakeAddress.startsWith("stake1member")));
+    }
+
+    @Test
+    void aMissingPoolRewardConsumerIsRejected() {
+        List<PoolState> poolStates = createPoolStates(10, new AtomicLong());
+
+        Assertions.assertThrows(NullPointerException.class,
+                () -> calculateEpochWithSink(poolStates, null, new StakeAddressDictionary(), RewardSink.DISCARD));
+        Assertions.assertThrows(NullPointerException.class,
+                () -> calculateEpochWithSink(poolStates, null, null, null));
+    }
+}
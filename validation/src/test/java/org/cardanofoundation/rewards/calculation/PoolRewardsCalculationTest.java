@@ -0,0 +1,268 @@
+package org.cardanofoundation.rewards.calculation;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.*;
+import org.cardanofoundation.rewards.calculation.util.Rational;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class PoolRewardsCalculationTest {
+
+    // An epoch after the Vasil hard fork, where deregistered accounts are treated as late deregistrations
+    private static final int EARNED_EPOCH = 420;
+    private static final int POOL_COUNT = 200;
+    private static final int THREAD_COUNT = 8;
+
+    private static final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+    private static final ProtocolParameters protocolParameters = ProtocolParameters.builder()
+            .decentralisation(BigDecimal.ZERO)
+            .treasuryGrowRate(new BigDecimal("0.2"))
+            .monetaryExpandRate(new BigDecimal("0.003"))
+            .optimalPoolCount(500)
+            .poolOwnerInfluence(new BigDecimal("0.3"))
+            .build();
+    private static final BigInteger adaInCirculation = new BigInteger("34000000000000000");
+    private static final BigInteger activeStakeInEpoch = new BigInteger("25000000000000000");
+    private static final BigInteger stakePoolRewardsPot = new BigInteger("20000000000000");
+
+    private final List<PoolState> poolStates = new ArrayList<>();
+    private final Set<String> deregisteredAccounts = new HashSet<>();
+    private final Set<String> lateDeregisteredAccounts = new HashSet<>();
+    private final Set<String> registeredAccounts = new HashSet<>();
+
+    private void createEpoch() {
+        Random random = new Random(7);
+        for (int i = 0; i < POOL_COUNT; i++) {
+            String rewardAddress = "stake1pool" + i;
+            HashSet<Delegator> delegators = new HashSet<>();
+            BigInteger poolStake = BigInteger.ZERO;
+            int delegatorCount = 1 + random.nextInt(50);
+            for (int j = 0; j < delegatorCount; j++) {
+                String stakeAddress = "stake1member" + i + "_" + j;
+                BigInteger stake = BigInteger.valueOf(1_000_000L + random.nextInt(Integer.MAX_VALUE));
+                delegators.add(Delegator.builder().stakeAddress(stakeAddress).activeStake(stake).build());
+                poolStake = poolStake.add(stake);
+
+                int registrationState = random.nextInt(8);
+                if (registrationState == 0) {
+                    deregisteredAccounts.add(stakeAddress);
+                } else if (registrationState == 1) {
+                    lateDeregisteredAccounts.add(stakeAddress);
+                }
+            }
+
+            if (random.nextInt(8) > 0) {
+                registeredAccounts.add(rewardAddress);
+            }
+            if (random.nextInt(8) == 0) {
+                deregisteredAccounts.add(rewardAddress);
+            }
+
+            poolStates.add(PoolState.builder()
+                    .poolId("pool" + i)
+                    .epoch(EARNED_EPOCH)
+                    .rewardAddress(rewardAddress)
+                    .owners(new HashSet<>())
+                    .ownerActiveStake(BigInteger.ZERO)
+                    .activeStake(poolStake)
+                    .pledge(BigInteger.ZERO)
+                    .fixedCost(BigInteger.valueOf(340_000_000L))
+                    .margin(BigDecimal.valueOf(random.nextInt(50), 3))
+                    .blockCount(1 + random.nextInt(10))
+                    .delegators(delegators)
+                    .build());
+        }
+    }
+
+    private PoolRewardCalculationResult calculatePoolReward(PoolState poolState) {
+        return PoolRewardsCalculation.calculatePoolRewardInEpoch(poolState.getPoolId(), poolState, 21_600,
+                protocolParameters, adaInCirculation, activeStakeInEpoch, stakePoolRewardsPot,
+                poolState.getOwnerActiveStake(), poolState.getOwners(), deregisteredAccounts, false,
+                lateDeregisteredAccounts, registeredAccounts, networkConfig);
+    }
+
+    private static void assertSameResult(PoolRewardCalculationResult expected, PoolRewardCalculationResult actual) {
+        Assertions.assertEquals(expected.getPoolId(), actual.getPoolId());
+        Assertions.assertEquals(expected.getPoolReward(), actual.getPoolReward());
+        Assertions.assertEquals(expected.getOperatorReward(), actual.getOperatorReward());
+        Assertions.assertEquals(expected.getDistributedPoolReward(), actual.getDistributedPoolReward());
+        Assertions.assertEquals(expected.getUnspendableEarnedRewards(), actual.getUnspendableEarnedRewards());
+        Assertions.assertEquals(memberRewardsByStakeAddress(expected), memberRewardsByStakeAddress(actual));
+    }
+
+    private static Map<String, BigInteger> memberRewardsByStakeAddress(PoolRewardCalculationResult result) {
+        Map<String, BigInteger> memberRewards = new HashMap<>();
+        for (Reward reward : result.getMemberRewards()) {
+            memberRewards.put(reward.getStakeAddress(), reward.getAmount());
+        }
+        return memberRewards;
+    }
+
+    @Test
+    void calculatePoolRewardInEpochDoesNotModifyItsInput() {
+        createEpoch();
+        Set<String> deregisteredAccountsBefore = new HashSet<>(deregisteredAccounts);
+        Set<String> lateDeregisteredAccountsBefore = new HashSet<>(lateDeregisteredAccounts);
+        Set<String> registeredAccountsBefore = new HashSet<>(registeredAccounts);
+        List<BigInteger> activeStakesBefore = poolStates.stream().map(PoolState::getActiveStake).toList();
+
+        for (PoolState poolState : poolStates) {
+            calculatePoolReward(poolState);
+        }
+
+        Assertions.assertEquals(deregisteredAccountsBefore, deregisteredAccounts);
+        Assertions.assertEquals(lateDeregisteredAccountsBefore, lateDeregisteredAccounts);
+        Assertions.assertEquals(registeredAccountsBefore, registeredAccounts);
+        Assertions.assertEquals(activeStakesBefore, poolStates.stream().map(PoolState::getActiveStake).toList());
+    }
+
+    @Test
+    void concurrentPoolRewardCalculationsSharingTheirInputAreIdenticalToSequentialCalculations() throws Exception {
+        createEpoch();
+        List<PoolRewardCalculationResult> sequentialResults = new ArrayList<>();
+        for (PoolState poolState : poolStates) {
+            sequentialResults.add(calculatePoolReward(poolState));
+        }
+        Assertions.assertTrue(sequentialResults.stream()
+                .anyMatch(result -> result.getUnspendableEarnedRewards().signum() > 0));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            // Every thread calculates all pools in a different order on the same shared input
+            List<Future<Map<String, PoolRewardCalculationResult>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                List<PoolState> shuffledPoolStates = new ArrayList<>(poolStates);
+                Collections.shuffle(shuffledPoolStates, new Random(thread));
+                futures.add(executorService.submit(() -> {
+                    Map<String, PoolRewardCalculationResult> results = new HashMap<>();
+                    for (PoolState poolState : shuffledPoolStates) {
+                        results.put(poolState.getPoolId(), calculatePoolReward(poolState));
+                    }
+                    return results;
+                }));
+            }
+
+            for (Future<Map<String, PoolRewardCalculationResult>> future : futures) {
+                Map<String, PoolRewardCalculationResult> concurrentResults = future.get();
+                for (PoolRewardCalculationResult sequentialResult : sequentialResults) {
+                    assertSameResult(sequentialResult, concurrentResults.get(sequentialResult.getPoolId()));
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void delegatorStakesGiveTheSameRewardsAsTheDelegatorsSet() {
+        createEpoch();
+        StakeAddressDictionary epochDictionary = new StakeAddressDictionary();
+        AccountStatusIndex accountStatusIndex = AccountStatusIndex.of(epochDictionary, deregisteredAccounts,
+                lateDeregisteredAccounts, registeredAccounts);
+
+        for (PoolState poolState : poolStates) {
+            PoolRewardCalculationResult expected = calculatePoolReward(poolState);
+
+            // With the ids of the epoch and with ids of another dictionary, which are resolved by their address
+            for (StakeAddressDictionary dictionary : List.of(epochDictionary, new StakeAddressDictionary())) {
+                PoolState poolStateWithStakes = PoolState.builder()
+                        .poolId(poolState.getPoolId())
+                        .epoch(poolState.getEpoch())
+                        .rewardAddress(poolState.getRewardAddress())
+                        .owners(poolState.getOwners())
+                        .ownerActiveStake(poolState.getOwnerActiveStake())
+                        .activeStake(poolState.getActiveStake())
+                        .pledge(poolState.getPledge())
+                        .fixedCost(poolState.getFixedCost())
+                        .margin(poolState.getMargin())
+                        .blockCount(poolState.getBlockCount())
+                        .build();
+                poolStateWithStakes.replaceDelegators(DelegatorStakes.of(poolState.getDelegators(), dictionary));
+
+                assertSameResult(expected, PoolRewardsCalculation.calculatePoolRewardInEpoch(poolState.getPoolId(),
+                        poolStateWithStakes, 21_600, protocolParameters, adaInCirculation, activeStakeInEpoch,
+                        stakePoolRewardsPot, poolState.getOwnerActiveStake(), poolState.getOwners(), accountStatusIndex,
+                        false, networkConfig));
+            }
+        }
+    }
+
+    @Test
+    void rewardSinkReceivesTheSameMemberRewards() {
+        createEpoch();
+        StakeAddressDictionary dictionary = new StakeAddressDictionary();
+        AccountStatusIndex accountStatusIndex = AccountStatusIndex.of(dictionary, deregisteredAccounts,
+                lateDeregisteredAccounts, registeredAccounts);
+        // Half of the pools have delegators with an id
+        for (int i = 0; i < poolStates.size(); i += 2) {
+            poolStates.get(i).replaceDelegators(DelegatorStakes.of(poolStates.get(i).getDelegators(), dictionary));
+        }
+
+        for (PoolState poolState : poolStates) {
+            PoolRewardCalculationResult expected = calculatePoolReward(poolState);
+
+            Map<String, BigInteger> memberRewards = new HashMap<>();
+            PoolRewardCalculationResult actual = PoolRewardsCalculation.calculatePoolRewardInEpoch(poolState.getPoolId(),
+                    poolState, 21_600, protocolParameters, adaInCirculation, activeStakeInEpoch, stakePoolRewardsPot,
+                    poolState.getOwnerActiveStake(), poolState.getOwners(), accountStatusIndex, false, networkConfig,
+                    new RewardSink() {
+                        @Override
+                        public void accept(int stakeAddressId, long amount) {
+                            memberRewards.put(dictionary.getStakeAddress(stakeAddressId), BigInteger.valueOf(amount));
+                        }
+
+                        @Override
+                        public void accept(String stakeAddress, long amount) {
+                            memberRewards.put(stakeAddress, BigInteger.valueOf(amount));
+                        }
+                    });
+
+            Assertions.assertNull(actual.getMemberRewards());
+            Assertions.assertEquals(expected.getDistributedPoolReward(), actual.getDistributedPoolReward());
+            Assertions.assertEquals(expected.getUnspendableEarnedRewards(), actual.getUnspendableEarnedRewards());
+            Assertions.assertEquals(memberRewardsByStakeAddress(expected), memberRewards);
+        }
+    }
+
+    @Test
+    void memberRewardIsFlooredOnceOnTheExactFraction() {
+        // A member holding a third of the pool stake receives exactly a third of the pool reward.
+        // Dividing the relative stakes with 20 significant digits results in 999999999999.99999999
+        // and the reward would be floored to one lovelace less.
+        BigInteger poolCost = BigInteger.valueOf(340_000_000L);
+        BigInteger memberReward = PoolRewardsCalculation.calculateMemberReward(
+                BigInteger.valueOf(3_000_000_000_000L).add(poolCost), Rational.ZERO, poolCost,
+                Rational.of(BigInteger.valueOf(1_000_000_000_000L), adaInCirculation),
+                Rational.of(BigInteger.valueOf(3_000_000_000_000L), adaInCirculation));
+
+        Assertions.assertEquals(BigInteger.valueOf(1_000_000_000_000L), memberReward);
+    }
+
+    @Test
+    void longMemberRewardIsIdenticalToExactMemberReward() {
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            long poolStake = 1 + (random.nextLong() >>> (8 + random.nextInt(40)));
+            long memberStake = Math.floorMod(random.nextLong(), poolStake) + 1;
+            long poolCost = 170_000_000L + random.nextInt(1_000_000_000);
+            long poolReward = poolCost + (random.nextLong() >>> (14 + random.nextInt(40)));
+            // Margins as stored by db-sync, from a few digits to long fractions that exceed the long path
+            Rational margin = Rational.of(new BigDecimal(BigInteger.valueOf(random.nextInt(1_000_000)), 6)
+                    .multiply(new BigDecimal(BigInteger.valueOf(1 + random.nextInt(3)), random.nextInt(12))).min(BigDecimal.ONE));
+
+            BigInteger expected = PoolRewardsCalculation.calculateMemberReward(BigInteger.valueOf(poolReward), margin,
+                    BigInteger.valueOf(poolCost), Rational.of(memberStake), Rational.of(poolStake));
+
+            Assertions.assertEquals(expected.longValueExact(),
+                    PoolRewardsCalculation.calculateMemberReward(poolReward, margin, poolCost, memberStake, poolStake),
+                    "member reward for " + poolReward + ", " + margin + ", " + poolCost + ", " + memberStake + ", " + poolStake);
+        }
+    }
+}
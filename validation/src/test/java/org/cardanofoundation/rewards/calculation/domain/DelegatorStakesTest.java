@@ -0,0 +1,106 @@
+package org.cardanofoundation.rewards.calculation.domain;
+
+import org.cardanofoundation.rewards.validation.util.JsonConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class DelegatorStakesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static HashSet<Delegator> createDelegators(int count) {
+        HashSet<Delegator> delegators = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            delegators.add(Delegator.builder().stakeAddress("stake1u" + i).activeStake(BigInteger.valueOf(1_000_000L * i + 1)).build());
+        }
+        return delegators;
+    }
+
+    private static Map<String, BigInteger> stakeByAddress(HashSet<Delegator> delegators) {
+        return delegators.stream().collect(Collectors.toMap(Delegator::getStakeAddress, Delegator::getActiveStake));
+    }
+
+    @Test
+    void delegatorsAreStoredAsIdsAndStakes() {
+        StakeAddressDictionary dictionary = new StakeAddressDictionary();
+        HashSet<Delegator> delegators = createDelegators(1_000);
+        DelegatorStakes delegatorStakes = DelegatorStakes.of(delegators, dictionary);
+
+        Assertions.assertEquals(1_000, delegatorStakes.size());
+        Assertions.assertEquals(1_000, dictionary.size());
+        Assertions.assertSame(dictionary, delegatorStakes.getStakeAddressDictionary());
+        Assertions.assertEquals(stakeByAddress(delegators), stakeByAddress(delegatorStakes.toDelegators()));
+
+        long totalStake = 0;
+        int count = 0;
+        DelegatorStakes.Cursor cursor = delegatorStakes.cursor();
+        while (cursor.next()) {
+            Assertions.assertEquals(cursor.getStakeAddress(), dictionary.getStakeAddress(cursor.getStakeAddressId()));
+            Assertions.assertEquals(cursor.getActiveStake(), delegatorStakes.getActiveStake(count));
+            totalStake += cursor.getActiveStake();
+            count++;
+        }
+        Assertions.assertFalse(cursor.next());
+        Assertions.assertEquals(1_000, count);
+        Assertions.assertEquals(delegators.stream().mapToLong(delegator -> delegator.getActiveStake().longValueExact()).sum(), totalStake);
+    }
+
+    @Test
+    void delegatorsCanBeAddedOneByOne() {
+        StakeAddressDictionary dictionary = new StakeAddressDictionary();
+        HashSet<Delegator> delegators = createDelegators(1_000);
+        DelegatorStakes.Builder builder = DelegatorStakes.builder(dictionary);
+        for (Delegator delegator : delegators) {
+            builder.add(delegator.getStakeAddress(), delegator.getActiveStake().longValueExact());
+        }
+        DelegatorStakes delegatorStakes = builder.build();
+
+        Assertions.assertEquals(1_000, delegatorStakes.size());
+        Assertions.assertEquals(1_000, dictionary.size());
+        Assertions.assertEquals(stakeByAddress(delegators), stakeByAddress(delegatorStakes.toDelegators()));
+        Assertions.assertEquals(0, DelegatorStakes.builder(dictionary).build().size());
+    }
+
+    @Test
+    void stakesThatDoNotFitIntoALongAreRejected() {
+        HashSet<Delegator> delegators = new HashSet<>();
+        delegators.add(Delegator.builder().stakeAddress("stake1u").activeStake(BigInteger.TWO.pow(64)).build());
+
+        Assertions.assertThrows(ArithmeticException.class, () -> DelegatorStakes.of(delegators, new StakeAddressDictionary()));
+    }
+
+    @Test
+    void poolStateConvertsDelegatorStakesToTheDelegatorsSet() throws IOException {
+        HashSet<Delegator> delegators = createDelegators(100);
+        PoolState poolState = PoolState.builder().poolId("pool1").delegators(delegators).build();
+        Assertions.assertNull(poolState.delegatorStakes());
+
+        poolState.replaceDelegators(DelegatorStakes.of(delegators, new StakeAddressDictionary()));
+        Assertions.assertNotNull(poolState.delegatorStakes());
+        Assertions.assertNull(poolState.getDelegators());
+        Assertions.assertEquals(stakeByAddress(delegators), stakeByAddress(poolState.toDelegators()));
+        Assertions.assertNotSame(poolState.toDelegators(), poolState.toDelegators());
+        Assertions.assertNull(poolState.toBuilder().build().delegatorStakes());
+
+        // The json mapping writes the delegators set converted by toDelegators
+        String filePath = tempDir.resolve("pool-state.json.gz").toString();
+        JsonConverter.writeObjectToCompressedJsonFile(poolState, filePath);
+        PoolState readPoolState = JsonConverter.readJsonFile(filePath, PoolState.class);
+        Assertions.assertNull(readPoolState.delegatorStakes());
+        Assertions.assertEquals(stakeByAddress(delegators), stakeByAddress(readPoolState.getDelegators()));
+
+        poolState.setDelegators(new HashSet<>());
+        Assertions.assertNull(poolState.delegatorStakes());
+        Assertions.assertTrue(poolState.getDelegators().isEmpty());
+        Assertions.assertSame(poolState.getDelegators(), poolState.toDelegators());
+    }
+}
@@ -0,0 +1,76 @@
+package org.cardanofoundation.rewards.calculation.domain;
+
+import org.cardanofoundation.rewards.calculation.enums.AccountStatus;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+public class StakeAddressDictionaryTest {
+
+    @Test
+    void stakeAddressesGetDenseIdsInTheOrderTheyHaveBeenAdded() {
+        StakeAddressDictionary dictionary = new StakeAddressDictionary(4);
+        for (int i = 0; i < 100_000; i++) {
+            Assertions.assertEquals(i, dictionary.add("stake1u" + i));
+        }
+
+        Assertions.assertEquals(100_000, dictionary.size());
+        for (int i = 0; i < 100_000; i++) {
+            Assertions.assertEquals(i, dictionary.add("stake1u" + i));
+            Assertions.assertEquals(i, dictionary.getId("stake1u" + i));
+            Assertions.assertEquals("stake1u" + i, dictionary.getStakeAddress(i));
+        }
+        Assertions.assertEquals(100_000, dictionary.size());
+        Assertions.assertEquals(StakeAddressDictionary.NOT_FOUND, dictionary.getId("stake1unknown"));
+        Assertions.assertEquals(StakeAddressDictionary.NOT_FOUND, dictionary.getId(null));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> dictionary.getStakeAddress(100_000));
+    }
+
+    @Test
+    void equalStakeAddressesAreInternedToTheSameInstance() {
+        StakeAddressDictionary dictionary = new StakeAddressDictionary();
+        String stakeAddress = dictionary.intern(new String("stake1u8a9qstrmj4rvc3k5z8fems7f0j2vzrh0vmk9vtjwnrk7vcg5pnkp"));
+
+        Assertions.assertSame(stakeAddress, dictionary.intern(new String("stake1u8a9qstrmj4rvc3k5z8fems7f0j2vzrh0vmk9vtjwnrk7vcg5pnkp")));
+        Assertions.assertNull(dictionary.intern(null));
+
+        BitSet ids = dictionary.addAll(List.of("stake1a", stakeAddress, "stake1b"));
+        Assertions.assertEquals(3, ids.cardinality());
+        Assertions.assertTrue(ids.get(0));
+        Assertions.assertEquals(3, dictionary.size());
+    }
+
+    @Test
+    void accountStatusIsLookedUpByIdAndByStakeAddress() {
+        StakeAddressDictionary dictionary = new StakeAddressDictionary();
+        int delegatorId = dictionary.add("stake1delegator");
+        dictionary.add("stake1deregistered");
+        AccountStatusIndex accountStatusIndex = AccountStatusIndex.of(dictionary,
+                Set.of("stake1deregistered", "stake1both"), Set.of("stake1late", "stake1both"),
+                Set.of("stake1registered", "stake1late"));
+
+        Assertions.assertSame(dictionary, accountStatusIndex.getStakeAddressDictionary());
+        Assertions.assertEquals(AccountStatus.REGISTERED, accountStatusIndex.getStatus(delegatorId));
+        Assertions.assertEquals(AccountStatus.REGISTERED, accountStatusIndex.getStatus(StakeAddressDictionary.NOT_FOUND));
+        Assertions.assertEquals(AccountStatus.REGISTERED, accountStatusIndex.getStatus("stake1unknown"));
+        Assertions.assertEquals(AccountStatus.DEREGISTERED, accountStatusIndex.getStatus("stake1both"));
+        Assertions.assertEquals(AccountStatus.DEREGISTERED, accountStatusIndex.getStatus(dictionary.getId("stake1deregistered")));
+        Assertions.assertEquals(AccountStatus.LATE_DEREGISTERED, accountStatusIndex.getStatus("stake1late"));
+
+        Assertions.assertEquals(AccountStatus.UNREGISTERED, accountStatusIndex.getRewardAddressStatus("stake1unknown"));
+        Assertions.assertEquals(AccountStatus.UNREGISTERED, accountStatusIndex.getRewardAddressStatus(delegatorId));
+        Assertions.assertEquals(AccountStatus.REGISTERED, accountStatusIndex.getRewardAddressStatus("stake1registered"));
+        Assertions.assertEquals(AccountStatus.LATE_DEREGISTERED, accountStatusIndex.getRewardAddressStatus("stake1late"));
+
+        // The dictionary of the epoch is only read, the accounts that are not in it are looked up by their address
+        Assertions.assertEquals(2, dictionary.size());
+        Assertions.assertEquals(StakeAddressDictionary.NOT_FOUND, dictionary.getId("stake1late"));
+
+        // Ids added to the dictionary after the index has been built are looked up by their address
+        Assertions.assertEquals(AccountStatus.LATE_DEREGISTERED, accountStatusIndex.getStatus(dictionary.add("stake1late")));
+        Assertions.assertEquals(AccountStatus.REGISTERED, accountStatusIndex.getRewardAddressStatus(dictionary.add("stake1registered")));
+    }
+}
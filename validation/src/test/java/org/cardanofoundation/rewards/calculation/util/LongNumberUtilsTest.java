@@ -0,0 +1,58 @@
+package org.cardanofoundation.rewards.calculation.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+public class LongNumberUtilsTest {
+
+    private static long floorDivideWithBigInteger(long a, long b, long c) {
+        return BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divide(BigInteger.valueOf(c)).longValueExact();
+    }
+
+    private static long randomNonNegativeLong(Random random) {
+        // Spread the values over all magnitudes instead of mostly picking values close to 2^63
+        return random.nextLong() >>> (1 + random.nextInt(63));
+    }
+
+    @Test
+    void multiplyAndFloorDivideMatchesBigInteger() {
+        Random random = new Random(2024);
+        int compared = 0;
+        while (compared < 1_000_000) {
+            long a = randomNonNegativeLong(random);
+            long b = randomNonNegativeLong(random);
+            long c = Math.max(1, randomNonNegativeLong(random));
+
+            BigInteger quotient = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divide(BigInteger.valueOf(c));
+            if (quotient.bitLength() >= Long.SIZE) {
+                Assertions.assertThrows(ArithmeticException.class, () -> LongNumberUtils.multiplyAndFloorDivide(a, b, c));
+                continue;
+            }
+
+            Assertions.assertEquals(quotient.longValue(), LongNumberUtils.multiplyAndFloorDivide(a, b, c),
+                    "floor(" + a + " * " + b + " / " + c + ")");
+            compared++;
+        }
+    }
+
+    @Test
+    void multiplyAndFloorDivideHandlesBoundaries() {
+        long[][] cases = {
+                {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE},
+                {Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE},
+                {Long.MAX_VALUE, 2, 3},
+                {45_000_000_000_000_000L, 45_000_000_000_000_000L, 45_000_000_000_000_001L},
+                {1L << 32, 1L << 32, (1L << 32) + 1},
+                {0, Long.MAX_VALUE, 1},
+                {(1L << 62) + 1, 4, 3},
+        };
+
+        for (long[] values : cases) {
+            Assertions.assertEquals(floorDivideWithBigInteger(values[0], values[1], values[2]),
+                    LongNumberUtils.multiplyAndFloorDivide(values[0], values[1], values[2]));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.cardanofoundation.rewards.calculation.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+public class RationalTest {
+
+    @Test
+    void decimalsAreConvertedWithoutLoss() {
+        Assertions.assertEquals(Rational.of(7, 200), Rational.of(new BigDecimal("0.035")));
+        Assertions.assertEquals(Rational.of(1200), Rational.of(new BigDecimal("1.2E+3")));
+        Assertions.assertEquals(Rational.of(1, 3).hashCode(), Rational.of(2, 6).hashCode());
+    }
+
+    @Test
+    void floorRoundsTowardsNegativeInfinity() {
+        Assertions.assertEquals(BigInteger.valueOf(3), Rational.of(7, 2).floor());
+        Assertions.assertEquals(BigInteger.valueOf(-4), Rational.of(-7, 2).floor());
+        Assertions.assertEquals(BigInteger.valueOf(-4), Rational.of(7, -2).floor());
+        Assertions.assertEquals(BigInteger.valueOf(4), Rational.of(8, 2).floor());
+    }
+
+    @Test
+    void arithmeticIsExact() {
+        Rational third = Rational.of(1, 3);
+        Assertions.assertEquals(Rational.ONE, third.add(third).add(third));
+        Assertions.assertEquals(Rational.ZERO, Rational.ONE.subtract(third.multiply(BigInteger.valueOf(3))));
+        Assertions.assertEquals(Rational.of(9, 1), Rational.of(3).divide(third));
+        Assertions.assertEquals(third, Rational.ONE.min(third));
+    }
+
+    @Test
+    void repeatedOperationsKeepTheDenominatorBounded() {
+        Rational sum = Rational.ZERO;
+        for (int i = 0; i < 1000; i++) {
+            sum = sum.add(Rational.of(1, 6)).subtract(Rational.of(1, 6));
+        }
+        Assertions.assertTrue(sum.isZero());
+        Assertions.assertTrue(sum.getDenominator().bitLength() <= 512);
+    }
+}
@@ -0,0 +1,107 @@
+package org.cardanofoundation.rewards.validation;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.AdaPots;
+import org.cardanofoundation.rewards.calculation.domain.EpochCalculationResult;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.data.provider.EpochValidationInputLoader;
+import org.cardanofoundation.rewards.validation.domain.EpochReplayResult;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.util.StakeAddressInterner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.math.BigInteger;
+import java.util.List;
+
+public class EpochReplayTest {
+
+    private static final int END_EPOCH = 212;
+
+    private final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+    private final SyntheticEpochGenerator generator = new SyntheticEpochGenerator(3, networkConfig);
+
+    private EpochValidationInput generate(int epoch) {
+        EpochValidationInput epochValidationInput = generator.generate(epoch, 100, 3_000);
+        StakeAddressInterner.intern(epochValidationInput);
+        return epochValidationInput;
+    }
+
+    /*
+     * Replaces the reference pots of the synthetic epochs by the given pots, so that a replay matches them.
+     */
+    private EpochValidationInputLoader withReferencePots(List<AdaPots> referenceAdaPots) {
+        return epoch -> {
+            EpochValidationInput epochValidationInput = generate(epoch);
+            AdaPots adaPotsOfPreviousEpoch = referenceAdaPots.get(epoch - 1 - networkConfig.getShelleyStartEpoch());
+            epochValidationInput.setReservesOfPreviousEpoch(adaPotsOfPreviousEpoch.getReserves());
+            epochValidationInput.setTreasuryOfPreviousEpoch(adaPotsOfPreviousEpoch.getTreasury());
+            return epochValidationInput;
+        };
+    }
+
+    @Test
+    void eachEpochIsCalculatedOnThePotsCalculatedForThePreviousEpoch() throws Exception {
+        EpochReplayResult epochReplayResult = EpochReplay.replay(END_EPOCH, this::generate, networkConfig);
+
+        BigInteger reserves = networkConfig.getShelleyInitialReserves();
+        BigInteger treasury = networkConfig.getShelleyInitialTreasury();
+        List<AdaPots> calculatedAdaPots = epochReplayResult.getCalculatedAdaPots();
+        Assertions.assertEquals(END_EPOCH - networkConfig.getShelleyStartEpoch() + 1, calculatedAdaPots.size());
+        Assertions.assertEquals(reserves, calculatedAdaPots.get(0).getReserves());
+        Assertions.assertEquals(treasury, calculatedAdaPots.get(0).getTreasury());
+
+        for (int epoch = networkConfig.getShelleyStartEpoch() + 1; epoch <= END_EPOCH; epoch++) {
+            EpochCalculationResult epochCalculationResult = EpochValidation.calculateEpochRewardPots(epoch, generate(epoch),
+                    reserves, treasury, networkConfig);
+            reserves = epochCalculationResult.getReserves();
+            treasury = epochCalculationResult.getTreasury();
+
+            AdaPots adaPots = calculatedAdaPots.get(epoch - networkConfig.getShelleyStartEpoch());
+            Assertions.assertEquals(epoch, adaPots.getEpoch());
+            Assertions.assertEquals(reserves, adaPots.getReserves());
+            Assertions.assertEquals(treasury, adaPots.getTreasury());
+        }
+
+        // The pots of the synthetic epochs are random
+        Assertions.assertTrue(epochReplayResult.hasDiverged());
+        Assertions.assertEquals(networkConfig.getShelleyStartEpoch(), epochReplayResult.getFirstDivergentEpoch());
+    }
+
+    @Test
+    void theFirstDivergenceFromTheReferencePotsIsReported() throws Exception {
+        List<AdaPots> calculatedAdaPots = EpochReplay.replay(END_EPOCH, this::generate, networkConfig).getCalculatedAdaPots();
+
+        EpochReplayResult matchingReplay = EpochReplay.replay(END_EPOCH - 1, withReferencePots(calculatedAdaPots), networkConfig);
+        Assertions.assertFalse(matchingReplay.hasDiverged());
+        Assertions.assertEquals(END_EPOCH - networkConfig.getShelleyStartEpoch(), matchingReplay.getComparedEpochs());
+
+        AdaPots adaPotsOfEpoch210 = calculatedAdaPots.get(210 - networkConfig.getShelleyStartEpoch());
+        adaPotsOfEpoch210.setTreasury(adaPotsOfEpoch210.getTreasury().add(BigInteger.ONE));
+        EpochReplayResult divergentReplay = EpochReplay.replay(END_EPOCH - 1, withReferencePots(calculatedAdaPots), networkConfig);
+        Assertions.assertTrue(divergentReplay.hasDiverged());
+        Assertions.assertEquals(210, divergentReplay.getFirstDivergentEpoch());
+        Assertions.assertEquals(adaPotsOfEpoch210.getTreasury(), divergentReplay.getReferenceAdaPotsOfFirstDivergentEpoch().getTreasury());
+        Assertions.assertEquals(adaPotsOfEpoch210.getTreasury().subtract(BigInteger.ONE),
+                divergentReplay.getCalculatedAdaPotsOfFirstDivergentEpoch().getTreasury());
+    }
+
+    @Test
+    void theReferencePotsOfTheEndEpochAreOptional() throws Exception {
+        EpochReplayResult epochReplayResult = EpochReplay.replay(END_EPOCH, epoch -> {
+            if (epoch > END_EPOCH) {
+                throw new FileNotFoundException("epoch-validation-input-" + epoch + ".json.gz");
+            }
+            return generate(epoch);
+        }, networkConfig);
+
+        Assertions.assertEquals(END_EPOCH - networkConfig.getShelleyStartEpoch(), epochReplayResult.getComparedEpochs());
+        Assertions.assertThrows(FileNotFoundException.class, () -> EpochReplay.replay(END_EPOCH, epoch -> {
+            if (epoch == END_EPOCH) {
+                throw new FileNotFoundException("epoch-validation-input-" + epoch + ".json.gz");
+            }
+            return generate(epoch);
+        }, networkConfig));
+    }
+}
@@ -0,0 +1,260 @@
+package org.cardanofoundation.rewards.validation;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.*;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.data.provider.DataProvider;
+import org.cardanofoundation.rewards.validation.data.provider.DataProviderExecutor;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.PoolReward;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EpochValidationDataProviderTest {
+
+    private static final int EPOCH = 300;
+
+    private final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+
+    /*
+     * Provides a synthetic epoch and records the threads the calls have been made on.
+     */
+    private static class SyntheticDataProvider implements DataProvider {
+        private final EpochValidationInput epochValidationInput;
+        private final NetworkConfig networkConfig;
+        private final Set<String> callingThreads = ConcurrentHashMap.newKeySet();
+
+        private SyntheticDataProvider(EpochValidationInput epochValidationInput, NetworkConfig networkConfig) {
+            this.epochValidationInput = epochValidationInput;
+            this.networkConfig = networkConfig;
+        }
+
+        private final AtomicInteger runningCalls = new AtomicInteger();
+        private final AtomicInteger maxRunningCalls = new AtomicInteger();
+        private volatile long callDurationInMillis;
+
+        private void recordCall() {
+            callingThreads.add(Thread.currentThread().getName());
+            if (callDurationInMillis > 0) {
+                maxRunningCalls.accumulateAndGet(runningCalls.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(callDurationInMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    runningCalls.decrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public AdaPots getAdaPotsForEpoch(int epoch) {
+            recordCall();
+            return AdaPots.builder()
+                    .epoch(epoch)
+                    .reserves(epochValidationInput.getReservesOfPreviousEpoch())
+                    .treasury(epochValidationInput.getTreasuryOfPreviousEpoch())
+                    .build();
+        }
+
+        @Override
+        public Epoch getEpochInfo(int epoch, NetworkConfig networkConfig) {
+            recordCall();
+            return Epoch.builder()
+                    .number(epoch)
+                    .blockCount(epochValidationInput.getBlockCount())
+                    .fees(epochValidationInput.getFees())
+                    .activeStake(epochValidationInput.getActiveStake())
+                    .nonOBFTBlockCount(epochValidationInput.getNonOBFTBlockCount())
+                    .build();
+        }
+
+        @Override
+        public ProtocolParameters getProtocolParametersForEpoch(int epoch) {
+            recordCall();
+            return ProtocolParameters.builder()
+                    .decentralisation(epochValidationInput.getDecentralisation())
+                    .monetaryExpandRate(epochValidationInput.getMonetaryExpandRate())
+                    .treasuryGrowRate(epochValidationInput.getTreasuryGrowRate())
+                    .optimalPoolCount(epochValidationInput.getOptimalPoolCount())
+                    .poolOwnerInfluence(epochValidationInput.getPoolOwnerInfluence())
+                    .build();
+        }
+
+        @Override
+        public List<PoolState> getHistoryOfAllPoolsInEpoch(int epoch, List<PoolBlock> blocksMadeByPoolsInEpoch) {
+            recordCall();
+            return new ArrayList<>(epochValidationInput.getPoolStates());
+        }
+
+        @Override
+        public PoolState getPoolHistory(String poolId, int epoch) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Set<RetiredPool> getRetiredPoolsInEpoch(int epoch) {
+            recordCall();
+            return epochValidationInput.getRetiredPools();
+        }
+
+        @Override
+        public List<MirCertificate> getMirCertificatesInEpoch(int epoch) {
+            recordCall();
+            return new ArrayList<>(epochValidationInput.getMirCertificates());
+        }
+
+        @Override
+        public BigInteger getTransactionDepositsInEpoch(int epoch) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BigInteger getSumOfFeesInEpoch(int epoch) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BigInteger getSumOfWithdrawalsInEpoch(int epoch) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HashSet<Reward> getMemberRewardsInEpoch(int epoch) {
+            recordCall();
+            return new HashSet<>();
+        }
+
+        @Override
+        public List<PoolBlock> getBlocksMadeByPoolsInEpoch(int epoch) {
+            recordCall();
+            return epochValidationInput.getPoolStates().stream()
+                    .map(poolState -> PoolBlock.builder().poolId(poolState.getPoolId()).blockCount(poolState.getBlockCount()).build())
+                    .toList();
+        }
+
+        @Override
+        public HashSet<PoolReward> getTotalPoolRewardsInEpoch(int epoch) {
+            recordCall();
+            return new HashSet<>();
+        }
+
+        @Override
+        public HashSet<String> findSharedPoolRewardAddressWithoutReward(int epoch) {
+            recordCall();
+            return epochValidationInput.getSharedPoolRewardAddressesWithoutReward();
+        }
+
+        @Override
+        public HashSet<String> getDeregisteredAccountsInEpoch(int epoch, long stabilityWindow) {
+            recordCall();
+            return stabilityWindow == networkConfig.getRandomnessStabilisationWindow()
+                    ? epochValidationInput.getDeregisteredAccounts()
+                    : epochValidationInput.getDeregisteredAccountsOnEpochBoundary();
+        }
+
+        @Override
+        public HashSet<String> getRegisteredAccountsUntilLastEpoch(Integer epoch, HashSet<String> stakeAddresses, Long stabilityWindow) {
+            recordCall();
+            return epochValidationInput.getRegisteredAccountsSinceLastEpoch();
+        }
+
+        @Override
+        public HashSet<String> getRegisteredAccountsUntilNow(Integer epoch, HashSet<String> stakeAddresses, Long stabilityWindow) {
+            recordCall();
+            return epochValidationInput.getRegisteredAccountsUntilNow();
+        }
+    }
+
+    @Test
+    void theDataProviderCallsRunConcurrentlyAndGiveTheSameResultAsTheEpochInput() {
+        EpochValidationInput epochValidationInput = new SyntheticEpochGenerator(9, networkConfig).generate(EPOCH, 100, 3_000);
+        SyntheticDataProvider dataProvider = new SyntheticDataProvider(epochValidationInput, networkConfig);
+
+        EpochCalculationResult providedResult;
+        DataProviderExecutor dataProviderExecutor = new DataProviderExecutor(DataProviderExecutor.MAX_THREADS);
+        try {
+            providedResult = EpochValidation.calculateEpochRewardPots(EPOCH, dataProvider, false, networkConfig, null, dataProviderExecutor);
+        } finally {
+            dataProviderExecutor.shutdown();
+        }
+        EpochCalculationResult inputResult = EpochValidation.calculateEpochRewardPots(EPOCH, epochValidationInput, networkConfig, null);
+
+        Assertions.assertEquals(inputResult.getReserves(), providedResult.getReserves());
+        Assertions.assertEquals(inputResult.getTreasury(), providedResult.getTreasury());
+        Assertions.assertEquals(inputResult.getTotalDistributedRewards(), providedResult.getTotalDistributedRewards());
+
+        Assertions.assertFalse(dataProvider.callingThreads.contains(Thread.currentThread().getName()));
+        Assertions.assertTrue(dataProvider.callingThreads.size() > 1);
+        Assertions.assertTrue(dataProvider.callingThreads.stream().allMatch(thread -> thread.startsWith("epoch-data-")));
+    }
+
+    @Test
+    void withoutAnExecutorTheDataProviderCallsRunOnTheCallingThread() {
+        EpochValidationInput epochValidationInput = new SyntheticEpochGenerator(9, networkConfig).generate(EPOCH, 10, 100);
+        SyntheticDataProvider dataProvider = new SyntheticDataProvider(epochValidationInput, networkConfig);
+        dataProvider.callDurationInMillis = 1;
+
+        EpochCalculationResult providedResult = EpochValidation.calculateEpochRewardPots(EPOCH, dataProvider, false, networkConfig);
+        EpochCalculationResult inputResult = EpochValidation.calculateEpochRewardPots(EPOCH, epochValidationInput, networkConfig, null);
+
+        Assertions.assertEquals(inputResult.getTotalDistributedRewards(), providedResult.getTotalDistributedRewards());
+        Assertions.assertEquals(Set.of(Thread.currentThread().getName()), dataProvider.callingThreads);
+        Assertions.assertEquals(1, dataProvider.maxRunningCalls.get());
+    }
+
+    @Test
+    void theDataProviderCallsOverlapUpToTheThreadsOfTheExecutor() {
+        EpochValidationInput epochValidationInput = new SyntheticEpochGenerator(9, networkConfig).generate(EPOCH, 10, 100);
+        SyntheticDataProvider dataProvider = new SyntheticDataProvider(epochValidationInput, networkConfig);
+        dataProvider.callDurationInMillis = 100;
+
+        // A connection pool of three connections bounds the executor to three threads
+        DataProviderExecutor dataProviderExecutor = new DataProviderExecutor(3);
+        try {
+            Assertions.assertEquals(3, dataProviderExecutor.getThreadCount());
+            EpochValidation.calculateEpochRewardPots(EPOCH, dataProvider, true, networkConfig, null, dataProviderExecutor);
+            EpochValidation.calculateEpochRewardPots(EPOCH, dataProvider, true, networkConfig, null, dataProviderExecutor);
+        } finally {
+            dataProviderExecutor.shutdown();
+        }
+
+        Assertions.assertTrue(dataProvider.maxRunningCalls.get() > 1, "the calls did not overlap");
+        Assertions.assertTrue(dataProvider.maxRunningCalls.get() <= 3, "calls running at the same time: " + dataProvider.maxRunningCalls.get());
+        // Both epochs ran on the same threads
+        Assertions.assertTrue(dataProvider.callingThreads.size() <= 3);
+    }
+
+    @Test
+    void theExecutorIsBoundedByTheConnectionPoolAndTheIndependentCalls() {
+        DataProviderExecutor smallPool = new DataProviderExecutor(2);
+        DataProviderExecutor largePool = new DataProviderExecutor(50);
+        try {
+            Assertions.assertEquals(2, smallPool.getThreadCount());
+            Assertions.assertEquals(DataProviderExecutor.MAX_THREADS, largePool.getThreadCount());
+        } finally {
+            smallPool.shutdown();
+            largePool.shutdown();
+        }
+    }
+
+    @Test
+    void aFailingDataProviderCallIsRethrown() {
+        EpochValidationInput epochValidationInput = new SyntheticEpochGenerator(9, networkConfig).generate(EPOCH, 10, 100);
+        SyntheticDataProvider dataProvider = new SyntheticDataProvider(epochValidationInput, networkConfig) {
+            @Override
+            public Set<RetiredPool> getRetiredPoolsInEpoch(int epoch) {
+                throw new IllegalStateException("db-sync is not available");
+            }
+        };
+
+        IllegalStateException exception = Assertions.assertThrows(IllegalStateException.class,
+                () -> EpochValidation.calculateEpochRewardPots(EPOCH, dataProvider, false, networkConfig));
+        Assertions.assertEquals("db-sync is not available", exception.getMessage());
+    }
+}
@@ -5,6 +5,7 @@ import org.cardanofoundation.rewards.calculation.EpochCalculation;
 import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
 import org.cardanofoundation.rewards.calculation.domain.*;
 import org.cardanofoundation.rewards.validation.data.provider.DataProvider;
+import org.cardanofoundation.rewards.validation.data.provider.DataProviderExecutor;
 import org.cardanofoundation.rewards.validation.data.provider.DbSyncDataProvider;
 import org.cardanofoundation.rewards.validation.data.provider.JsonDataProvider;
 import org.junit.jupiter.api.Assertions;
@@ -36,6 +37,9 @@ public class EpochValidationTest {
     @Autowired
     JsonDataProvider jsonDataProvider;
 
+    @Autowired
+    DataProviderExecutor dataProviderExecutor;
+
     @Value("${cardano.protocol.magic}")
     private int cardanoProtocolMagic;
 
@@ -47,7 +51,8 @@ public class EpochValidationTest {
     }
 
     public void testCalculateEpochPots(final int epoch, DataProvider dataProvider, boolean detailedValidation) {
-        EpochCalculationResult epochCalculationResult = EpochValidation.calculateEpochRewardPots(epoch, dataProvider, detailedValidation, networkConfig);
+        EpochCalculationResult epochCalculationResult = EpochValidation.calculateEpochRewardPots(epoch, dataProvider, detailedValidation,
+                networkConfig, null, dataProviderExecutor);
         AdaPots adaPotsForCurrentEpoch = dataProvider.getAdaPotsForEpoch(epoch);
 
         if (epoch < networkConfig.getShelleyStartEpoch()) {
@@ -0,0 +1,73 @@
+package org.cardanofoundation.rewards.validation.data.fetcher;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class AccountRegistrationStateTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static AccountRegistrationState createState() {
+        AccountRegistrationState accountRegistrationState = new AccountRegistrationState(300);
+        accountRegistrationState.addRegistration("stake1u_registered", 10);
+        accountRegistrationState.addRegistration("stake1u_deregistered", 11);
+        accountRegistrationState.addDeregistration("stake1u_deregistered", 12);
+        accountRegistrationState.addRegistration("stake1u_reregistered", 13);
+        accountRegistrationState.addDeregistration("stake1u_reregistered", 14);
+        accountRegistrationState.addRegistration("stake1u_reregistered", 15);
+        return accountRegistrationState;
+    }
+
+    @Test
+    void anAccountIsDeregisteredIfItsLastDeregistrationIsLaterThanItsLastRegistration() {
+        AccountRegistrationState accountRegistrationState = createState();
+        AccountRegistrationState noChanges = new AccountRegistrationState(300);
+
+        Assertions.assertEquals(Set.of("stake1u_deregistered"), accountRegistrationState.getDeregisteredAccounts(noChanges));
+        Assertions.assertEquals(Set.of("stake1u_registered", "stake1u_deregistered", "stake1u_reregistered"),
+                accountRegistrationState.getRegisteredAccounts(List.of("stake1u_registered", "stake1u_deregistered",
+                        "stake1u_reregistered", "stake1u_unknown"), noChanges));
+    }
+
+    @Test
+    void changesAreCombinedWithTheState() {
+        AccountRegistrationState accountRegistrationState = createState();
+        AccountRegistrationState changes = new AccountRegistrationState(300);
+        changes.addDeregistration("stake1u_registered", 20);
+        changes.addRegistration("stake1u_deregistered", 21);
+        changes.addRegistration("stake1u_new", 22);
+        changes.addRegistration("stake1u_new_deregistered", 23);
+        changes.addDeregistration("stake1u_new_deregistered", 24);
+
+        HashSet<String> deregisteredAccounts = accountRegistrationState.getDeregisteredAccounts(changes);
+        Assertions.assertEquals(Set.of("stake1u_registered", "stake1u_new_deregistered"), deregisteredAccounts);
+        Assertions.assertEquals(Set.of("stake1u_new"), accountRegistrationState.getRegisteredAccounts(List.of("stake1u_new", "stake1u_unknown"), changes));
+
+        accountRegistrationState.addAll(changes);
+        Assertions.assertEquals(deregisteredAccounts, accountRegistrationState.getDeregisteredAccounts(new AccountRegistrationState(300)));
+    }
+
+    @Test
+    void theStateIsWrittenAndReadAgain() throws Exception {
+        AccountRegistrationState accountRegistrationState = createState();
+        for (int i = 0; i < 5_000; i++) {
+            accountRegistrationState.addRegistration("stake1u" + i, 100 + i);
+        }
+        Path path = tempDir.resolve("account-registration-state.bin.gz");
+        accountRegistrationState.write(path);
+
+        AccountRegistrationState readAccountRegistrationState = AccountRegistrationState.read(path);
+        AccountRegistrationState noChanges = new AccountRegistrationState(300);
+        Assertions.assertEquals(300, readAccountRegistrationState.getLastAppliedEpoch());
+        Assertions.assertEquals(accountRegistrationState.size(), readAccountRegistrationState.size());
+        Assertions.assertEquals(accountRegistrationState.getDeregisteredAccounts(noChanges), readAccountRegistrationState.getDeregisteredAccounts(noChanges));
+        Assertions.assertEquals(Set.of("stake1u4999"), readAccountRegistrationState.getRegisteredAccounts(List.of("stake1u4999", "stake1u5000"), noChanges));
+    }
+}
@@ -0,0 +1,145 @@
+package org.cardanofoundation.rewards.validation.data.generator;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.Delegator;
+import org.cardanofoundation.rewards.calculation.domain.EpochCalculationResult;
+import org.cardanofoundation.rewards.calculation.domain.MirCertificate;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.calculation.domain.RetiredPool;
+import org.cardanofoundation.rewards.validation.EpochValidation;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class SyntheticEpochGeneratorTest {
+
+    private static final int EPOCH = 450;
+    private static final int MAINNET_POOL_COUNT = 3_000;
+    private static final int MAINNET_DELEGATOR_COUNT = 1_300_000;
+
+    /*
+     * Heap the calculation of an epoch may take per delegator, about twice the measured amounts. The
+     * result retains a Reward with the address and the amount of each delegator in its pool results.
+     */
+    private static final long ALLOCATION_BUDGET_PER_DELEGATOR = 400;
+    private static final long RETAINED_HEAP_BUDGET_PER_DELEGATOR = 200;
+
+    private final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+
+    /*
+     * A canonical representation of the input, independent of the iteration order of the sets.
+     */
+    private static List<String> describe(EpochValidationInput input) {
+        List<String> description = new ArrayList<>();
+        description.add(input.getEpoch() + " " + input.getTreasuryOfPreviousEpoch() + " " + input.getReservesOfPreviousEpoch()
+                + " " + input.getFees() + " " + input.getBlockCount() + " " + input.getActiveStake());
+        description.add(new TreeSet<>(input.getDeregisteredAccounts()).toString());
+        description.add(new TreeSet<>(input.getLateDeregisteredAccounts()).toString());
+        description.add(new TreeSet<>(input.getRegisteredAccountsUntilNow()).toString());
+        description.add(input.getRetiredPools().stream().map(RetiredPool::getPoolId).sorted().toList().toString());
+        description.add(input.getMirCertificates().stream().map(MirCertificate::getTotalRewards).sorted().toList().toString());
+        input.getPoolStates().stream()
+                .sorted(Comparator.comparing(PoolState::getPoolId))
+                .forEach(poolState -> description.add(poolState.getPoolId() + " " + poolState.getRewardAddress() + " "
+                        + poolState.getActiveStake() + " " + poolState.getPledge() + " " + poolState.getOwnerActiveStake() + " "
+                        + poolState.getFixedCost() + " " + poolState.getMargin() + " " + poolState.getBlockCount() + " "
+                        + poolState.getDelegators().stream()
+                            .collect(Collectors.toMap(Delegator::getStakeAddress, Delegator::getActiveStake, (a, b) -> a, TreeMap::new))));
+        return description;
+    }
+
+    @Test
+    void generationIsReproducible() {
+        EpochValidationInput first = new SyntheticEpochGenerator(1, networkConfig).generate(EPOCH, 300, 20_000);
+        EpochValidationInput second = new SyntheticEpochGenerator(1, networkConfig).generate(EPOCH, 300, 20_000);
+        EpochValidationInput otherSeed = new SyntheticEpochGenerator(2, networkConfig).generate(EPOCH, 300, 20_000);
+        EpochValidationInput otherEpoch = new SyntheticEpochGenerator(1, networkConfig).generate(EPOCH + 1, 300, 20_000);
+
+        Assertions.assertEquals(describe(first), describe(second));
+        Assertions.assertNotEquals(describe(first), describe(otherSeed));
+        Assertions.assertNotEquals(describe(first), describe(otherEpoch));
+
+        EpochCalculationResult firstResult = EpochValidation.calculateEpochRewardPots(EPOCH, first, networkConfig, null);
+        EpochCalculationResult secondResult = EpochValidation.calculateEpochRewardPots(EPOCH, second, networkConfig, null);
+        Assertions.assertEquals(firstResult.getTotalDistributedRewards(), secondResult.getTotalDistributedRewards());
+        Assertions.assertEquals(firstResult.getTreasury(), secondResult.getTreasury());
+        Assertions.assertEquals(firstResult.getReserves(), secondResult.getReserves());
+    }
+
+    @Test
+    void generatedEpochIsConsistent() {
+        EpochValidationInput input = new SyntheticEpochGenerator(3, networkConfig).generate(EPOCH, 1_000, 100_000);
+
+        Assertions.assertEquals(1_000, input.getPoolStates().size());
+        // The delegators and one owner account per pool
+        Assertions.assertEquals(101_000, input.getPoolStates().stream().mapToInt(poolState -> poolState.getDelegators().size()).sum());
+        Assertions.assertEquals(input.getActiveStake(), input.getPoolStates().stream()
+                .map(PoolState::getActiveStake).reduce(BigInteger.ZERO, BigInteger::add));
+        Assertions.assertEquals(input.getBlockCount(), input.getPoolStates().stream().mapToInt(PoolState::getBlockCount).sum());
+        // About 21600 blocks are expected in an epoch
+        Assertions.assertTrue(input.getBlockCount() > 20_000 && input.getBlockCount() < 23_000, "blocks: " + input.getBlockCount());
+        Assertions.assertFalse(input.getDeregisteredAccounts().isEmpty());
+        // Vasil: no late deregistrations anymore
+        Assertions.assertTrue(input.getLateDeregisteredAccounts().isEmpty());
+
+        // The largest pool holds a lot more stake than the median pool
+        List<BigInteger> poolStakes = input.getPoolStates().stream().map(PoolState::getActiveStake).sorted().toList();
+        Assertions.assertTrue(poolStakes.get(poolStakes.size() - 1).compareTo(poolStakes.get(poolStakes.size() / 2).multiply(BigInteger.valueOf(20))) > 0);
+
+        EpochCalculationResult result = EpochValidation.calculateEpochRewardPots(EPOCH, input, networkConfig, null);
+        Assertions.assertTrue(result.getTotalDistributedRewards().signum() > 0);
+        Assertions.assertTrue(result.getTotalDistributedRewards().compareTo(result.getTotalPoolRewardsPot()) <= 0);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /*
+     * Calculates a generated epoch on the calling thread and checks the heap the calculation itself
+     * takes: the bytes it allocates and the heap its result retains, both per delegator of the epoch.
+     * The generated input is not part of the budget, it is created before the measurement starts.
+     */
+    private void assertCalculationFitsIntoHeapBudget(int poolCount, int delegatorCount) {
+        EpochValidationInput input = new SyntheticEpochGenerator(4, networkConfig).generate(EPOCH, poolCount, delegatorCount);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long heapBefore = usedHeap();
+        long allocatedBytesBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        EpochCalculationResult result = EpochValidation.calculateEpochRewardPots(EPOCH, input, networkConfig, null);
+        long allocatedBytesPerDelegator = (threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBytesBefore) / delegatorCount;
+        long retainedHeapPerDelegator = (usedHeap() - heapBefore) / delegatorCount;
+
+        Assertions.assertTrue(result.getTotalDistributedRewards().signum() > 0);
+        Assertions.assertTrue(allocatedBytesPerDelegator <= ALLOCATION_BUDGET_PER_DELEGATOR,
+                "The calculation allocates " + allocatedBytesPerDelegator + " bytes per delegator");
+        Assertions.assertTrue(retainedHeapPerDelegator <= RETAINED_HEAP_BUDGET_PER_DELEGATOR,
+                "The calculation retains " + retainedHeapPerDelegator + " bytes per delegator");
+    }
+
+    /*
+     * The mainnet delegator count needs a heap of about 1 GB and ten times of it about 8 GB, so both
+     * only run with -Drewards.loadTest=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "rewards.loadTest", matches = "true")
+    void mainnetSizedEpochFitsIntoHeapBudget() {
+        assertCalculationFitsIntoHeapBudget(MAINNET_POOL_COUNT, MAINNET_DELEGATOR_COUNT);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "rewards.loadTest", matches = "true")
+    void tenTimesMainnetSizedEpochFitsIntoHeapBudget() {
+        assertCalculationFitsIntoHeapBudget(MAINNET_POOL_COUNT, 10 * MAINNET_DELEGATOR_COUNT);
+    }
+}
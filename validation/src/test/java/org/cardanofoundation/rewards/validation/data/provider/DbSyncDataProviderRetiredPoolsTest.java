@@ -0,0 +1,249 @@
+package org.cardanofoundation.rewards.validation.data.provider;
+
+import org.cardanofoundation.rewards.calculation.domain.RetiredPool;
+import org.cardanofoundation.rewards.validation.entity.projection.LatestPoolDeposit;
+import org.cardanofoundation.rewards.validation.entity.projection.LatestPoolRetirement;
+import org.cardanofoundation.rewards.validation.entity.projection.LatestPoolUpdateTransaction;
+import org.cardanofoundation.rewards.validation.repository.DbSyncPoolRetirementRepository;
+import org.cardanofoundation.rewards.validation.repository.DbSyncPoolUpdateRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.math.BigInteger;
+import java.util.*;
+
+public class DbSyncDataProviderRetiredPoolsTest {
+
+    private static final int EPOCH = 300;
+    private static final BigInteger DEPOSIT = BigInteger.valueOf(500_000_000);
+
+    /*
+     * The rows of the pool_retire and pool_update tables, with the epoch of the block of their transaction.
+     */
+    private static class Retirement {
+        private final String poolId;
+        private final long announcedTransactionId;
+        private final int announcedEpoch;
+        private final int retiringEpoch;
+
+        private Retirement(String poolId, long announcedTransactionId, int announcedEpoch, int retiringEpoch) {
+            this.poolId = poolId;
+            this.announcedTransactionId = announcedTransactionId;
+            this.announcedEpoch = announcedEpoch;
+            this.retiringEpoch = retiringEpoch;
+        }
+    }
+
+    private static class Update {
+        private final String poolId;
+        private final long registeredTransactionId;
+        private final int registeredEpoch;
+        // Null if the reward address is not in the stake_address table
+        private final String rewardAddress;
+
+        private Update(String poolId, long registeredTransactionId, int registeredEpoch, String rewardAddress) {
+            this.poolId = poolId;
+            this.registeredTransactionId = registeredTransactionId;
+            this.registeredEpoch = registeredEpoch;
+            this.rewardAddress = rewardAddress;
+        }
+    }
+
+    private final List<Retirement> retirements = new ArrayList<>();
+    private final List<Update> updates = new ArrayList<>();
+    private DbSyncDataProvider dbSyncDataProvider;
+
+    private static <T> Optional<T> latest(List<T> rows, Comparator<T> order) {
+        return rows.stream().max(order);
+    }
+
+    /*
+     * The repositories answer their queries from the rows, like the native queries do on db-sync.
+     */
+    @BeforeEach
+    void mockRepositories() {
+        DbSyncPoolRetirementRepository dbSyncPoolRetirementRepository = Mockito.mock(DbSyncPoolRetirementRepository.class);
+        DbSyncPoolUpdateRepository dbSyncPoolUpdateRepository = Mockito.mock(DbSyncPoolUpdateRepository.class);
+        Comparator<Retirement> retirementOrder = Comparator.comparingLong(retirement -> retirement.announcedTransactionId);
+        Comparator<Update> updateOrder = Comparator.comparingLong(update -> update.registeredTransactionId);
+
+        Mockito.when(dbSyncPoolRetirementRepository.getLatestPoolRetirementsByEpoch(ArgumentMatchers.anyInt())).thenAnswer(invocation -> {
+            int epoch = invocation.getArgument(0);
+            List<LatestPoolRetirement> latestRetirements = new ArrayList<>();
+            retirements.stream().map(retirement -> retirement.poolId).distinct().forEach(poolId ->
+                    latest(retirements.stream().filter(retirement -> retirement.poolId.equals(poolId)
+                            && retirement.retiringEpoch == epoch && retirement.announcedEpoch <= epoch).toList(), retirementOrder)
+                            .ifPresent(retirement -> latestRetirements.add(toLatestPoolRetirement(retirement))));
+            return latestRetirements;
+        });
+        Mockito.when(dbSyncPoolRetirementRepository.latestPoolRetirementsUntilEpoch(ArgumentMatchers.anyCollection(), ArgumentMatchers.anyInt())).thenAnswer(invocation -> {
+            Collection<String> poolIds = invocation.getArgument(0);
+            int epoch = invocation.getArgument(1);
+            List<LatestPoolRetirement> latestRetirements = new ArrayList<>();
+            for (String poolId : poolIds) {
+                latest(retirements.stream().filter(retirement -> retirement.poolId.equals(poolId)
+                        && retirement.announcedEpoch <= epoch).toList(), retirementOrder)
+                        .ifPresent(retirement -> latestRetirements.add(toLatestPoolRetirement(retirement)));
+            }
+            return latestRetirements;
+        });
+        Mockito.when(dbSyncPoolUpdateRepository.findLatestUpdateTransactionsInEpoch(ArgumentMatchers.anyCollection(), ArgumentMatchers.anyInt())).thenAnswer(invocation -> {
+            Collection<String> poolIds = invocation.getArgument(0);
+            int epoch = invocation.getArgument(1);
+            List<LatestPoolUpdateTransaction> latestUpdates = new ArrayList<>();
+            for (String poolId : poolIds) {
+                latest(updates.stream().filter(update -> update.poolId.equals(poolId) && update.registeredEpoch <= epoch).toList(), updateOrder)
+                        .ifPresent(update -> latestUpdates.add(new LatestPoolUpdateTransaction() {
+                            public String getPoolId() {
+                                return update.poolId;
+                            }
+
+                            public Long getRegisteredTransactionId() {
+                                return update.registeredTransactionId;
+                            }
+                        }));
+            }
+            return latestUpdates;
+        });
+        Mockito.when(dbSyncPoolUpdateRepository.findLatestDepositsInEpoch(ArgumentMatchers.anyCollection(), ArgumentMatchers.anyInt())).thenAnswer(invocation -> {
+            Collection<String> poolIds = invocation.getArgument(0);
+            int epoch = invocation.getArgument(1);
+            List<LatestPoolDeposit> latestDeposits = new ArrayList<>();
+            for (String poolId : poolIds) {
+                // The join with the stake addresses drops the updates with an unknown reward address
+                latest(updates.stream().filter(update -> update.poolId.equals(poolId) && update.registeredEpoch <= epoch
+                        && update.rewardAddress != null).toList(), updateOrder)
+                        .ifPresent(update -> latestDeposits.add(new LatestPoolDeposit() {
+                            public String getPoolId() {
+                                return update.poolId;
+                            }
+
+                            public String getRewardAddress() {
+                                return update.rewardAddress;
+                            }
+
+                            public BigInteger getDeposit() {
+                                return DEPOSIT;
+                            }
+                        }));
+            }
+            return latestDeposits;
+        });
+
+        dbSyncDataProvider = new DbSyncDataProvider();
+        dbSyncDataProvider.dbSyncPoolRetirementRepository = dbSyncPoolRetirementRepository;
+        dbSyncDataProvider.dbSyncPoolUpdateRepository = dbSyncPoolUpdateRepository;
+    }
+
+    private static LatestPoolRetirement toLatestPoolRetirement(Retirement retirement) {
+        return new LatestPoolRetirement() {
+            public String getPoolId() {
+                return retirement.poolId;
+            }
+
+            public Long getAnnouncedTransactionId() {
+                return retirement.announcedTransactionId;
+            }
+
+            public Integer getRetiringEpoch() {
+                return retirement.retiringEpoch;
+            }
+        };
+    }
+
+    /*
+     * The resolution before the set-based queries: every retirement for the epoch with one query per pool.
+     */
+    private Set<RetiredPool> getRetiredPoolsPerPool(int epoch) {
+        List<Retirement> retirementsOfEpoch = retirements.stream()
+                .filter(retirement -> retirement.retiringEpoch == epoch && retirement.announcedEpoch <= epoch)
+                .toList();
+        Set<RetiredPool> retiredPools = new HashSet<>();
+        for (Retirement retirement : retirementsOfEpoch) {
+            if (retirementsOfEpoch.stream().anyMatch(other -> other.poolId.equals(retirement.poolId)
+                    && other.announcedTransactionId > retirement.announcedTransactionId)) {
+                continue;
+            }
+
+            if (updates.stream().anyMatch(update -> update.poolId.equals(retirement.poolId)
+                    && update.registeredTransactionId > retirement.announcedTransactionId && update.registeredEpoch <= epoch - 1)) {
+                continue;
+            }
+
+            Optional<Retirement> latestRetirement = latest(retirements.stream().filter(other -> other.poolId.equals(retirement.poolId)
+                    && other.announcedEpoch <= epoch - 1).toList(), Comparator.comparingLong(other -> other.announcedTransactionId));
+            if (latestRetirement.isPresent() && latestRetirement.get().retiringEpoch != epoch) {
+                continue;
+            }
+
+            Update latestUpdate = latest(updates.stream().filter(update -> update.poolId.equals(retirement.poolId)
+                    && update.registeredEpoch <= epoch).toList(), Comparator.comparingLong(update -> update.registeredTransactionId)).orElseThrow();
+            retiredPools.add(new RetiredPool(retirement.poolId, latestUpdate.rewardAddress, DEPOSIT));
+        }
+        return retiredPools;
+    }
+
+    private static Map<String, String> rewardAddressesOf(Set<RetiredPool> retiredPools) {
+        Map<String, String> rewardAddresses = new TreeMap<>();
+        retiredPools.forEach(retiredPool -> rewardAddresses.put(retiredPool.getPoolId(), retiredPool.getRewardAddress()));
+        return rewardAddresses;
+    }
+
+    @Test
+    void theRetiredPoolsAreTheSameAsWithThePerPoolResolution() {
+        // Retires as announced
+        updates.add(new Update("pool1a", 1_000, 100, "stake1u_a"));
+        retirements.add(new Retirement("pool1a", 5_000, 298, EPOCH));
+        // Re-registers before the epoch, which cancels the retirement
+        updates.add(new Update("pool1b", 1_100, 100, "stake1u_b"));
+        retirements.add(new Retirement("pool1b", 4_000, 297, EPOCH));
+        updates.add(new Update("pool1b", 4_500, 298, "stake1u_b"));
+        // Retired in an earlier epoch, registered again with another reward address and retires again
+        updates.add(new Update("pool1c", 1_200, 100, "stake1u_c"));
+        retirements.add(new Retirement("pool1c", 2_000, 200, 205));
+        updates.add(new Update("pool1c", 2_500, 210, "stake1u_c2"));
+        retirements.add(new Retirement("pool1c", 5_500, 299, EPOCH));
+        // A later announcement moves the retirement to another epoch
+        updates.add(new Update("pool1d", 1_300, 100, "stake1u_d"));
+        retirements.add(new Retirement("pool1d", 3_900, 296, EPOCH));
+        retirements.add(new Retirement("pool1d", 5_600, 299, 305));
+        // Two announcements for the epoch are counted once
+        updates.add(new Update("pool1e", 1_400, 100, "stake1u_e"));
+        retirements.add(new Retirement("pool1e", 4_100, 297, EPOCH));
+        retirements.add(new Retirement("pool1e", 4_200, 298, EPOCH));
+        // Registered again within the epoch, which does not cancel the retirement but changes the reward address
+        updates.add(new Update("pool1f", 1_500, 100, "stake1u_f"));
+        retirements.add(new Retirement("pool1f", 5_700, 299, EPOCH));
+        updates.add(new Update("pool1f", 6_000, EPOCH, "stake1u_f2"));
+        // Retires in another epoch
+        updates.add(new Update("pool1g", 1_600, 100, "stake1u_g"));
+        retirements.add(new Retirement("pool1g", 5_800, 299, EPOCH + 1));
+
+        Set<RetiredPool> retiredPools = dbSyncDataProvider.getRetiredPoolsInEpoch(EPOCH);
+
+        Assertions.assertEquals(rewardAddressesOf(getRetiredPoolsPerPool(EPOCH)), rewardAddressesOf(retiredPools));
+        Assertions.assertEquals(Map.of("pool1a", "stake1u_a", "pool1c", "stake1u_c2", "pool1e", "stake1u_e", "pool1f", "stake1u_f2"),
+                rewardAddressesOf(retiredPools));
+        Assertions.assertTrue(retiredPools.stream().allMatch(retiredPool -> DEPOSIT.equals(retiredPool.getDepositAmount())));
+    }
+
+    @Test
+    void aRetiringPoolWithAnUnknownRewardAddressIsSkipped() {
+        updates.add(new Update("pool1a", 1_000, 100, "stake1u_a"));
+        retirements.add(new Retirement("pool1a", 5_000, 298, EPOCH));
+        // The per-pool resolution failed on the missing stake address of the update
+        updates.add(new Update("pool1unknown", 1_100, 100, null));
+        retirements.add(new Retirement("pool1unknown", 5_100, 298, EPOCH));
+
+        Assertions.assertEquals(Map.of("pool1a", "stake1u_a"), rewardAddressesOf(dbSyncDataProvider.getRetiredPoolsInEpoch(EPOCH)));
+    }
+
+    @Test
+    void withoutRetirementsNoOtherQueryIsMade() {
+        Assertions.assertTrue(dbSyncDataProvider.getRetiredPoolsInEpoch(EPOCH).isEmpty());
+        Mockito.verifyNoInteractions(dbSyncDataProvider.dbSyncPoolUpdateRepository);
+    }
+}
@@ -0,0 +1,113 @@
+package org.cardanofoundation.rewards.validation.data.provider;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputFootprint;
+import org.cardanofoundation.rewards.validation.util.StakeAddressInterner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EpochValidationInputCacheTest {
+
+    private final SyntheticEpochGenerator generator = new SyntheticEpochGenerator(7, NetworkConfig.getMainnetConfig());
+    private final List<Integer> loadedEpochs = new CopyOnWriteArrayList<>();
+
+    private EpochValidationInput load(int epoch) {
+        loadedEpochs.add(epoch);
+        EpochValidationInput epochValidationInput = generator.generate(epoch, 50, 1_000);
+        StakeAddressInterner.intern(epochValidationInput);
+        return epochValidationInput;
+    }
+
+    @Test
+    void alternatingEpochsAreLoadedOnce() throws Exception {
+        EpochValidationInputCache cache = new EpochValidationInputCache(Long.MAX_VALUE);
+        for (int epoch = 300; epoch < 310; epoch++) {
+            Assertions.assertEquals(epoch + 2, cache.get(epoch + 2, this::load).getEpoch());
+            Assertions.assertEquals(epoch, cache.get(epoch, this::load).getEpoch());
+        }
+
+        Assertions.assertEquals(12, loadedEpochs.size());
+        Assertions.assertEquals(12, cache.getMissCount());
+        Assertions.assertEquals(8, cache.getHitCount());
+    }
+
+    @Test
+    void theLeastRecentlyUsedEpochsAreEvictedAboveTheMemoryCap() throws Exception {
+        long footprint = EpochValidationInputFootprint.estimate(load(300));
+        EpochValidationInputCache cache = new EpochValidationInputCache(footprint * 5 / 2);
+
+        cache.get(300, this::load);
+        cache.get(301, this::load);
+        cache.get(300, this::load);
+        cache.get(302, this::load);
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertTrue(cache.contains(300));
+        Assertions.assertFalse(cache.contains(301));
+        Assertions.assertTrue(cache.contains(302));
+        Assertions.assertTrue(cache.getRetainedMemory() <= footprint * 5 / 2);
+    }
+
+    @Test
+    void theMostRecentlyUsedEpochIsKeptAboveTheMemoryCap() throws Exception {
+        EpochValidationInputCache cache = new EpochValidationInputCache(1);
+
+        cache.get(300, this::load);
+        cache.get(300, this::load);
+        cache.get(301, this::load);
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertTrue(cache.contains(301));
+        Assertions.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    void anEpochRequestedByConcurrentThreadsIsLoadedOnce() throws Exception {
+        EpochValidationInputCache cache = new EpochValidationInputCache(Long.MAX_VALUE);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        EpochValidationInputLoader slowLoader = epoch -> {
+            loads.incrementAndGet();
+            try {
+                loading.await();
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+            return load(epoch);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<EpochValidationInput>> epochValidationInputs = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                epochValidationInputs.add(executor.submit(() -> cache.get(300, slowLoader)));
+            }
+            Thread.sleep(100);
+            loading.countDown();
+
+            EpochValidationInput first = epochValidationInputs.get(0).get();
+            for (Future<EpochValidationInput> epochValidationInput : epochValidationInputs) {
+                Assertions.assertSame(first, epochValidationInput.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals(1, cache.getMissCount());
+        Assertions.assertEquals(3, cache.getHitCount());
+    }
+}
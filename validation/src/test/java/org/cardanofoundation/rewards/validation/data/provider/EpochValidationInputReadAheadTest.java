@@ -0,0 +1,76 @@
+package org.cardanofoundation.rewards.validation.data.provider;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputFootprint;
+import org.cardanofoundation.rewards.validation.util.StakeAddressInterner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class EpochValidationInputReadAheadTest {
+
+    private final SyntheticEpochGenerator generator = new SyntheticEpochGenerator(5, NetworkConfig.getMainnetConfig());
+    private final List<Integer> loadedEpochs = new CopyOnWriteArrayList<>();
+    private final Map<Integer, String> loadingThreads = new ConcurrentHashMap<>();
+
+    private EpochValidationInput load(int epoch) {
+        loadedEpochs.add(epoch);
+        loadingThreads.put(epoch, Thread.currentThread().getName());
+        EpochValidationInput epochValidationInput = generator.generate(epoch, 50, 1_000);
+        StakeAddressInterner.intern(epochValidationInput);
+        return epochValidationInput;
+    }
+
+    @Test
+    void theNextEpochsAreLoadedInTheBackground() throws Exception {
+        try (EpochValidationInputReadAhead readAhead = new EpochValidationInputReadAhead(this::load, 2, Long.MAX_VALUE)) {
+            Assertions.assertEquals(300, readAhead.get(300).getEpoch());
+            Assertions.assertEquals(Thread.currentThread().getName(), loadingThreads.get(300));
+            Assertions.assertTrue(readAhead.isReadAhead(301));
+            Assertions.assertTrue(readAhead.isReadAhead(302));
+
+            for (int epoch = 301; epoch < 310; epoch++) {
+                Assertions.assertEquals(epoch, readAhead.get(epoch).getEpoch());
+                Assertions.assertNotEquals(Thread.currentThread().getName(), loadingThreads.get(epoch));
+            }
+        }
+
+        // Every epoch is decoded once
+        Assertions.assertEquals(loadedEpochs.stream().distinct().count(), loadedEpochs.size());
+    }
+
+    @Test
+    void epochsAreNotReadAheadBeyondTheMemoryCap() throws Exception {
+        long footprint = EpochValidationInputFootprint.estimate(load(300));
+        Assertions.assertTrue(footprint > 0);
+
+        try (EpochValidationInputReadAhead readAhead = new EpochValidationInputReadAhead(this::load, 3, footprint * 3 / 2)) {
+            readAhead.get(300);
+            Assertions.assertTrue(readAhead.isReadAhead(301));
+            Assertions.assertFalse(readAhead.isReadAhead(302));
+        }
+
+        try (EpochValidationInputReadAhead readAhead = new EpochValidationInputReadAhead(this::load, 3, footprint / 2)) {
+            readAhead.get(300);
+            Assertions.assertFalse(readAhead.isReadAhead(301));
+        }
+    }
+
+    @Test
+    void epochsBehindTheRequestedEpochAreDropped() throws Exception {
+        try (EpochValidationInputReadAhead readAhead = new EpochValidationInputReadAhead(this::load, 2, Long.MAX_VALUE)) {
+            readAhead.get(300);
+            readAhead.get(400);
+            Assertions.assertFalse(readAhead.isReadAhead(301));
+            Assertions.assertFalse(readAhead.isReadAhead(302));
+            Assertions.assertTrue(readAhead.isReadAhead(401));
+            Assertions.assertTrue(readAhead.isReadAhead(402));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.cardanofoundation.rewards.validation.data.provider;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.AdaPots;
+import org.cardanofoundation.rewards.calculation.domain.EpochCalculationResult;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.validation.EpochValidation;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.util.EpochValidationInputBinaryWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class JsonDataProviderTest {
+
+    private static final int FIRST_EPOCH = 300;
+    private static final int EPOCHS = 6;
+
+    @TempDir
+    Path sourceFolder;
+
+    private final Map<Integer, BigInteger> reservesOfPreviousEpochs = new HashMap<>();
+    private final Map<Integer, String> firstPoolIds = new HashMap<>();
+
+    private JsonDataProvider jsonDataProvider;
+
+    @BeforeEach
+    void writeEpochs() throws Exception {
+        SyntheticEpochGenerator generator = new SyntheticEpochGenerator(11, NetworkConfig.getMainnetConfig());
+        for (int epoch = FIRST_EPOCH; epoch < FIRST_EPOCH + EPOCHS; epoch++) {
+            EpochValidationInput epochValidationInput = generator.generate(epoch, 40, 800);
+            reservesOfPreviousEpochs.put(epoch, epochValidationInput.getReservesOfPreviousEpoch());
+            firstPoolIds.put(epoch, epochValidationInput.getPoolStates().iterator().next().getPoolId());
+            EpochValidationInputBinaryWriter.write(epochValidationInput,
+                    sourceFolder.resolve("epoch-validation-input-" + epoch + ".bin").toString());
+        }
+
+        jsonDataProvider = new JsonDataProvider();
+        ReflectionTestUtils.setField(jsonDataProvider, "sourceFolder", sourceFolder.toString());
+        ReflectionTestUtils.setField(jsonDataProvider, "readAheadEpochs", 2);
+        ReflectionTestUtils.setField(jsonDataProvider, "readAheadMemoryCapInMegabytes", 64L);
+        ReflectionTestUtils.setField(jsonDataProvider, "cacheMemoryCapInMegabytes", 1L);
+    }
+
+    @Test
+    void threadsValidatingDifferentEpochsGetTheDataOfTheirEpoch() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> validations = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                SplittableRandom random = new SplittableRandom(thread);
+                validations.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        int epoch = FIRST_EPOCH + random.nextInt(EPOCHS);
+                        if (random.nextBoolean()) {
+                            Assertions.assertEquals(epoch, jsonDataProvider.getEpochValidationInput(epoch).getEpoch());
+                        }
+
+                        if (epoch > FIRST_EPOCH) {
+                            AdaPots adaPots = jsonDataProvider.getAdaPotsForEpoch(epoch - 1);
+                            Assertions.assertEquals(reservesOfPreviousEpochs.get(epoch), adaPots.getReserves());
+                        }
+
+                        PoolState poolState = jsonDataProvider.getPoolHistory(firstPoolIds.get(epoch), epoch);
+                        Assertions.assertEquals(firstPoolIds.get(epoch), poolState.getPoolId());
+                        Assertions.assertNotNull(jsonDataProvider.getProtocolParametersForEpoch(epoch));
+                    }
+                    return null;
+                }));
+            }
+
+            for (Future<?> validation : validations) {
+                validation.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        EpochValidationInputCache cache = jsonDataProvider.getCache();
+        Assertions.assertTrue(cache.getHitCount() + cache.getMissCount() > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void alternatingBetweenAnEpochAndItsAdaPotsMapsEachEpochOnce() {
+        Map<Integer, ?> mappedEpochs = (Map<Integer, ?>) ReflectionTestUtils.getField(jsonDataProvider, "mappedEpochs");
+
+        Assertions.assertNotNull(jsonDataProvider.getProtocolParametersForEpoch(FIRST_EPOCH));
+        Assertions.assertEquals(reservesOfPreviousEpochs.get(FIRST_EPOCH + 1), jsonDataProvider.getAdaPotsForEpoch(FIRST_EPOCH).getReserves());
+        Object mappedEpoch = mappedEpochs.get(FIRST_EPOCH);
+        Object mappedAdaPotsEpoch = mappedEpochs.get(FIRST_EPOCH + 1);
+
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertNotNull(jsonDataProvider.getProtocolParametersForEpoch(FIRST_EPOCH));
+            Assertions.assertNotNull(jsonDataProvider.getAdaPotsForEpoch(FIRST_EPOCH));
+        }
+
+        Assertions.assertSame(mappedEpoch, mappedEpochs.get(FIRST_EPOCH));
+        Assertions.assertSame(mappedAdaPotsEpoch, mappedEpochs.get(FIRST_EPOCH + 1));
+
+        // The least recently used epochs are unmapped
+        for (int epoch = FIRST_EPOCH; epoch < FIRST_EPOCH + EPOCHS; epoch++) {
+            Assertions.assertNotNull(jsonDataProvider.getProtocolParametersForEpoch(epoch));
+        }
+        Assertions.assertEquals(4, mappedEpochs.size());
+        Assertions.assertFalse(mappedEpochs.containsKey(FIRST_EPOCH));
+    }
+
+    @Test
+    void poolStatesOfALoadedEpochAreLookedUpByTheirId() {
+        EpochValidationInput epochValidationInput = jsonDataProvider.getEpochValidationInput(FIRST_EPOCH);
+        for (PoolState poolState : epochValidationInput.getPoolStates()) {
+            Assertions.assertSame(poolState, jsonDataProvider.getPoolHistory(poolState.getPoolId(), FIRST_EPOCH));
+        }
+        Assertions.assertNull(jsonDataProvider.getPoolHistory("pool1unknown", FIRST_EPOCH));
+    }
+
+    @Test
+    void withoutReadAheadTheEpochIsStreamedAndAMissingFileIsRethrown() {
+        ReflectionTestUtils.setField(jsonDataProvider, "readAheadEpochs", 0);
+        NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+
+        EpochCalculationResult streamedResult = EpochValidation.calculateEpochRewardPots(FIRST_EPOCH, jsonDataProvider, false, networkConfig);
+        Assertions.assertFalse(jsonDataProvider.getCache().contains(FIRST_EPOCH));
+        EpochCalculationResult loadedResult = EpochValidation.calculateEpochRewardPots(FIRST_EPOCH,
+                jsonDataProvider.getEpochValidationInput(FIRST_EPOCH), networkConfig, (ForkJoinPool) null);
+        Assertions.assertEquals(loadedResult.getTreasury(), streamedResult.getTreasury());
+        Assertions.assertEquals(loadedResult.getReserves(), streamedResult.getReserves());
+
+        Assertions.assertThrows(UncheckedIOException.class,
+                () -> EpochValidation.calculateEpochRewardPots(FIRST_EPOCH + EPOCHS, jsonDataProvider, false, networkConfig));
+    }
+
+    @Test
+    void withoutAConfiguredMemoryCapTheCacheAndTheReadAheadShareHalfOfTheHeap() {
+        long maxMemory = 8L * 1024 * 1024 * 1024;
+        Assertions.assertEquals(maxMemory / 4, JsonDataProvider.getMemoryCapInBytes(0, maxMemory));
+        Assertions.assertEquals(512L * 1024 * 1024, JsonDataProvider.getMemoryCapInBytes(512, maxMemory));
+    }
+}
@@ -0,0 +1,139 @@
+package org.cardanofoundation.rewards.validation.repository;
+
+import org.cardanofoundation.rewards.calculation.domain.DelegatorStakes;
+import org.cardanofoundation.rewards.calculation.domain.StakeAddressDictionary;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DbSyncEpochStakeReaderTest {
+
+    private record PoolStakes(String poolId, DelegatorStakes delegatorStakes, long activeStake) {
+    }
+
+    /*
+     * A result set of the epoch stake query: the numeric pool id, the pool id view, the stake address and the amount.
+     */
+    private static ResultSet resultSetOf(Object[][] rows) throws SQLException {
+        AtomicInteger row = new AtomicInteger(-1);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> row.incrementAndGet() < rows.length);
+        Mockito.when(resultSet.getLong(Mockito.anyInt()))
+                .thenAnswer(invocation -> ((Number) rows[row.get()][invocation.<Integer>getArgument(0) - 1]).longValue());
+        Mockito.when(resultSet.getString(Mockito.anyInt()))
+                .thenAnswer(invocation -> (String) rows[row.get()][invocation.<Integer>getArgument(0) - 1]);
+        return resultSet;
+    }
+
+    private static List<PoolStakes> readWithHandler(Object[][] rows, StakeAddressDictionary stakeAddressDictionary) throws SQLException {
+        List<PoolStakes> poolStakes = new ArrayList<>();
+        DbSyncEpochStakeReader.PoolStakesHandler poolStakesHandler = new DbSyncEpochStakeReader.PoolStakesHandler(stakeAddressDictionary,
+                (poolId, delegatorStakes, activeStake) -> poolStakes.add(new PoolStakes(poolId, delegatorStakes, activeStake)));
+        ResultSet resultSet = resultSetOf(rows);
+        while (resultSet.next()) {
+            poolStakesHandler.processRow(resultSet);
+        }
+        poolStakesHandler.completePool();
+        return poolStakes;
+    }
+
+    private static void assertDelegators(List<String> stakeAddresses, List<Long> activeStakes, DelegatorStakes delegatorStakes) {
+        Assertions.assertEquals(stakeAddresses.size(), delegatorStakes.size());
+        for (int i = 0; i < delegatorStakes.size(); i++) {
+            Assertions.assertEquals(stakeAddresses.get(i), delegatorStakes.getStakeAddress(i));
+            Assertions.assertEquals(activeStakes.get(i), delegatorStakes.getActiveStake(i));
+        }
+    }
+
+    @Test
+    void theRowsAreGroupedByPoolAndTheLastPoolIsPassedOnCompletion() throws SQLException {
+        StakeAddressDictionary stakeAddressDictionary = new StakeAddressDictionary();
+        // Pool 2 has no delegators with an active stake, so it has no rows
+        List<PoolStakes> poolStakes = readWithHandler(new Object[][]{
+                {1L, "pool1a", "stake1u_a", 100L},
+                {1L, "pool1a", "stake1u_b", 200L},
+                {3L, "pool1c", "stake1u_a", 300L},
+                {4L, "pool1d", "stake1u_c", 400L},
+                {4L, "pool1d", "stake1u_d", 500L},
+                {4L, "pool1d", "stake1u_e", 600L}
+        }, stakeAddressDictionary);
+
+        Assertions.assertEquals(List.of("pool1a", "pool1c", "pool1d"), poolStakes.stream().map(PoolStakes::poolId).toList());
+        Assertions.assertEquals(List.of(300L, 300L, 1500L), poolStakes.stream().map(PoolStakes::activeStake).toList());
+        assertDelegators(List.of("stake1u_a", "stake1u_b"), List.of(100L, 200L), poolStakes.get(0).delegatorStakes());
+        assertDelegators(List.of("stake1u_a"), List.of(300L), poolStakes.get(1).delegatorStakes());
+        // The last pool is only passed to the consumer when the handler is completed
+        assertDelegators(List.of("stake1u_c", "stake1u_d", "stake1u_e"), List.of(400L, 500L, 600L), poolStakes.get(2).delegatorStakes());
+
+        // A delegator of two pools has the same id in both
+        Assertions.assertEquals(5, stakeAddressDictionary.size());
+        Assertions.assertEquals(poolStakes.get(0).delegatorStakes().getStakeAddressId(0), poolStakes.get(1).delegatorStakes().getStakeAddressId(0));
+    }
+
+    @Test
+    void withoutRowsNoPoolIsPassed() throws SQLException {
+        Assertions.assertTrue(readWithHandler(new Object[0][], new StakeAddressDictionary()).isEmpty());
+    }
+
+    @Test
+    void theCursorOfTheEpochStakesIsReadIntoTheDelegatorStakes() throws SQLException {
+        Object[][] rows = {
+                {7L, "pool1a", "stake1u_a", 1_000_000L},
+                {7L, "pool1a", "stake1u_b", 45_000_000_000_000L},
+                {9L, "pool1b", "stake1u_c", 1L}
+        };
+        ResultSet resultSet = resultSetOf(rows);
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(preparedStatement);
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+
+        StakeAddressDictionary stakeAddressDictionary = new StakeAddressDictionary();
+        List<PoolStakes> poolStakes = new ArrayList<>();
+        new DbSyncEpochStakeReader(dataSource).readPoolActiveStakesInEpoch(450, List.of("pool1a", "pool1b"), stakeAddressDictionary,
+                (poolId, delegatorStakes, activeStake) -> poolStakes.add(new PoolStakes(poolId, delegatorStakes, activeStake)));
+
+        // The rows are fetched in chunks by a forward-only cursor
+        Mockito.verify(connection).prepareStatement(Mockito.contains("IN (?, ?)"));
+        Mockito.verify(preparedStatement).setFetchSize(10_000);
+        Mockito.verify(preparedStatement).setString(2, "pool1a");
+        Mockito.verify(preparedStatement).setString(3, "pool1b");
+        Mockito.verify(resultSet).close();
+        Mockito.verify(preparedStatement).close();
+
+        Assertions.assertEquals(List.of("pool1a", "pool1b"), poolStakes.stream().map(PoolStakes::poolId).toList());
+        int row = 0;
+        for (PoolStakes pool : poolStakes) {
+            DelegatorStakes delegatorStakes = pool.delegatorStakes();
+            Assertions.assertSame(stakeAddressDictionary, delegatorStakes.getStakeAddressDictionary());
+            long activeStake = 0;
+            for (int i = 0; i < delegatorStakes.size(); i++, row++) {
+                Assertions.assertEquals(rows[row][2], delegatorStakes.getStakeAddress(i));
+                Assertions.assertEquals(stakeAddressDictionary.getId((String) rows[row][2]), delegatorStakes.getStakeAddressId(i));
+                Assertions.assertEquals(rows[row][3], delegatorStakes.getActiveStake(i));
+                activeStake += delegatorStakes.getActiveStake(i);
+            }
+            Assertions.assertEquals(activeStake, pool.activeStake());
+        }
+        Assertions.assertEquals(rows.length, row);
+    }
+
+    @Test
+    void withoutPoolsTheDatabaseIsNotQueried() {
+        DataSource dataSource = Mockito.mock(DataSource.class);
+        new DbSyncEpochStakeReader(dataSource).readPoolActiveStakesInEpoch(450, List.of(), new StakeAddressDictionary(),
+                (poolId, delegatorStakes, activeStake) -> Assertions.fail("unexpected pool " + poolId));
+        Mockito.verifyNoInteractions(dataSource);
+    }
+}
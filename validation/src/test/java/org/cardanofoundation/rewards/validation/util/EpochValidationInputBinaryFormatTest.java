@@ -0,0 +1,199 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.Delegator;
+import org.cardanofoundation.rewards.calculation.domain.EpochCalculationResult;
+import org.cardanofoundation.rewards.calculation.domain.MirCertificate;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.calculation.domain.RetiredPool;
+import org.cardanofoundation.rewards.validation.EpochValidation;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationDelegatorReward;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class EpochValidationInputBinaryFormatTest {
+
+    private static final int EPOCH = 450;
+
+    @TempDir
+    Path tempDir;
+
+    private static EpochValidationInput generateEpochValidationInput() {
+        EpochValidationInput input = new SyntheticEpochGenerator(3, NetworkConfig.getMainnetConfig()).generate(EPOCH, 300, 20_000);
+        Random random = new Random(3);
+        input.setPoolRewards(input.getPoolStates().stream()
+                .map(poolState -> EpochValidationPoolReward.builder()
+                        .poolId(poolState.getPoolId())
+                        .totalPoolReward(BigInteger.valueOf(random.nextInt(1_000_000_000)))
+                        .delegatorRewards(poolState.getDelegators().stream()
+                                .map(delegator -> EpochValidationDelegatorReward.builder()
+                                        .stakeAddress(delegator.getStakeAddress())
+                                        .reward(BigInteger.valueOf(random.nextInt(100_000_000)))
+                                        .build())
+                                .collect(Collectors.toCollection(HashSet::new)))
+                        .build())
+                .collect(Collectors.toCollection(HashSet::new)));
+        return input;
+    }
+
+    /*
+     * A canonical representation of the input, independent of the iteration order of the sets.
+     */
+    private static List<String> describe(EpochValidationInput input) {
+        List<String> description = new ArrayList<>();
+        description.add(input.getEpoch() + " " + input.getTreasuryOfPreviousEpoch() + " " + input.getReservesOfPreviousEpoch()
+                + " " + input.getDecentralisation() + " " + input.getTreasuryGrowRate() + " " + input.getMonetaryExpandRate()
+                + " " + input.getOptimalPoolCount() + " " + input.getPoolOwnerInfluence() + " " + input.getFees()
+                + " " + input.getBlockCount() + " " + input.getActiveStake() + " " + input.getNonOBFTBlockCount());
+        for (Set<String> strings : List.of(input.getDeregisteredAccounts(), input.getLateDeregisteredAccounts(),
+                input.getRegisteredAccountsSinceLastEpoch(), input.getRegisteredAccountsUntilNow(),
+                input.getSharedPoolRewardAddressesWithoutReward(), input.getDeregisteredAccountsOnEpochBoundary())) {
+            description.add(new TreeSet<>(strings).toString());
+        }
+        description.add(input.getRetiredPools().stream()
+                .map(retiredPool -> retiredPool.getPoolId() + " " + retiredPool.getRewardAddress() + " " + retiredPool.getDepositAmount())
+                .sorted().toList().toString());
+        description.add(input.getMirCertificates().stream()
+                .map(mirCertificate -> mirCertificate.getPot() + " " + mirCertificate.getTotalRewards())
+                .sorted().toList().toString());
+        input.getPoolStates().stream()
+                .sorted(Comparator.comparing(PoolState::getPoolId))
+                .forEach(poolState -> description.add(describe(poolState)));
+        input.getPoolRewards().stream()
+                .sorted(Comparator.comparing(EpochValidationPoolReward::getPoolId))
+                .forEach(poolReward -> description.add(describe(poolReward)));
+        return description;
+    }
+
+    private static String describe(PoolState poolState) {
+        return poolState.getPoolId() + " " + poolState.getRewardAddress() + " "
+                + new TreeSet<>(poolState.getOwners()) + " " + poolState.getActiveStake() + " " + poolState.getPledge() + " "
+                + poolState.getOwnerActiveStake() + " " + poolState.getPoolFees() + " " + poolState.getFixedCost() + " "
+                + poolState.getMargin() + " " + poolState.getBlockCount() + " " + poolState.getEpoch() + " "
+                + poolState.getDelegators().stream()
+                    .collect(Collectors.toMap(Delegator::getStakeAddress, Delegator::getActiveStake, (a, b) -> a, TreeMap::new));
+    }
+
+    private static String describe(EpochValidationPoolReward poolReward) {
+        return poolReward.getPoolId() + " " + poolReward.getTotalPoolReward() + " "
+                + poolReward.getDelegatorRewards().stream()
+                    .collect(Collectors.toMap(EpochValidationDelegatorReward::getStakeAddress,
+                            EpochValidationDelegatorReward::getReward, (a, b) -> a, TreeMap::new));
+    }
+
+    @Test
+    void binaryFileContainsTheSameEpochValidationInput() throws IOException {
+        EpochValidationInput input = generateEpochValidationInput();
+        String filePath = tempDir.resolve("epoch-validation-input-" + EPOCH + ".bin").toString();
+
+        EpochValidationInputBinaryWriter.write(input, filePath);
+        EpochValidationInput readInput = EpochValidationInputBinaryReader.read(filePath);
+
+        Assertions.assertEquals(describe(input), describe(readInput));
+        Assertions.assertFalse(Files.exists(Path.of(filePath + ".tmp")));
+    }
+
+    @Test
+    void edgeCasesAreEncodedWithoutLoss() throws IOException {
+        EpochValidationInput input = generateEpochValidationInput();
+        String largeAddress = "addr_test1" + "x".repeat(300);
+        input.setTreasuryOfPreviousEpoch(BigInteger.TWO.pow(100).negate());
+        input.setReservesOfPreviousEpoch(null);
+        input.setDecentralisation(new BigDecimal("1E+3"));
+        input.setOptimalPoolCount(null);
+        input.setSharedPoolRewardAddressesWithoutReward(new HashSet<>(List.of("NOT-BECH32", largeAddress, "stake1u")));
+        input.getRetiredPools().add(RetiredPool.builder().poolId("pool1qqq").depositAmount(null).build());
+        input.getMirCertificates().add(MirCertificate.builder().pot(null).totalRewards(BigInteger.TEN.pow(30)).build());
+        PoolState poolState = input.getPoolStates().iterator().next();
+        poolState.setOwners(new HashSet<>(List.of(largeAddress)));
+        poolState.setPoolFees(BigInteger.valueOf(-5));
+        poolState.setMargin(new BigDecimal("0.123456789012345678901234567890"));
+
+        String filePath = tempDir.resolve("edge-cases.bin").toString();
+        EpochValidationInputBinaryWriter.write(input, filePath);
+        EpochValidationInput readInput = EpochValidationInputBinaryReader.read(filePath);
+
+        Assertions.assertEquals(describe(input), describe(readInput));
+        Assertions.assertNull(readInput.getReservesOfPreviousEpoch());
+        Assertions.assertNull(readInput.getOptimalPoolCount());
+    }
+
+    @Test
+    void binaryFileIsSmallerThanTheCompressedJsonFile() throws IOException {
+        EpochValidationInput input = generateEpochValidationInput();
+        Path jsonFile = tempDir.resolve("epoch-validation-input-" + EPOCH + ".json.gz");
+        Path binaryFile = tempDir.resolve("epoch-validation-input-" + EPOCH + ".bin");
+
+        JsonConverter.writeObjectToCompressedJsonFile(input, jsonFile.toString());
+        EpochValidationInputBinaryWriter.write(input, binaryFile.toString());
+
+        Assertions.assertTrue(Files.size(binaryFile) * 3 < Files.size(jsonFile) * 2,
+                "Expected the binary file (" + Files.size(binaryFile) + " bytes) to be less than two thirds of the json file ("
+                        + Files.size(jsonFile) + " bytes)");
+    }
+
+    @Test
+    void poolsAreReadByTheirIdWithoutLoadingTheEpoch() throws IOException {
+        EpochValidationInput input = generateEpochValidationInput();
+        String filePath = tempDir.resolve("epoch-validation-input-" + EPOCH + ".bin").toString();
+        EpochValidationInputBinaryWriter.write(input, filePath);
+
+        try (EpochValidationInputBinaryReader reader = EpochValidationInputBinaryReader.open(filePath)) {
+            Assertions.assertEquals(input.getPoolStates().size(), reader.getPoolIds().size());
+
+            for (PoolState poolState : input.getPoolStates()) {
+                Assertions.assertEquals(describe(poolState), describe(reader.getPoolState(poolState.getPoolId())));
+            }
+            for (EpochValidationPoolReward poolReward : input.getPoolRewards()) {
+                Assertions.assertEquals(describe(poolReward), describe(reader.getPoolReward(poolReward.getPoolId())));
+            }
+
+            Assertions.assertNull(reader.getPoolState("pool1unknown"));
+            Assertions.assertNull(reader.getPoolReward("pool1unknown"));
+
+            int count = 0;
+            for (Iterator<PoolState> poolStates = reader.poolStates(); poolStates.hasNext(); poolStates.next()) {
+                count++;
+            }
+            Assertions.assertEquals(input.getPoolStates().size(), count);
+        }
+    }
+
+    @Test
+    void streamedCalculationOfTheBinaryFileEqualsTheCalculationInMemory() throws IOException {
+        EpochValidationInput input = generateEpochValidationInput();
+        String filePath = tempDir.resolve("epoch-validation-input-" + EPOCH + ".bin").toString();
+        EpochValidationInputBinaryWriter.write(input, filePath);
+
+        EpochCalculationResult expected = EpochValidation.calculateEpochRewardPots(EPOCH, input, NetworkConfig.getMainnetConfig(), null);
+        EpochCalculationResult actual = EpochValidation.calculateEpochRewardPots(EPOCH, filePath, NetworkConfig.getMainnetConfig(), null);
+
+        Assertions.assertEquals(expected.getTotalDistributedRewards(), actual.getTotalDistributedRewards());
+        Assertions.assertEquals(expected.getTreasury(), actual.getTreasury());
+        Assertions.assertEquals(expected.getReserves(), actual.getReserves());
+    }
+
+    @Test
+    void corruptFilesAreRejected() throws IOException {
+        Path file = tempDir.resolve("corrupt.bin");
+        Files.write(file, new byte[]{1, 2, 3});
+        Assertions.assertThrows(IOException.class, () -> EpochValidationInputBinaryReader.read(file.toString()));
+
+        EpochValidationInputBinaryWriter.write(generateEpochValidationInput(), file.toString());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        Assertions.assertThrows(IOException.class, () -> EpochValidationInputBinaryReader.read(file.toString()));
+    }
+}
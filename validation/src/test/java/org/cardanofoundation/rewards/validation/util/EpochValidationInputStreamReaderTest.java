@@ -0,0 +1,112 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.EpochCalculationResult;
+import org.cardanofoundation.rewards.calculation.domain.PoolRewardCalculationResult;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.validation.EpochValidation;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationPoolReward;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class EpochValidationInputStreamReaderTest {
+
+    private static final int EPOCH = 450;
+
+    private final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+
+    @TempDir
+    Path tempDir;
+
+    private EpochValidationInput epochValidationInput;
+    private String filePath;
+
+    @BeforeEach
+    void writeEpochValidationInput() throws IOException {
+        epochValidationInput = new SyntheticEpochGenerator(7, networkConfig).generate(EPOCH, 200, 10_000);
+        epochValidationInput.setPoolRewards(epochValidationInput.getPoolStates().stream()
+                .map(poolState -> EpochValidationPoolReward.builder()
+                        .poolId(poolState.getPoolId())
+                        .totalPoolReward(BigInteger.valueOf(poolState.getBlockCount()))
+                        .delegatorRewards(new HashSet<>())
+                        .build())
+                .collect(Collectors.toCollection(HashSet::new)));
+
+        filePath = tempDir.resolve("epoch-validation-input-" + EPOCH + ".json.gz").toString();
+        JsonConverter.writeObjectToCompressedJsonFile(epochValidationInput, filePath);
+    }
+
+    @Test
+    void readWithoutPoolsSkipsOnlyThePools() throws IOException {
+        EpochValidationInput header = EpochValidationInputStreamReader.readWithoutPools(filePath);
+
+        Assertions.assertNull(header.getPoolStates());
+        Assertions.assertNull(header.getPoolRewards());
+        Assertions.assertEquals(epochValidationInput.getEpoch(), header.getEpoch());
+        Assertions.assertEquals(epochValidationInput.getReservesOfPreviousEpoch(), header.getReservesOfPreviousEpoch());
+        Assertions.assertEquals(epochValidationInput.getActiveStake(), header.getActiveStake());
+        Assertions.assertEquals(epochValidationInput.getDeregisteredAccounts(), header.getDeregisteredAccounts());
+        Assertions.assertEquals(epochValidationInput.getRegisteredAccountsUntilNow(), header.getRegisteredAccountsUntilNow());
+        Assertions.assertEquals(epochValidationInput.getRetiredPools().size(), header.getRetiredPools().size());
+        Assertions.assertEquals(epochValidationInput.getMirCertificates().size(), header.getMirCertificates().size());
+    }
+
+    @Test
+    void streamedPoolsAreIdenticalToTheInput() throws IOException {
+        Map<String, PoolState> poolStatesById = epochValidationInput.getPoolStates().stream()
+                .collect(Collectors.toMap(PoolState::getPoolId, poolState -> poolState));
+
+        int streamedPools = 0;
+        try (EpochValidationInputStreamReader.JsonArrayIterator<PoolState> poolStates =
+                     EpochValidationInputStreamReader.streamPoolStates(filePath)) {
+            while (poolStates.hasNext()) {
+                PoolState poolState = poolStates.next();
+                PoolState expected = poolStatesById.get(poolState.getPoolId());
+                Assertions.assertNotNull(expected);
+                Assertions.assertEquals(expected.getActiveStake(), poolState.getActiveStake());
+                Assertions.assertEquals(expected.getDelegators().size(), poolState.getDelegators().size());
+                streamedPools++;
+            }
+        }
+        Assertions.assertEquals(poolStatesById.size(), streamedPools);
+
+        int streamedPoolRewards = 0;
+        try (EpochValidationInputStreamReader.JsonArrayIterator<EpochValidationPoolReward> poolRewards =
+                     EpochValidationInputStreamReader.streamPoolRewards(filePath)) {
+            while (poolRewards.hasNext()) {
+                Assertions.assertTrue(poolStatesById.containsKey(poolRewards.next().getPoolId()));
+                streamedPoolRewards++;
+            }
+        }
+        Assertions.assertEquals(poolStatesById.size(), streamedPoolRewards);
+    }
+
+    @Test
+    void streamedCalculationIsIdenticalToTheCalculationInMemory() throws IOException {
+        EpochCalculationResult expected = EpochValidation.calculateEpochRewardPots(EPOCH, epochValidationInput, networkConfig, null);
+
+        List<PoolRewardCalculationResult> streamedPoolResults = new ArrayList<>();
+        EpochCalculationResult streamed = EpochValidation.calculateEpochRewardPots(EPOCH, filePath, networkConfig, streamedPoolResults::add);
+
+        Assertions.assertEquals(expected.getTotalDistributedRewards(), streamed.getTotalDistributedRewards());
+        Assertions.assertEquals(expected.getReserves(), streamed.getReserves());
+        Assertions.assertEquals(expected.getTreasury(), streamed.getTreasury());
+        Assertions.assertTrue(streamed.getPoolRewardCalculationResults().isEmpty());
+
+        Map<String, BigInteger> expectedPoolRewards = expected.getPoolRewardCalculationResults().stream()
+                .collect(Collectors.toMap(PoolRewardCalculationResult::getPoolId, PoolRewardCalculationResult::getDistributedPoolReward));
+        Map<String, BigInteger> streamedPoolRewards = streamedPoolResults.stream()
+                .collect(Collectors.toMap(PoolRewardCalculationResult::getPoolId, PoolRewardCalculationResult::getDistributedPoolReward));
+        Assertions.assertEquals(expectedPoolRewards, streamedPoolRewards);
+    }
+}
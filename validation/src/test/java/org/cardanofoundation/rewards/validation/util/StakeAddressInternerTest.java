@@ -0,0 +1,103 @@
+package org.cardanofoundation.rewards.validation.util;
+
+import org.cardanofoundation.rewards.calculation.config.NetworkConfig;
+import org.cardanofoundation.rewards.calculation.domain.Delegator;
+import org.cardanofoundation.rewards.calculation.domain.EpochCalculationResult;
+import org.cardanofoundation.rewards.calculation.domain.PoolRewardCalculationResult;
+import org.cardanofoundation.rewards.calculation.domain.PoolState;
+import org.cardanofoundation.rewards.calculation.domain.Reward;
+import org.cardanofoundation.rewards.calculation.domain.StakeAddressDictionary;
+import org.cardanofoundation.rewards.validation.EpochValidation;
+import org.cardanofoundation.rewards.validation.data.generator.SyntheticEpochGenerator;
+import org.cardanofoundation.rewards.validation.domain.EpochValidationInput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+public class StakeAddressInternerTest {
+
+    private static final int EPOCH = 450;
+
+    @TempDir
+    Path tempDir;
+
+    private final NetworkConfig networkConfig = NetworkConfig.getMainnetConfig();
+
+    // Deserializing the input creates a separate instance for every occurrence of an address
+    private EpochValidationInput readEpochValidationInput() throws IOException {
+        String filePath = tempDir.resolve("epoch-validation-input-" + EPOCH + ".json.gz").toString();
+        JsonConverter.writeObjectToCompressedJsonFile(new SyntheticEpochGenerator(5, networkConfig).generate(EPOCH, 300, 20_000), filePath);
+        return JsonConverter.readJsonFile(filePath, EpochValidationInput.class);
+    }
+
+    private static Map<String, String> describeRewards(EpochCalculationResult epochCalculationResult) {
+        return epochCalculationResult.getPoolRewardCalculationResults().stream()
+                .collect(Collectors.toMap(PoolRewardCalculationResult::getPoolId, poolRewardCalculationResult ->
+                        poolRewardCalculationResult.getOperatorReward() + " " + poolRewardCalculationResult.getUnspendableEarnedRewards() + " "
+                                + (poolRewardCalculationResult.getMemberRewards() == null ? null : poolRewardCalculationResult.getMemberRewards().stream()
+                                    .collect(Collectors.toMap(Reward::getStakeAddress, Reward::getAmount, (a, b) -> a, TreeMap::new)))));
+    }
+
+    @Test
+    void everyStakeAddressIsHeldOnce() throws IOException {
+        EpochValidationInput input = readEpochValidationInput();
+        StakeAddressDictionary stakeAddressDictionary = StakeAddressInterner.intern(input);
+
+        Assertions.assertSame(stakeAddressDictionary, input.getStakeAddressDictionary());
+        Map<String, String> instances = new HashMap<>();
+        for (PoolState poolState : input.getPoolStates()) {
+            for (Delegator delegator : poolState.toDelegators()) {
+                Assertions.assertNull(instances.putIfAbsent(delegator.getStakeAddress(), delegator.getStakeAddress()));
+            }
+        }
+        Assertions.assertEquals(instances.size(), stakeAddressDictionary.size() - countAddressesWithoutDelegation(input, instances));
+
+        for (Set<String> stakeAddresses : List.of(input.getDeregisteredAccounts(), input.getLateDeregisteredAccounts(),
+                input.getRegisteredAccountsSinceLastEpoch(), input.getRegisteredAccountsUntilNow())) {
+            for (String stakeAddress : stakeAddresses) {
+                if (instances.containsKey(stakeAddress)) {
+                    Assertions.assertSame(instances.get(stakeAddress), stakeAddress);
+                }
+            }
+        }
+        for (PoolState poolState : input.getPoolStates()) {
+            Assertions.assertSame(instances.get(poolState.getRewardAddress()), poolState.getRewardAddress());
+        }
+    }
+
+    private static int countAddressesWithoutDelegation(EpochValidationInput input, Map<String, String> delegators) {
+        Set<String> stakeAddresses = new HashSet<>();
+        input.getPoolStates().forEach(poolState -> {
+            stakeAddresses.add(poolState.getRewardAddress());
+            stakeAddresses.addAll(poolState.getOwners());
+        });
+        input.getRetiredPools().forEach(retiredPool -> stakeAddresses.add(retiredPool.getRewardAddress()));
+        for (Set<String> accounts : List.of(input.getDeregisteredAccounts(), input.getLateDeregisteredAccounts(),
+                input.getRegisteredAccountsSinceLastEpoch(), input.getRegisteredAccountsUntilNow(),
+                input.getDeregisteredAccountsOnEpochBoundary())) {
+            stakeAddresses.addAll(accounts);
+        }
+        stakeAddresses.removeAll(delegators.keySet());
+        stakeAddresses.remove(null);
+        return stakeAddresses.size();
+    }
+
+    @Test
+    void calculationOnStakeAddressIdsEqualsTheCalculationOnStrings() throws IOException {
+        EpochValidationInput input = readEpochValidationInput();
+        EpochCalculationResult expected = EpochValidation.calculateEpochRewardPots(EPOCH, input, networkConfig, null);
+
+        StakeAddressInterner.intern(input);
+        EpochCalculationResult actual = EpochValidation.calculateEpochRewardPots(EPOCH, input, networkConfig, null);
+
+        Assertions.assertEquals(expected.getTotalDistributedRewards(), actual.getTotalDistributedRewards());
+        Assertions.assertEquals(expected.getTreasury(), actual.getTreasury());
+        Assertions.assertEquals(expected.getReserves(), actual.getReserves());
+        Assertions.assertEquals(describeRewards(expected), describeRewards(actual));
+    }
+}